@@ -3,9 +3,10 @@ package com.applegym.controller;
 import com.applegym.dto.ProductoDTO;
 import com.applegym.dto.ServicioDTO;
 import com.applegym.dto.CategoriaDTO;
+import com.applegym.service.CatalogoBusquedaService;
+import com.applegym.service.CatalogoSnapshotService;
 import com.applegym.service.ProductoService;
 import com.applegym.service.ServicioService;
-import com.applegym.service.CategoriaService;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,7 +48,10 @@ public class CatalogoController {
     private ServicioService servicioService;
     
     @Autowired
-    private CategoriaService categoriaService;
+    private CatalogoSnapshotService catalogoSnapshotService;
+    
+    @Autowired
+    private CatalogoBusquedaService catalogoBusquedaService;
     
     /**
      * CU03 - Obtener catálogo completo con productos y servicios.
@@ -83,28 +87,30 @@ public class CatalogoController {
                        Sort.by(sortBy).ascending();
             Pageable pageable = PageRequest.of(page, size, sort);
             
-            // Obtener productos
-            Page<ProductoDTO> productos = productoService.buscarProductosDisponibles(
+            // Obtener productos (desde el catálogo en memoria)
+            Page<ProductoDTO> productos = catalogoSnapshotService.buscarProductosDisponibles(
                 busqueda, categoria, precioMin, precioMax, pageable);
             
             // Obtener servicios
-            Page<ServicioDTO> servicios = servicioService.buscarServiciosDisponibles(
+            Page<ServicioDTO> servicios = catalogoSnapshotService.buscarServiciosDisponibles(
                 busqueda, categoria, precioMin, precioMax, pageable);
             
             // Obtener categorías
-            List<CategoriaDTO> categorias = categoriaService.obtenerCategoriasActivas();
+            List<CategoriaDTO> categorias = catalogoSnapshotService.obtenerCategoriasActivas();
             
             // Construir respuesta
             Map<String, Object> response = new HashMap<>();
             response.put("productos", productos);
             response.put("servicios", servicios);
             response.put("categorias", categorias);
-            response.put("filtros", Map.of(
-                "categoria", categoria,
-                "precioMin", precioMin,
-                "precioMax", precioMax,
-                "busqueda", busqueda
-            ));
+            // Map.of no admite valores nulos y todos los filtros son opcionales
+            Map<String, Object> filtros = new HashMap<>();
+            filtros.put("categoria", categoria);
+            filtros.put("precioMin", precioMin);
+            filtros.put("precioMax", precioMax);
+            filtros.put("busqueda", busqueda);
+            response.put("filtros", filtros);
+            response.put("versionCatalogo", catalogoSnapshotService.obtenerSnapshot().getVersion());
             
             return ResponseEntity.ok(response);
             
@@ -143,8 +149,8 @@ public class CatalogoController {
                 
                 // Agregar productos relacionados (misma categoría)
                 if (productoDTO.getIdCategoria() != null) {
-                    List<ProductoDTO> relacionados = productoService.buscarProductosPorCategoria(
-                        productoDTO.getIdCategoria(), PageRequest.of(0, 4)).getContent();
+                    List<ProductoDTO> relacionados = productoService.buscarProductosRelacionados(
+                        productoDTO.getIdProducto(), productoDTO.getIdCategoria(), 4);
                     response.put("productosRelacionados", relacionados);
                 }
                 
@@ -221,7 +227,7 @@ public class CatalogoController {
         logger.debug("Obteniendo categorías disponibles");
         
         try {
-            List<CategoriaDTO> categorias = categoriaService.obtenerCategoriasActivas();
+            List<CategoriaDTO> categorias = catalogoSnapshotService.obtenerCategoriasActivas();
             return ResponseEntity.ok(categorias);
             
         } catch (Exception e) {
@@ -259,8 +265,9 @@ public class CatalogoController {
             
             Pageable pageable = PageRequest.of(page, size);
             
-            Page<ProductoDTO> productos = productoService.buscarProductosPorNombre(q, pageable);
-            Page<ServicioDTO> servicios = servicioService.buscarServiciosPorNombre(q, pageable);
+            // Resultados ordenados por relevancia desde el índice en memoria
+            Page<ProductoDTO> productos = catalogoBusquedaService.buscarProductos(q, pageable);
+            Page<ServicioDTO> servicios = catalogoBusquedaService.buscarServicios(q, pageable);
             
             Map<String, Object> response = new HashMap<>();
             response.put("productos", productos);
@@ -311,12 +318,12 @@ public class CatalogoController {
             
             Pageable pageable = PageRequest.of(page, size, Sort.by("nombre").ascending());
             
-            // Cargar productos reales de la base de datos
-            Page<ProductoDTO> productos = productoService.buscarProductosDisponibles(
+            // Cargar productos desde el catálogo en memoria
+            Page<ProductoDTO> productos = catalogoSnapshotService.buscarProductosDisponibles(
                 busqueda, categoria, precioMin, precioMax, pageable);
             
-            // Cargar servicios reales de la base de datos
-            Page<ServicioDTO> servicios = servicioService.buscarServiciosDisponibles(
+            // Cargar servicios desde el catálogo en memoria
+            Page<ServicioDTO> servicios = catalogoSnapshotService.buscarServiciosDisponibles(
                 busqueda, categoria, precioMin, precioMax, pageable);
             
             List<Map<String, Object>> items = new java.util.ArrayList<>();
@@ -361,7 +368,7 @@ public class CatalogoController {
             response.put("totalElements", productos.getTotalElements() + servicios.getTotalElements());
             response.put("totalPages", Math.max(productos.getTotalPages(), servicios.getTotalPages()));
             response.put("currentPage", page);
-            response.put("source", "MySQL Database");
+            response.put("source", "Catálogo en memoria v" + catalogoSnapshotService.obtenerSnapshot().getVersion());
             
             logger.info("Catálogo completo cargado: {} productos, {} servicios", 
                        productos.getTotalElements(), servicios.getTotalElements());
@@ -395,7 +402,7 @@ public class CatalogoController {
             
             Pageable pageable = PageRequest.of(page, size, Sort.by("nombre").ascending());
             
-            Page<ProductoDTO> productos = productoService.buscarProductosDisponibles(
+            Page<ProductoDTO> productos = catalogoSnapshotService.buscarProductosDisponibles(
                 busqueda, categoria, precioMin, precioMax, pageable);
             
             List<Map<String, Object>> items = new java.util.ArrayList<>();
@@ -450,7 +457,7 @@ public class CatalogoController {
             
             Pageable pageable = PageRequest.of(page, size, Sort.by("nombre").ascending());
             
-            Page<ServicioDTO> servicios = servicioService.buscarServiciosDisponibles(
+            Page<ServicioDTO> servicios = catalogoSnapshotService.buscarServiciosDisponibles(
                 busqueda, categoria, precioMin, precioMax, pageable);
             
             List<Map<String, Object>> items = new java.util.ArrayList<>();
@@ -3,7 +3,11 @@ package com.applegym.controller;
 import com.applegym.dto.ResumenReporteDTO;
 import com.applegym.dto.TopItemDTO;
 import com.applegym.dto.VentasPorFechaDTO;
+import com.applegym.service.CarritoLimpiezaService;
+import com.applegym.service.CarritoMemoriaService;
+import com.applegym.service.ComprobanteGeneracionService;
 import com.applegym.service.ReporteService;
+import com.applegym.service.ResumenVentasService;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,7 +18,10 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.HashMap;
@@ -31,9 +38,23 @@ public class ReporteController {
     
     private static final Logger logger = LoggerFactory.getLogger(ReporteController.class);
     
+    private static final String ROL_ADMIN = "ROLE_ADMIN";
+    
     @Autowired
     private ReporteService reporteService;
     
+    @Autowired
+    private ResumenVentasService resumenVentasService;
+    
+    @Autowired
+    private ComprobanteGeneracionService comprobanteGeneracionService;
+    
+    @Autowired
+    private CarritoLimpiezaService carritoLimpiezaService;
+    
+    @Autowired
+    private CarritoMemoriaService carritoMemoriaService;
+    
     /**
      * Obtiene el resumen general para el dashboard.
      */
@@ -53,6 +74,72 @@ public class ReporteController {
         }
     }
     
+    /**
+     * Reconstruye los acumulados de ventas desde el histórico. Solo administradores.
+     */
+    @PostMapping("/resumen/reconstruir")
+    public ResponseEntity<?> reconstruirResumen() {
+        try {
+            if (!esAdministrador()) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of(
+                    "error", "Solo un administrador puede reconstruir los acumulados"));
+            }
+            
+            logger.info("Reconstruyendo acumulados de ventas");
+            
+            Map<String, Object> resultado = resumenVentasService.reconstruir();
+            
+            return ResponseEntity.ok(resultado);
+            
+        } catch (Exception e) {
+            logger.error("Error reconstruyendo acumulados: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    /**
+     * Obtiene el estado de la generación de comprobantes en segundo plano.
+     */
+    @GetMapping("/comprobantes/estado")
+    public ResponseEntity<?> obtenerEstadoComprobantes() {
+        try {
+            return ResponseEntity.ok(comprobanteGeneracionService.obtenerEstado());
+        } catch (Exception e) {
+            logger.error("Error obteniendo estado de comprobantes: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    /**
+     * Obtiene las métricas de la limpieza periódica de carritos.
+     */
+    @GetMapping("/carritos/limpieza")
+    public ResponseEntity<?> obtenerEstadoLimpiezaCarritos() {
+        try {
+            return ResponseEntity.ok(carritoLimpiezaService.obtenerEstado());
+        } catch (Exception e) {
+            logger.error("Error obteniendo estado de la limpieza de carritos: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    /**
+     * Obtiene el estado de los carritos en memoria y su escritura diferida.
+     */
+    @GetMapping("/carritos/memoria")
+    public ResponseEntity<?> obtenerEstadoCarritosEnMemoria() {
+        try {
+            return ResponseEntity.ok(carritoMemoriaService.obtenerEstado());
+        } catch (Exception e) {
+            logger.error("Error obteniendo estado de los carritos en memoria: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+    
     /**
      * Obtiene los productos más vendidos.
      */
@@ -116,6 +203,9 @@ public class ReporteController {
     
     /**
      * Exporta reporte a Excel.
+     * 
+     * El archivo se genera en streaming directamente sobre la respuesta HTTP,
+     * sin armarlo completo en memoria.
      */
     @GetMapping("/export/excel")
     public ResponseEntity<?> exportarExcel(
@@ -131,18 +221,25 @@ public class ReporteController {
                 fechaFin = LocalDate.now();
             }
             
-            byte[] excelBytes = reporteService.exportarReporteExcel(fechaInicio, fechaFin);
+            if (fechaInicio.isAfter(fechaFin)) {
+                return ResponseEntity.badRequest()
+                    .body(Map.of("error", "La fecha de inicio no puede ser posterior a la fecha fin"));
+            }
             
             String filename = String.format("Reporte_AppleGym_%s_a_%s.xlsx", 
                                           fechaInicio.toString(), 
                                           fechaFin.toString());
             
             HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+            headers.setContentType(MediaType.parseMediaType(
+                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
             headers.setContentDispositionFormData("attachment", filename);
-            headers.setContentLength(excelBytes.length);
             
-            return new ResponseEntity<>(excelBytes, headers, HttpStatus.OK);
+            final LocalDate inicio = fechaInicio;
+            final LocalDate fin = fechaFin;
+            StreamingResponseBody cuerpo = salida -> reporteService.exportarReporteExcel(inicio, fin, salida);
+            
+            return new ResponseEntity<>(cuerpo, headers, HttpStatus.OK);
             
         } catch (Exception e) {
             logger.error("Error exportando a Excel: {}", e.getMessage());
@@ -153,6 +250,8 @@ public class ReporteController {
     
     /**
      * Exporta reporte a PDF.
+     * 
+     * Las páginas se escriben en la respuesta HTTP a medida que se generan.
      */
     @GetMapping("/export/pdf")
     public ResponseEntity<?> exportarPDF(
@@ -168,7 +267,10 @@ public class ReporteController {
                 fechaFin = LocalDate.now();
             }
             
-            byte[] pdfBytes = reporteService.exportarReportePDF(fechaInicio, fechaFin);
+            if (fechaInicio.isAfter(fechaFin)) {
+                return ResponseEntity.badRequest()
+                    .body(Map.of("error", "La fecha de inicio no puede ser posterior a la fecha fin"));
+            }
             
             String filename = String.format("Reporte_AppleGym_%s_a_%s.pdf", 
                                           fechaInicio.toString(), 
@@ -177,9 +279,12 @@ public class ReporteController {
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_PDF);
             headers.setContentDispositionFormData("attachment", filename);
-            headers.setContentLength(pdfBytes.length);
             
-            return new ResponseEntity<>(pdfBytes, headers, HttpStatus.OK);
+            final LocalDate inicio = fechaInicio;
+            final LocalDate fin = fechaFin;
+            StreamingResponseBody cuerpo = salida -> reporteService.exportarReportePDF(inicio, fin, salida);
+            
+            return new ResponseEntity<>(cuerpo, headers, HttpStatus.OK);
             
         } catch (Exception e) {
             logger.error("Error exportando a PDF: {}", e.getMessage());
@@ -187,4 +292,13 @@ public class ReporteController {
                 .body(Map.of("error", e.getMessage()));
         }
     }
+    
+    /**
+     * Indica si el usuario autenticado por el filtro JWT tiene el rol ADMIN.
+     */
+    private boolean esAdministrador() {
+        Authentication autenticacion = SecurityContextHolder.getContext().getAuthentication();
+        return autenticacion != null && autenticacion.getAuthorities().stream()
+            .anyMatch(autoridad -> ROL_ADMIN.equals(autoridad.getAuthority()));
+    }
 }
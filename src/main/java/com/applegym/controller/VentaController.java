@@ -1,26 +1,40 @@
 package com.applegym.controller;
 
+import com.applegym.dto.ComprobanteArchivoDTO;
 import com.applegym.dto.VentaDTO;
+import com.applegym.dto.VentaLoteComandoDTO;
+import com.applegym.dto.VentaLoteResultadoDTO;
+import com.applegym.service.ComprobanteArchivoService;
 import com.applegym.service.VentaService;
-import com.applegym.service.PdfService;
 import com.applegym.security.JwtTokenProvider;
-import com.applegym.entity.Venta;
-import com.applegym.repository.VentaRepository;
 import com.applegym.exception.ResourceNotFoundException;
+import com.applegym.exception.StockInsuficienteException;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -37,18 +51,26 @@ public class VentaController {
     
     private static final Logger logger = LoggerFactory.getLogger(VentaController.class);
     
-    @Autowired
-    private VentaService ventaService;
+    // Atributos de request con los que Tomcat envía un archivo mediante sendfile
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    
+    private static final String ROL_ADMIN = "ROLE_ADMIN";
     
     @Autowired
-    private PdfService pdfService;
+    private VentaService ventaService;
     
     @Autowired
-    private VentaRepository ventaRepository;
+    private ComprobanteArchivoService comprobanteArchivoService;
     
     @Autowired
     private JwtTokenProvider tokenProvider;
     
+    @Value("${ventas.lote.max-ventas:500}")
+    private int maximoVentasPorLote;
+    
     /**
      * CU08 - Confirmar pago
      */
@@ -81,12 +103,89 @@ public class VentaController {
                 "redirectTo", "/comprobante/" + venta.getIdVenta()
             ));
             
+        } catch (StockInsuficienteException e) {
+            logger.warn("Venta rechazada por stock: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                "error", e.getMessage(),
+                "codigo", "STOCK_INSUFICIENTE",
+                "idProducto", e.getIdProducto(),
+                "cantidadSolicitada", e.getCantidadSolicitada()
+            ));
         } catch (Exception e) {
             logger.error("Error procesando venta: {}", e.getMessage());
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
     
+    /**
+     * Checkout por lotes para recepción y terminales de autoservicio.
+     * 
+     * Cada elemento de "ventas" indica el cliente cuyo carrito activo se cobra y
+     * el método de pago; la respuesta incluye el resultado de cada uno en orden.
+     * Como cobra carritos de otros clientes, solo lo puede usar un administrador.
+     */
+    @PostMapping("/procesar-lote")
+    public ResponseEntity<?> procesarVentasEnLote(@RequestBody Map<String, Object> request, HttpServletRequest httpRequest) {
+        try {
+            String token = extractTokenFromRequest(httpRequest);
+            if (token == null) {
+                return ResponseEntity.status(401).body(Map.of("error", "Token requerido"));
+            }
+            
+            String operador = tokenProvider.getUsernameFromToken(token);
+            
+            if (!esAdministrador()) {
+                logger.warn("Lote de ventas rechazado: {} no es administrador", operador);
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of(
+                    "error", "Solo un administrador puede procesar ventas en lote"));
+            }
+            
+            if (!(request.get("ventas") instanceof List<?> ventas) || ventas.isEmpty()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Debe indicar al menos una venta"));
+            }
+            if (ventas.size() > maximoVentasPorLote) {
+                return ResponseEntity.badRequest().body(Map.of(
+                    "error", "El lote supera el máximo de ventas permitido",
+                    "maximo", maximoVentasPorLote
+                ));
+            }
+            
+            List<VentaLoteComandoDTO> comandos = new ArrayList<>(ventas.size());
+            for (int i = 0; i < ventas.size(); i++) {
+                Map<?, ?> venta = ventas.get(i) instanceof Map<?, ?> m ? m : Map.of();
+                Object email = venta.get("emailCliente");
+                Object metodoPago = venta.get("metodoPago");
+                
+                if (email == null || metodoPago == null || !isValidPaymentMethod(metodoPago.toString())) {
+                    return ResponseEntity.badRequest().body(Map.of(
+                        "error", "Venta inválida en la posición " + i,
+                        "metodosPermitidos", new String[]{"TARJETA_CREDITO", "TARJETA_DEBITO"}
+                    ));
+                }
+                comandos.add(new VentaLoteComandoDTO(email.toString(), metodoPago.toString()));
+            }
+            
+            long inicio = System.currentTimeMillis();
+            List<VentaLoteResultadoDTO> resultados = ventaService.procesarVentasEnLote(comandos);
+            long duracion = System.currentTimeMillis() - inicio;
+            
+            long exitosas = resultados.stream().filter(VentaLoteResultadoDTO::isExito).count();
+            logger.info("Lote de ventas procesado por {} - Exitosas: {}/{}, Tiempo: {} ms",
+                       operador, exitosas, resultados.size(), duracion);
+            
+            return ResponseEntity.ok(Map.of(
+                "resultados", resultados,
+                "exitosas", exitosas,
+                "fallidas", resultados.size() - exitosas,
+                "duracionMs", duracion
+            ));
+            
+        } catch (Exception e) {
+            logger.error("Error procesando lote de ventas: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
     /**
      * CU09 - Recibir comprobante digital
      */
@@ -112,10 +211,13 @@ public class VentaController {
     
     /**
      * Descargar comprobante en PDF
+     * 
+     * El PDF se genera una sola vez y se sirve desde el almacén de comprobantes
+     * con sendfile (o FileChannel.transferTo), usando su hash como ETag.
      */
     @GetMapping("/comprobante/{ventaId}/pdf")
-    @Transactional(readOnly = true)
-    public ResponseEntity<?> descargarComprobantePDF(@PathVariable Long ventaId, HttpServletRequest httpRequest) {
+    public ResponseEntity<?> descargarComprobantePDF(@PathVariable Long ventaId, HttpServletRequest httpRequest,
+                                                     HttpServletResponse httpResponse) {
         try {
             String token = extractTokenFromRequest(httpRequest);
             if (token == null) {
@@ -124,38 +226,74 @@ public class VentaController {
             
             String email = tokenProvider.getUsernameFromToken(token);
             
-            // Buscar la venta y validar que pertenece al cliente
-            Venta venta = ventaRepository.findById(ventaId)
-                .orElseThrow(() -> new ResourceNotFoundException("Venta no encontrada"));
+            // Valida que la venta pertenece al cliente y genera el PDF si aún no existe
+            ComprobanteArchivoDTO archivo = comprobanteArchivoService.obtenerArchivo(ventaId, email);
+            String etag = "\"" + archivo.getHash() + "\"";
             
-            if (!venta.getCliente().getEmail().equals(email)) {
-                return ResponseEntity.status(403).body(Map.of("error", "No tiene permisos para acceder a este comprobante"));
+            if (coincideEtag(httpRequest.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
             }
             
-            // Generar PDF
-            ByteArrayOutputStream pdfStream = pdfService.generarComprobantePDF(venta);
-            
             // Configurar headers para descarga
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            String filename = String.format("Comprobante_%s.pdf", 
-                venta.getNumeroVenta() != null ? venta.getNumeroVenta() : "VT" + venta.getIdVenta());
-            headers.setContentDispositionFormData("attachment", filename);
-            headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
+            httpResponse.setContentType(MediaType.APPLICATION_PDF_VALUE);
+            httpResponse.setContentLengthLong(archivo.getTamano());
+            httpResponse.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + archivo.getNombreArchivo() + "\"");
+            httpResponse.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+            httpResponse.setHeader(HttpHeaders.ETAG, etag);
+            
+            enviarArchivo(archivo, httpRequest, httpResponse);
             
-            logger.info("PDF generado para venta ID: {}, Cliente: {}", ventaId, email);
+            logger.debug("Comprobante enviado para venta ID: {}, Cliente: {}", ventaId, email);
             
-            return new ResponseEntity<>(pdfStream.toByteArray(), headers, HttpStatus.OK);
+            // Respuesta ya escrita
+            return null;
             
         } catch (ResourceNotFoundException e) {
             logger.error("Venta no encontrada: {}", e.getMessage());
             return ResponseEntity.status(404).body(Map.of("error", e.getMessage()));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(403).body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             logger.error("Error generando PDF para venta ID {}: {}", ventaId, e.getMessage(), e);
+            if (httpResponse.isCommitted()) {
+                // Ya se enviaron bytes del PDF: no se puede cambiar el estado de la respuesta
+                return null;
+            }
+            httpResponse.reset();
             return ResponseEntity.status(500).body(Map.of("error", "Error al generar el PDF: " + e.getMessage()));
         }
     }
     
+    /**
+     * Historial de compras del cliente autenticado.
+     * 
+     * Paginado por keyset: para la página siguiente se envían antesDeFecha y
+     * antesDeId tal como llegan en "siguiente" de la respuesta anterior.
+     */
+    @GetMapping("/historial")
+    public ResponseEntity<?> obtenerHistorial(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime antesDeFecha,
+            @RequestParam(required = false) Long antesDeId,
+            @RequestParam(defaultValue = "20") int tamano,
+            HttpServletRequest httpRequest) {
+        try {
+            String token = extractTokenFromRequest(httpRequest);
+            if (token == null) {
+                return ResponseEntity.status(401).body(Map.of("error", "Token requerido"));
+            }
+            
+            String email = tokenProvider.getUsernameFromToken(token);
+            
+            return ResponseEntity.ok(ventaService.obtenerHistorial(email, antesDeFecha, antesDeId, tamano));
+            
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(404).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error obteniendo historial de compras: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
     /**
      * Obtener métodos de pago disponibles
      */
@@ -176,6 +314,54 @@ public class VentaController {
         );
     }
     
+    /**
+     * Envía el archivo sin copiarlo por el heap: con sendfile del conector de
+     * Tomcat si está disponible, o con FileChannel.transferTo sobre la salida.
+     */
+    private void enviarArchivo(ComprobanteArchivoDTO archivo, HttpServletRequest request,
+                               HttpServletResponse response) throws IOException {
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, archivo.getRuta().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, archivo.getTamano());
+            return;
+        }
+        
+        try (FileChannel canal = FileChannel.open(archivo.getRuta(), StandardOpenOption.READ)) {
+            WritableByteChannel salida = Channels.newChannel(response.getOutputStream());
+            long posicion = 0;
+            while (posicion < archivo.getTamano()) {
+                posicion += canal.transferTo(posicion, archivo.getTamano() - posicion, salida);
+            }
+        }
+        response.flushBuffer();
+    }
+    
+    private boolean coincideEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String valor : ifNoneMatch.split(",")) {
+            String candidato = valor.trim();
+            if (candidato.startsWith("W/")) {
+                candidato = candidato.substring(2);
+            }
+            if (candidato.equals("*") || candidato.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Indica si el usuario autenticado por el filtro JWT tiene el rol ADMIN.
+     */
+    private boolean esAdministrador() {
+        Authentication autenticacion = SecurityContextHolder.getContext().getAuthentication();
+        return autenticacion != null && autenticacion.getAuthorities().stream()
+            .anyMatch(autoridad -> ROL_ADMIN.equals(autoridad.getAuthority()));
+    }
+    
     private String extractTokenFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
@@ -0,0 +1,93 @@
+package com.applegym.dto;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Instantánea inmutable y versionada del catálogo.
+ *
+ * Agrupa productos activos, servicios activos y categorías activas tal como
+ * estaban en el momento de construirse. Se reemplaza completa (nunca se
+ * modifica) cuando cambia el catálogo, por lo que puede leerse desde
+ * cualquier hilo sin sincronización.
+ *
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+public final class CatalogoSnapshot {
+
+    private final long version;
+
+    private final LocalDateTime fechaGeneracion;
+
+    private final List<ProductoDTO> productos;
+
+    private final List<ServicioDTO> servicios;
+
+    private final List<CategoriaDTO> categorias;
+
+    private final Map<Long, ProductoDTO> productosPorId;
+
+    private final Map<Long, ServicioDTO> serviciosPorId;
+
+    // Constructores
+    public CatalogoSnapshot(long version, List<ProductoDTO> productos, List<ServicioDTO> servicios,
+                            List<CategoriaDTO> categorias) {
+        this.version = version;
+        this.fechaGeneracion = LocalDateTime.now();
+        this.productos = List.copyOf(productos);
+        this.servicios = List.copyOf(servicios);
+        this.categorias = List.copyOf(categorias);
+
+        Map<Long, ProductoDTO> indiceProductos = new LinkedHashMap<>();
+        this.productos.forEach(producto -> indiceProductos.put(producto.getIdProducto(), producto));
+        this.productosPorId = Collections.unmodifiableMap(indiceProductos);
+
+        Map<Long, ServicioDTO> indiceServicios = new LinkedHashMap<>();
+        this.servicios.forEach(servicio -> indiceServicios.put(servicio.getIdServicio(), servicio));
+        this.serviciosPorId = Collections.unmodifiableMap(indiceServicios);
+    }
+
+    // Getters
+    public long getVersion() {
+        return version;
+    }
+
+    public LocalDateTime getFechaGeneracion() {
+        return fechaGeneracion;
+    }
+
+    public List<ProductoDTO> getProductos() {
+        return productos;
+    }
+
+    public List<ServicioDTO> getServicios() {
+        return servicios;
+    }
+
+    public List<CategoriaDTO> getCategorias() {
+        return categorias;
+    }
+
+    public ProductoDTO getProducto(Long idProducto) {
+        return productosPorId.get(idProducto);
+    }
+
+    public ServicioDTO getServicio(Long idServicio) {
+        return serviciosPorId.get(idServicio);
+    }
+
+    @Override
+    public String toString() {
+        return "CatalogoSnapshot{" +
+                "version=" + version +
+                ", fechaGeneracion=" + fechaGeneracion +
+                ", productos=" + productos.size() +
+                ", servicios=" + servicios.size() +
+                ", categorias=" + categorias.size() +
+                '}';
+    }
+}
@@ -42,6 +42,18 @@ public class CategoriaDTO {
         this.activo = activo;
     }
     
+    /**
+     * Constructor para la proyección de CategoriaRepository con los totales
+     * ya contados en la consulta.
+     */
+    public CategoriaDTO(Long idCategoria, String nombreCategoria, String descripcion, Boolean activo,
+                        LocalDateTime fechaCreacion, Long totalProductos, Long totalServicios) {
+        this(idCategoria, nombreCategoria, descripcion, activo);
+        this.fechaCreacion = fechaCreacion;
+        this.totalProductos = totalProductos != null ? totalProductos.intValue() : 0;
+        this.totalServicios = totalServicios != null ? totalServicios.intValue() : 0;
+    }
+    
     // Getters y Setters
     public Long getIdCategoria() {
         return idCategoria;
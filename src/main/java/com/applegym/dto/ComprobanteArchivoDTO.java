@@ -0,0 +1,38 @@
+package com.applegym.dto;
+
+import java.nio.file.Path;
+
+/**
+ * DTO con la ubicación del PDF almacenado de un comprobante.
+ */
+public class ComprobanteArchivoDTO {
+    
+    private final Path ruta;
+    private final String hash;
+    private final long tamano;
+    private final String nombreArchivo;
+    
+    public ComprobanteArchivoDTO(Path ruta, String hash, long tamano, String nombreArchivo) {
+        this.ruta = ruta;
+        this.hash = hash;
+        this.tamano = tamano;
+        this.nombreArchivo = nombreArchivo;
+    }
+    
+    // Getters
+    public Path getRuta() {
+        return ruta;
+    }
+    
+    public String getHash() {
+        return hash;
+    }
+    
+    public long getTamano() {
+        return tamano;
+    }
+    
+    public String getNombreArchivo() {
+        return nombreArchivo;
+    }
+}
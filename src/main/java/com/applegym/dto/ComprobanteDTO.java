@@ -0,0 +1,33 @@
+package com.applegym.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO para Comprobante.
+ * 
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+public class ComprobanteDTO {
+    private Long idComprobante;
+    private Long idVenta;
+    private LocalDateTime fechaEmision;
+    private String archivoComprobante;
+    private String tipoComprobante;
+    
+    // Getters y Setters
+    public Long getIdComprobante() { return idComprobante; }
+    public void setIdComprobante(Long idComprobante) { this.idComprobante = idComprobante; }
+    
+    public Long getIdVenta() { return idVenta; }
+    public void setIdVenta(Long idVenta) { this.idVenta = idVenta; }
+    
+    public LocalDateTime getFechaEmision() { return fechaEmision; }
+    public void setFechaEmision(LocalDateTime fechaEmision) { this.fechaEmision = fechaEmision; }
+    
+    public String getArchivoComprobante() { return archivoComprobante; }
+    public void setArchivoComprobante(String archivoComprobante) { this.archivoComprobante = archivoComprobante; }
+    
+    public String getTipoComprobante() { return tipoComprobante; }
+    public void setTipoComprobante(String tipoComprobante) { this.tipoComprobante = tipoComprobante; }
+}
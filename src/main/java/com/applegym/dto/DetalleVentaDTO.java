@@ -0,0 +1,45 @@
+package com.applegym.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO para Detalle de Venta.
+ * 
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+public class DetalleVentaDTO {
+    private Long idDetalle;
+    private Long idVenta;
+    private Long idProductoServicio;
+    private String tipo;
+    private String nombre;
+    private Integer cantidad;
+    private BigDecimal precioUnitario;
+    private BigDecimal subtotal;
+    
+    // Getters y Setters
+    public Long getIdDetalle() { return idDetalle; }
+    public void setIdDetalle(Long idDetalle) { this.idDetalle = idDetalle; }
+    
+    public Long getIdVenta() { return idVenta; }
+    public void setIdVenta(Long idVenta) { this.idVenta = idVenta; }
+    
+    public Long getIdProductoServicio() { return idProductoServicio; }
+    public void setIdProductoServicio(Long idProductoServicio) { this.idProductoServicio = idProductoServicio; }
+    
+    public String getTipo() { return tipo; }
+    public void setTipo(String tipo) { this.tipo = tipo; }
+    
+    public String getNombre() { return nombre; }
+    public void setNombre(String nombre) { this.nombre = nombre; }
+    
+    public Integer getCantidad() { return cantidad; }
+    public void setCantidad(Integer cantidad) { this.cantidad = cantidad; }
+    
+    public BigDecimal getPrecioUnitario() { return precioUnitario; }
+    public void setPrecioUnitario(BigDecimal precioUnitario) { this.precioUnitario = precioUnitario; }
+    
+    public BigDecimal getSubtotal() { return subtotal; }
+    public void setSubtotal(BigDecimal subtotal) { this.subtotal = subtotal; }
+}
@@ -0,0 +1,38 @@
+package com.applegym.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO para Pago.
+ * 
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+public class PagoDTO {
+    private Long idPago;
+    private Long idVenta;
+    private String tipoPago;
+    private BigDecimal monto;
+    private LocalDateTime fechaPago;
+    private String estadoPago;
+    
+    // Getters y Setters
+    public Long getIdPago() { return idPago; }
+    public void setIdPago(Long idPago) { this.idPago = idPago; }
+    
+    public Long getIdVenta() { return idVenta; }
+    public void setIdVenta(Long idVenta) { this.idVenta = idVenta; }
+    
+    public String getTipoPago() { return tipoPago; }
+    public void setTipoPago(String tipoPago) { this.tipoPago = tipoPago; }
+    
+    public BigDecimal getMonto() { return monto; }
+    public void setMonto(BigDecimal monto) { this.monto = monto; }
+    
+    public LocalDateTime getFechaPago() { return fechaPago; }
+    public void setFechaPago(LocalDateTime fechaPago) { this.fechaPago = fechaPago; }
+    
+    public String getEstadoPago() { return estadoPago; }
+    public void setEstadoPago(String estadoPago) { this.estadoPago = estadoPago; }
+}
@@ -73,6 +73,28 @@ public class ProductoDTO {
         this.disponible = activo && stock > 0;
     }
     
+    /**
+     * Constructor para las proyecciones de ProductoRepository, que leen las
+     * columnas directamente sin cargar la entidad.
+     */
+    public ProductoDTO(Long idProducto, String nombre, String descripcion, BigDecimal precio, 
+                      Integer stock, Boolean activo, String imagenUrl, Long idCategoria, 
+                      String nombreCategoria, LocalDateTime fechaCreacion, 
+                      LocalDateTime fechaActualizacion) {
+        this.idProducto = idProducto;
+        this.nombre = nombre;
+        this.descripcion = descripcion;
+        this.precio = precio;
+        this.stock = stock;
+        this.activo = activo;
+        this.imagenUrl = imagenUrl;
+        this.idCategoria = idCategoria;
+        this.nombreCategoria = nombreCategoria;
+        this.fechaCreacion = fechaCreacion;
+        this.fechaActualizacion = fechaActualizacion;
+        this.disponible = isDisponible();
+    }
+    
     // Métodos de negocio
     public boolean isDisponible() {
         return activo != null && activo && stock != null && stock > 0;
@@ -54,6 +54,27 @@ public class ServicioDTO {
     // Constructores
     public ServicioDTO() {}
     
+    /**
+     * Constructor para las proyecciones de ServicioRepository, que leen las
+     * columnas directamente sin cargar la entidad.
+     */
+    public ServicioDTO(Long idServicio, String nombre, String descripcion, BigDecimal precio, 
+                      Integer duracion, Boolean activo, String imagenUrl, Integer capacidadMaxima, 
+                      Long idCategoria, String nombreCategoria, LocalDateTime fechaCreacion) {
+        this.idServicio = idServicio;
+        this.nombre = nombre;
+        this.descripcion = descripcion;
+        this.precio = precio;
+        this.duracion = duracion;
+        this.activo = activo;
+        this.imagenUrl = imagenUrl;
+        this.capacidadMaxima = capacidadMaxima;
+        this.idCategoria = idCategoria;
+        this.nombreCategoria = nombreCategoria;
+        this.fechaCreacion = fechaCreacion;
+        this.disponible = isDisponible();
+    }
+    
     // Métodos de negocio
     public boolean isDisponible() {
         return activo != null && activo;
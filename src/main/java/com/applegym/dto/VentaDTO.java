@@ -128,100 +128,3 @@ public class VentaDTO {
         this.comprobante = comprobante;
     }
 }
-
-/**
- * DTO para Detalle de Venta.
- */
-class DetalleVentaDTO {
-    private Long idDetalle;
-    private Long idVenta;
-    private Long idProductoServicio;
-    private String tipo;
-    private String nombre;
-    private Integer cantidad;
-    private BigDecimal precioUnitario;
-    private BigDecimal subtotal;
-    
-    // Getters y Setters
-    public Long getIdDetalle() { return idDetalle; }
-    public void setIdDetalle(Long idDetalle) { this.idDetalle = idDetalle; }
-    
-    public Long getIdVenta() { return idVenta; }
-    public void setIdVenta(Long idVenta) { this.idVenta = idVenta; }
-    
-    public Long getIdProductoServicio() { return idProductoServicio; }
-    public void setIdProductoServicio(Long idProductoServicio) { this.idProductoServicio = idProductoServicio; }
-    
-    public String getTipo() { return tipo; }
-    public void setTipo(String tipo) { this.tipo = tipo; }
-    
-    public String getNombre() { return nombre; }
-    public void setNombre(String nombre) { this.nombre = nombre; }
-    
-    public Integer getCantidad() { return cantidad; }
-    public void setCantidad(Integer cantidad) { this.cantidad = cantidad; }
-    
-    public BigDecimal getPrecioUnitario() { return precioUnitario; }
-    public void setPrecioUnitario(BigDecimal precioUnitario) { this.precioUnitario = precioUnitario; }
-    
-    public BigDecimal getSubtotal() { return subtotal; }
-    public void setSubtotal(BigDecimal subtotal) { this.subtotal = subtotal; }
-}
-
-/**
- * DTO para Pago.
- */
-class PagoDTO {
-    private Long idPago;
-    private Long idVenta;
-    private String tipoPago;
-    private BigDecimal monto;
-    private LocalDateTime fechaPago;
-    private String estadoPago;
-    
-    // Getters y Setters
-    public Long getIdPago() { return idPago; }
-    public void setIdPago(Long idPago) { this.idPago = idPago; }
-    
-    public Long getIdVenta() { return idVenta; }
-    public void setIdVenta(Long idVenta) { this.idVenta = idVenta; }
-    
-    public String getTipoPago() { return tipoPago; }
-    public void setTipoPago(String tipoPago) { this.tipoPago = tipoPago; }
-    
-    public BigDecimal getMonto() { return monto; }
-    public void setMonto(BigDecimal monto) { this.monto = monto; }
-    
-    public LocalDateTime getFechaPago() { return fechaPago; }
-    public void setFechaPago(LocalDateTime fechaPago) { this.fechaPago = fechaPago; }
-    
-    public String getEstadoPago() { return estadoPago; }
-    public void setEstadoPago(String estadoPago) { this.estadoPago = estadoPago; }
-}
-
-/**
- * DTO para Comprobante.
- */
-class ComprobanteDTO {
-    private Long idComprobante;
-    private Long idVenta;
-    private LocalDateTime fechaEmision;
-    private String archivoComprobante;
-    private String tipoComprobante;
-    
-    // Getters y Setters
-    public Long getIdComprobante() { return idComprobante; }
-    public void setIdComprobante(Long idComprobante) { this.idComprobante = idComprobante; }
-    
-    public Long getIdVenta() { return idVenta; }
-    public void setIdVenta(Long idVenta) { this.idVenta = idVenta; }
-    
-    public LocalDateTime getFechaEmision() { return fechaEmision; }
-    public void setFechaEmision(LocalDateTime fechaEmision) { this.fechaEmision = fechaEmision; }
-    
-    public String getArchivoComprobante() { return archivoComprobante; }
-    public void setArchivoComprobante(String archivoComprobante) { this.archivoComprobante = archivoComprobante; }
-    
-    public String getTipoComprobante() { return tipoComprobante; }
-    public void setTipoComprobante(String tipoComprobante) { this.tipoComprobante = tipoComprobante; }
-}
\ No newline at end of file
@@ -0,0 +1,124 @@
+package com.applegym.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO para una línea del reporte de ventas detalladas.
+ * 
+ * Se construye directamente en la consulta (sin entidades gestionadas),
+ * por lo que puede leerse en streaming sin crecer el contexto de persistencia.
+ */
+public class VentaDetalleReporteDTO {
+    
+    private Long idVenta;
+    private String numeroVenta;
+    private LocalDateTime fechaVenta;
+    private String nombreCliente;
+    private String emailCliente;
+    private String tipo;
+    private String nombreItem;
+    private Integer cantidad;
+    private BigDecimal precioUnitario;
+    private BigDecimal subtotal;
+    
+    public VentaDetalleReporteDTO() {}
+    
+    public VentaDetalleReporteDTO(Long idVenta, String numeroVenta, LocalDateTime fechaVenta,
+                                  String nombreCliente, String emailCliente, String tipo,
+                                  String nombreItem, Integer cantidad, BigDecimal precioUnitario,
+                                  BigDecimal subtotal) {
+        this.idVenta = idVenta;
+        this.numeroVenta = numeroVenta;
+        this.fechaVenta = fechaVenta;
+        this.nombreCliente = nombreCliente;
+        this.emailCliente = emailCliente;
+        this.tipo = tipo;
+        this.nombreItem = nombreItem;
+        this.cantidad = cantidad;
+        this.precioUnitario = precioUnitario;
+        this.subtotal = subtotal;
+    }
+    
+    // Getters y Setters
+    
+    public Long getIdVenta() {
+        return idVenta;
+    }
+    
+    public void setIdVenta(Long idVenta) {
+        this.idVenta = idVenta;
+    }
+    
+    public String getNumeroVenta() {
+        return numeroVenta;
+    }
+    
+    public void setNumeroVenta(String numeroVenta) {
+        this.numeroVenta = numeroVenta;
+    }
+    
+    public LocalDateTime getFechaVenta() {
+        return fechaVenta;
+    }
+    
+    public void setFechaVenta(LocalDateTime fechaVenta) {
+        this.fechaVenta = fechaVenta;
+    }
+    
+    public String getNombreCliente() {
+        return nombreCliente;
+    }
+    
+    public void setNombreCliente(String nombreCliente) {
+        this.nombreCliente = nombreCliente;
+    }
+    
+    public String getEmailCliente() {
+        return emailCliente;
+    }
+    
+    public void setEmailCliente(String emailCliente) {
+        this.emailCliente = emailCliente;
+    }
+    
+    public String getTipo() {
+        return tipo;
+    }
+    
+    public void setTipo(String tipo) {
+        this.tipo = tipo;
+    }
+    
+    public String getNombreItem() {
+        return nombreItem;
+    }
+    
+    public void setNombreItem(String nombreItem) {
+        this.nombreItem = nombreItem;
+    }
+    
+    public Integer getCantidad() {
+        return cantidad;
+    }
+    
+    public void setCantidad(Integer cantidad) {
+        this.cantidad = cantidad;
+    }
+    
+    public BigDecimal getPrecioUnitario() {
+        return precioUnitario;
+    }
+    
+    public void setPrecioUnitario(BigDecimal precioUnitario) {
+        this.precioUnitario = precioUnitario;
+    }
+    
+    public BigDecimal getSubtotal() {
+        return subtotal;
+    }
+    
+    public void setSubtotal(BigDecimal subtotal) {
+        this.subtotal = subtotal;
+    }
+}
@@ -0,0 +1,71 @@
+package com.applegym.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO resumido de una venta para el historial de compras del cliente.
+ * 
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+public class VentaHistorialDTO {
+    
+    private Long idVenta;
+    private String numeroVenta;
+    private LocalDateTime fechaVenta;
+    private BigDecimal total;
+    private String estado;
+    
+    public VentaHistorialDTO() {}
+    
+    public VentaHistorialDTO(Long idVenta, String numeroVenta, LocalDateTime fechaVenta,
+                             BigDecimal total, String estado) {
+        this.idVenta = idVenta;
+        this.numeroVenta = numeroVenta;
+        this.fechaVenta = fechaVenta;
+        this.total = total;
+        this.estado = estado;
+    }
+    
+    // Getters y Setters
+    public Long getIdVenta() {
+        return idVenta;
+    }
+    
+    public void setIdVenta(Long idVenta) {
+        this.idVenta = idVenta;
+    }
+    
+    public String getNumeroVenta() {
+        return numeroVenta;
+    }
+    
+    public void setNumeroVenta(String numeroVenta) {
+        this.numeroVenta = numeroVenta;
+    }
+    
+    public LocalDateTime getFechaVenta() {
+        return fechaVenta;
+    }
+    
+    public void setFechaVenta(LocalDateTime fechaVenta) {
+        this.fechaVenta = fechaVenta;
+    }
+    
+    public BigDecimal getTotal() {
+        return total;
+    }
+    
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+    
+    public String getEstado() {
+        return estado;
+    }
+    
+    public void setEstado(String estado) {
+        this.estado = estado;
+    }
+}
@@ -0,0 +1,34 @@
+package com.applegym.dto;
+
+/**
+ * DTO con una orden de checkout dentro de un lote.
+ */
+public class VentaLoteComandoDTO {
+    
+    private String emailCliente;
+    private String metodoPago;
+    
+    public VentaLoteComandoDTO() {}
+    
+    public VentaLoteComandoDTO(String emailCliente, String metodoPago) {
+        this.emailCliente = emailCliente;
+        this.metodoPago = metodoPago;
+    }
+    
+    // Getters y Setters
+    public String getEmailCliente() {
+        return emailCliente;
+    }
+    
+    public void setEmailCliente(String emailCliente) {
+        this.emailCliente = emailCliente;
+    }
+    
+    public String getMetodoPago() {
+        return metodoPago;
+    }
+    
+    public void setMetodoPago(String metodoPago) {
+        this.metodoPago = metodoPago;
+    }
+}
@@ -0,0 +1,80 @@
+package com.applegym.dto;
+
+/**
+ * DTO con el resultado de una orden de checkout dentro de un lote.
+ */
+public class VentaLoteResultadoDTO {
+    
+    private int indice;
+    private String emailCliente;
+    private boolean exito;
+    private VentaDTO venta;
+    private String codigo;
+    private String error;
+    
+    public VentaLoteResultadoDTO() {}
+    
+    public VentaLoteResultadoDTO(int indice, String emailCliente, VentaDTO venta) {
+        this.indice = indice;
+        this.emailCliente = emailCliente;
+        this.exito = true;
+        this.venta = venta;
+    }
+    
+    public VentaLoteResultadoDTO(int indice, String emailCliente, String codigo, String error) {
+        this.indice = indice;
+        this.emailCliente = emailCliente;
+        this.exito = false;
+        this.codigo = codigo;
+        this.error = error;
+    }
+    
+    // Getters y Setters
+    public int getIndice() {
+        return indice;
+    }
+    
+    public void setIndice(int indice) {
+        this.indice = indice;
+    }
+    
+    public String getEmailCliente() {
+        return emailCliente;
+    }
+    
+    public void setEmailCliente(String emailCliente) {
+        this.emailCliente = emailCliente;
+    }
+    
+    public boolean isExito() {
+        return exito;
+    }
+    
+    public void setExito(boolean exito) {
+        this.exito = exito;
+    }
+    
+    public VentaDTO getVenta() {
+        return venta;
+    }
+    
+    public void setVenta(VentaDTO venta) {
+        this.venta = venta;
+    }
+    
+    public String getCodigo() {
+        return codigo;
+    }
+    
+    public void setCodigo(String codigo) {
+        this.codigo = codigo;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -21,7 +21,8 @@ import java.util.Objects;
 @Entity
 @Table(name = "carrito", indexes = {
     @Index(name = "idx_carrito_cliente", columnList = "id_cliente"),
-    @Index(name = "idx_carrito_fecha", columnList = "fecha")
+    @Index(name = "idx_carrito_fecha", columnList = "fecha"),
+    @Index(name = "idx_carrito_estado_actualizacion", columnList = "estado, fecha_actualizacion")
 })
 public class Carrito {
     
@@ -90,6 +90,7 @@ public class Comprobante {
     }
     
     public enum EstadoComprobante {
+        PENDIENTE("Pendiente"),
         GENERADO("Generado"),
         ENVIADO("Enviado"),
         DESCARGADO("Descargado"),
@@ -145,6 +146,13 @@ public class Comprobante {
         this.numeroComprobante = String.format("%s-%s-%08d", prefijo, serie, numero);
     }
     
+    /**
+     * Serie de numeración del comprobante: prefijo del tipo más la serie (p. ej. "B001").
+     */
+    public String getPrefijoSerie() {
+        return obtenerPrefijoPorTipo() + (this.serieComprobante != null ? this.serieComprobante : "001");
+    }
+    
     private String obtenerPrefijoPorTipo() {
         return switch (this.tipoComprobante) {
             case "BOLETA" -> "B";
@@ -1,6 +1,8 @@
 package com.applegym.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
@@ -22,6 +24,8 @@ import java.util.Objects;
  * @version 1.0.0
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "promocion", indexes = {
     @Index(name = "idx_promocion_nombre", columnList = "nombre"),
     @Index(name = "idx_promocion_tipo", columnList = "tipo"),
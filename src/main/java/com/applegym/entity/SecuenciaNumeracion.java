@@ -0,0 +1,72 @@
+package com.applegym.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Secuencia de numeración por serie (ventas, boletas, facturas...).
+ * 
+ * Guarda el siguiente valor libre de cada serie; los servidores reservan
+ * bloques de valores avanzando este contador y los asignan desde memoria.
+ * 
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+@Entity
+@Table(name = "secuencia_numeracion")
+public class SecuenciaNumeracion {
+    
+    @Id
+    @Column(name = "serie", length = 20)
+    private String serie;
+    
+    @Column(name = "siguiente_valor", nullable = false)
+    private Long siguienteValor;
+    
+    @Column(name = "fecha_actualizacion")
+    private LocalDateTime fechaActualizacion;
+    
+    // Constructores
+    public SecuenciaNumeracion() {
+    }
+    
+    public SecuenciaNumeracion(String serie, Long siguienteValor) {
+        this.serie = serie;
+        this.siguienteValor = siguienteValor;
+        this.fechaActualizacion = LocalDateTime.now();
+    }
+    
+    // Getters y Setters
+    public String getSerie() {
+        return serie;
+    }
+    
+    public void setSerie(String serie) {
+        this.serie = serie;
+    }
+    
+    public Long getSiguienteValor() {
+        return siguienteValor;
+    }
+    
+    public void setSiguienteValor(Long siguienteValor) {
+        this.siguienteValor = siguienteValor;
+    }
+    
+    public LocalDateTime getFechaActualizacion() {
+        return fechaActualizacion;
+    }
+    
+    public void setFechaActualizacion(LocalDateTime fechaActualizacion) {
+        this.fechaActualizacion = fechaActualizacion;
+    }
+    
+    @Override
+    public String toString() {
+        return "SecuenciaNumeracion{" +
+                "serie='" + serie + '\'' +
+                ", siguienteValor=" + siguienteValor +
+                '}';
+    }
+}
@@ -1,6 +1,8 @@
 package com.applegym.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
@@ -22,9 +24,13 @@ import java.util.Objects;
  * @version 1.0.0
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "servicio", indexes = {
     @Index(name = "idx_servicio_nombre", columnList = "nombre"),
-    @Index(name = "idx_servicio_categoria", columnList = "id_categoria")
+    @Index(name = "idx_servicio_categoria", columnList = "id_categoria"),
+    @Index(name = "idx_servicio_activo_categoria_precio", columnList = "activo, id_categoria, precio"),
+    @Index(name = "idx_servicio_activo_nombre", columnList = "activo, nombre")
 })
 public class Servicio {
     
@@ -0,0 +1,86 @@
+package com.applegym.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Unidades vendidas de un producto que aún no se descontaron de su stock.
+ * 
+ * Cada checkout inserta una fila por producto en la misma transacción que la
+ * venta; el lote periódico de stock las suma por producto, aplica un único
+ * UPDATE sobre Producto y las elimina. Si la aplicación se detiene antes del
+ * lote, las filas siguen ahí y se escriben al arrancar.
+ * 
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+@Entity
+@Table(name = "stock_pendiente", indexes = {
+    @Index(name = "idx_stock_pendiente_producto", columnList = "id_producto")
+})
+public class StockPendiente {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_stock_pendiente")
+    private Long idStockPendiente;
+    
+    @Column(name = "id_producto", nullable = false)
+    private Long idProducto;
+    
+    @Column(name = "cantidad", nullable = false)
+    private Integer cantidad;
+    
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+    
+    // Constructores
+    public StockPendiente() {
+    }
+    
+    public StockPendiente(Long idProducto, Integer cantidad) {
+        this.idProducto = idProducto;
+        this.cantidad = cantidad;
+    }
+    
+    @PrePersist
+    protected void onCreate() {
+        if (this.fechaCreacion == null) {
+            this.fechaCreacion = LocalDateTime.now();
+        }
+    }
+    
+    // Getters y Setters
+    public Long getIdStockPendiente() {
+        return idStockPendiente;
+    }
+    
+    public void setIdStockPendiente(Long idStockPendiente) {
+        this.idStockPendiente = idStockPendiente;
+    }
+    
+    public Long getIdProducto() {
+        return idProducto;
+    }
+    
+    public void setIdProducto(Long idProducto) {
+        this.idProducto = idProducto;
+    }
+    
+    public Integer getCantidad() {
+        return cantidad;
+    }
+    
+    public void setCantidad(Integer cantidad) {
+        this.cantidad = cantidad;
+    }
+    
+    public LocalDateTime getFechaCreacion() {
+        return fechaCreacion;
+    }
+    
+    public void setFechaCreacion(LocalDateTime fechaCreacion) {
+        this.fechaCreacion = fechaCreacion;
+    }
+}
@@ -21,7 +21,7 @@ import java.util.Objects;
  */
 @Entity
 @Table(name = "venta", indexes = {
-    @Index(name = "idx_venta_cliente", columnList = "id_cliente"),
+    @Index(name = "idx_venta_cliente_fecha", columnList = "id_cliente, fecha_venta, id_venta"),
     @Index(name = "idx_venta_fecha", columnList = "fecha_venta"),
     @Index(name = "idx_venta_estado", columnList = "estado")
 })
@@ -59,6 +59,10 @@ public class Venta {
     @Column(name = "fecha_actualizacion")
     private LocalDateTime fechaActualizacion;
     
+    // Indica si la venta ya está sumada en los acumulados de reportes
+    @Column(name = "acumulada_resumen", nullable = false)
+    private boolean acumuladaResumen = false;
+    
     // Relaciones
     @OneToMany(mappedBy = "venta", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
     private List<DetalleVenta> detalles = new ArrayList<>();
@@ -228,6 +232,14 @@ public class Venta {
         this.fechaActualizacion = fechaActualizacion;
     }
     
+    public boolean isAcumuladaResumen() {
+        return acumuladaResumen;
+    }
+    
+    public void setAcumuladaResumen(boolean acumuladaResumen) {
+        this.acumuladaResumen = acumuladaResumen;
+    }
+    
     public List<DetalleVenta> getDetalles() {
         return detalles;
     }
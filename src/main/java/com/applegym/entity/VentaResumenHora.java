@@ -0,0 +1,107 @@
+package com.applegym.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Acumulado de ventas completadas por fecha y hora.
+ * 
+ * Se actualiza de forma incremental tras el commit de cada venta y permite
+ * responder los reportes del dashboard leyendo a lo sumo 24 filas por día,
+ * sin recorrer la tabla venta.
+ * 
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+@Entity
+@Table(name = "venta_resumen_hora", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_venta_resumen_hora", columnNames = {"fecha", "hora"})
+})
+public class VentaResumenHora {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_resumen")
+    private Long idResumen;
+    
+    @Column(name = "fecha", nullable = false)
+    private LocalDate fecha;
+    
+    @Column(name = "hora", nullable = false)
+    private Integer hora;
+    
+    @Column(name = "cantidad_ventas", nullable = false)
+    private Long cantidadVentas = 0L;
+    
+    @Column(name = "total_ventas", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalVentas = BigDecimal.ZERO;
+    
+    @Column(name = "fecha_actualizacion")
+    private LocalDateTime fechaActualizacion;
+    
+    // Constructores
+    public VentaResumenHora() {
+    }
+    
+    // Getters y Setters
+    public Long getIdResumen() {
+        return idResumen;
+    }
+    
+    public void setIdResumen(Long idResumen) {
+        this.idResumen = idResumen;
+    }
+    
+    public LocalDate getFecha() {
+        return fecha;
+    }
+    
+    public void setFecha(LocalDate fecha) {
+        this.fecha = fecha;
+    }
+    
+    public Integer getHora() {
+        return hora;
+    }
+    
+    public void setHora(Integer hora) {
+        this.hora = hora;
+    }
+    
+    public Long getCantidadVentas() {
+        return cantidadVentas;
+    }
+    
+    public void setCantidadVentas(Long cantidadVentas) {
+        this.cantidadVentas = cantidadVentas;
+    }
+    
+    public BigDecimal getTotalVentas() {
+        return totalVentas;
+    }
+    
+    public void setTotalVentas(BigDecimal totalVentas) {
+        this.totalVentas = totalVentas;
+    }
+    
+    public LocalDateTime getFechaActualizacion() {
+        return fechaActualizacion;
+    }
+    
+    public void setFechaActualizacion(LocalDateTime fechaActualizacion) {
+        this.fechaActualizacion = fechaActualizacion;
+    }
+    
+    @Override
+    public String toString() {
+        return "VentaResumenHora{" +
+                "fecha=" + fecha +
+                ", hora=" + hora +
+                ", cantidadVentas=" + cantidadVentas +
+                ", totalVentas=" + totalVentas +
+                '}';
+    }
+}
@@ -0,0 +1,120 @@
+package com.applegym.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Acumulado histórico de unidades e importe vendidos por producto o servicio.
+ * 
+ * Se actualiza tras el commit de cada venta y sirve los reportes de
+ * productos más vendidos y servicios más solicitados sin agrupar
+ * detalle_venta en cada consulta.
+ * 
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+@Entity
+@Table(name = "venta_resumen_item", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_venta_resumen_item", columnNames = {"tipo", "id_item"})
+}, indexes = {
+    @Index(name = "idx_venta_resumen_item_ranking", columnList = "tipo, cantidad")
+})
+public class VentaResumenItem {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_resumen")
+    private Long idResumen;
+    
+    // Tipo de item: PRODUCTO o SERVICIO
+    @Column(name = "tipo", nullable = false, length = 50)
+    private String tipo;
+    
+    @Column(name = "id_item", nullable = false)
+    private Long idItem;
+    
+    @Column(name = "nombre", length = 255)
+    private String nombre;
+    
+    @Column(name = "cantidad", nullable = false)
+    private Long cantidad = 0L;
+    
+    @Column(name = "total", nullable = false, precision = 14, scale = 2)
+    private BigDecimal total = BigDecimal.ZERO;
+    
+    @Column(name = "fecha_actualizacion")
+    private LocalDateTime fechaActualizacion;
+    
+    // Constructores
+    public VentaResumenItem() {
+    }
+    
+    // Getters y Setters
+    public Long getIdResumen() {
+        return idResumen;
+    }
+    
+    public void setIdResumen(Long idResumen) {
+        this.idResumen = idResumen;
+    }
+    
+    public String getTipo() {
+        return tipo;
+    }
+    
+    public void setTipo(String tipo) {
+        this.tipo = tipo;
+    }
+    
+    public Long getIdItem() {
+        return idItem;
+    }
+    
+    public void setIdItem(Long idItem) {
+        this.idItem = idItem;
+    }
+    
+    public String getNombre() {
+        return nombre;
+    }
+    
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+    }
+    
+    public Long getCantidad() {
+        return cantidad;
+    }
+    
+    public void setCantidad(Long cantidad) {
+        this.cantidad = cantidad;
+    }
+    
+    public BigDecimal getTotal() {
+        return total;
+    }
+    
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+    
+    public LocalDateTime getFechaActualizacion() {
+        return fechaActualizacion;
+    }
+    
+    public void setFechaActualizacion(LocalDateTime fechaActualizacion) {
+        this.fechaActualizacion = fechaActualizacion;
+    }
+    
+    @Override
+    public String toString() {
+        return "VentaResumenItem{" +
+                "tipo='" + tipo + '\'' +
+                ", idItem=" + idItem +
+                ", cantidad=" + cantidad +
+                ", total=" + total +
+                '}';
+    }
+}
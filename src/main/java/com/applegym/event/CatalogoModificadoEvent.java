@@ -0,0 +1,29 @@
+package com.applegym.event;
+
+/**
+ * Evento publicado cuando cambian datos del catálogo (productos, servicios,
+ * categorías o stock).
+ * 
+ * Los oyentes lo reciben tras el commit de la transacción que lo publicó
+ * y reconstruyen las vistas en memoria derivadas del catálogo.
+ * 
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+public class CatalogoModificadoEvent {
+    
+    private final String origen;
+    
+    public CatalogoModificadoEvent(String origen) {
+        this.origen = origen;
+    }
+    
+    public String getOrigen() {
+        return origen;
+    }
+    
+    @Override
+    public String toString() {
+        return "CatalogoModificadoEvent{origen='" + origen + "'}";
+    }
+}
@@ -0,0 +1,25 @@
+package com.applegym.event;
+
+import com.applegym.dto.CatalogoSnapshot;
+
+/**
+ * Evento publicado cuando se activa una nueva versión del catálogo en memoria.
+ * 
+ * Permite que las estructuras derivadas (por ejemplo el índice de búsqueda)
+ * se actualicen a partir de la misma instantánea sin volver a la base de datos.
+ * 
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+public class CatalogoSnapshotActualizadoEvent {
+    
+    private final CatalogoSnapshot snapshot;
+    
+    public CatalogoSnapshotActualizadoEvent(CatalogoSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+    
+    public CatalogoSnapshot getSnapshot() {
+        return snapshot;
+    }
+}
@@ -0,0 +1,98 @@
+package com.applegym.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Evento publicado cuando se completa una venta.
+ * 
+ * Contiene una copia inmutable de los datos necesarios para los oyentes
+ * posteriores al commit (acumulados de reportes, comprobantes), de modo que
+ * no necesiten volver a leer la venta.
+ * 
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+public class VentaCompletadaEvent {
+    
+    private final Long idVenta;
+    
+    private final LocalDateTime fechaVenta;
+    
+    private final BigDecimal total;
+    
+    private final List<Linea> lineas;
+    
+    public VentaCompletadaEvent(Long idVenta, LocalDateTime fechaVenta, BigDecimal total, List<Linea> lineas) {
+        this.idVenta = idVenta;
+        this.fechaVenta = fechaVenta;
+        this.total = total;
+        this.lineas = List.copyOf(lineas);
+    }
+    
+    public Long getIdVenta() {
+        return idVenta;
+    }
+    
+    public LocalDateTime getFechaVenta() {
+        return fechaVenta;
+    }
+    
+    public BigDecimal getTotal() {
+        return total;
+    }
+    
+    public List<Linea> getLineas() {
+        return lineas;
+    }
+    
+    @Override
+    public String toString() {
+        return "VentaCompletadaEvent{idVenta=" + idVenta + ", total=" + total + ", lineas=" + lineas.size() + "}";
+    }
+    
+    /**
+     * Línea vendida: producto o servicio con su cantidad y subtotal.
+     */
+    public static final class Linea {
+        
+        private final String tipo;
+        
+        private final Long idItem;
+        
+        private final String nombre;
+        
+        private final int cantidad;
+        
+        private final BigDecimal subtotal;
+        
+        public Linea(String tipo, Long idItem, String nombre, int cantidad, BigDecimal subtotal) {
+            this.tipo = tipo;
+            this.idItem = idItem;
+            this.nombre = nombre;
+            this.cantidad = cantidad;
+            this.subtotal = subtotal;
+        }
+        
+        public String getTipo() {
+            return tipo;
+        }
+        
+        public Long getIdItem() {
+            return idItem;
+        }
+        
+        public String getNombre() {
+            return nombre;
+        }
+        
+        public int getCantidad() {
+            return cantidad;
+        }
+        
+        public BigDecimal getSubtotal() {
+            return subtotal;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.applegym.exception;
+
+/**
+ * Excepción lanzada al intentar procesar una venta con el carrito vacío.
+ * 
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+public class CarritoVacioException extends RuntimeException {
+    
+    public CarritoVacioException() {
+        super("El carrito está vacío");
+    }
+}
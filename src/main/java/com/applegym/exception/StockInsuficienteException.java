@@ -0,0 +1,39 @@
+package com.applegym.exception;
+
+/**
+ * Excepción lanzada cuando no hay stock suficiente para completar una venta.
+ * 
+ * Identifica el producto y la cantidad solicitada para que el cliente
+ * pueda ajustar su carrito.
+ * 
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+public class StockInsuficienteException extends RuntimeException {
+    
+    private final Long idProducto;
+    
+    private final String nombreProducto;
+    
+    private final Integer cantidadSolicitada;
+    
+    public StockInsuficienteException(Long idProducto, String nombreProducto, Integer cantidadSolicitada) {
+        super("Stock insuficiente para el producto: " + nombreProducto + 
+              ". Solicitado: " + cantidadSolicitada);
+        this.idProducto = idProducto;
+        this.nombreProducto = nombreProducto;
+        this.cantidadSolicitada = cantidadSolicitada;
+    }
+    
+    public Long getIdProducto() {
+        return idProducto;
+    }
+    
+    public String getNombreProducto() {
+        return nombreProducto;
+    }
+    
+    public Integer getCantidadSolicitada() {
+        return cantidadSolicitada;
+    }
+}
@@ -0,0 +1,59 @@
+package com.applegym.mapper;
+
+import com.applegym.dto.CarritoDTO;
+import com.applegym.dto.DetalleCarritoDTO;
+import com.applegym.entity.Carrito;
+import com.applegym.entity.DetalleCarrito;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Conversión de Carrito y DetalleCarrito a sus DTOs.
+ *
+ * Copia los mismos campos que producía ModelMapper (estrategia STRICT), sin
+ * reflexión. El subtotal se asigna al final porque los setters de cantidad
+ * y precio de DetalleCarritoDTO lo recalculan sin descuento.
+ *
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+public final class CarritoMapper {
+
+    private CarritoMapper() {
+    }
+
+    public static CarritoDTO convertirADTO(Carrito carrito) {
+        CarritoDTO dto = new CarritoDTO();
+        dto.setIdCarrito(carrito.getIdCarrito());
+        dto.setFecha(carrito.getFecha());
+        dto.setTotal(carrito.getTotal());
+        dto.setEstado(carrito.getEstado());
+        if (carrito.getCliente() != null) {
+            dto.setNombreCliente(carrito.getCliente().getNombreCliente());
+        }
+
+        List<DetalleCarrito> detalles = carrito.getDetalles();
+        if (detalles != null) {
+            List<DetalleCarritoDTO> detallesDTO = new ArrayList<>(detalles.size());
+            for (DetalleCarrito detalle : detalles) {
+                detallesDTO.add(convertirDetalleADTO(detalle));
+            }
+            dto.setDetalles(detallesDTO);
+        }
+        return dto;
+    }
+
+    public static DetalleCarritoDTO convertirDetalleADTO(DetalleCarrito detalle) {
+        DetalleCarritoDTO dto = new DetalleCarritoDTO();
+        dto.setIdDetalleCarrito(detalle.getIdDetalleCarrito());
+        dto.setTipo(detalle.getTipo());
+        dto.setIdItem(detalle.getIdItem());
+        dto.setNombreItem(detalle.getNombreItem());
+        dto.setDescripcionItem(detalle.getDescripcionItem());
+        dto.setCantidad(detalle.getCantidad());
+        dto.setPrecioUnitario(detalle.getPrecioUnitario());
+        dto.setSubtotal(detalle.getSubtotal());
+        return dto;
+    }
+}
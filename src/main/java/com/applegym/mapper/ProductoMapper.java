@@ -0,0 +1,38 @@
+package com.applegym.mapper;
+
+import com.applegym.dto.ProductoDTO;
+import com.applegym.entity.Producto;
+
+/**
+ * Conversión de Producto a ProductoDTO.
+ *
+ * Copia campo a campo lo mismo que producía ModelMapper (estrategia STRICT)
+ * más la categoría y la disponibilidad, sin reflexión.
+ *
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+public final class ProductoMapper {
+
+    private ProductoMapper() {
+    }
+
+    public static ProductoDTO convertirADTO(Producto producto) {
+        ProductoDTO dto = new ProductoDTO();
+        dto.setIdProducto(producto.getIdProducto());
+        dto.setNombre(producto.getNombre());
+        dto.setDescripcion(producto.getDescripcion());
+        dto.setPrecio(producto.getPrecio());
+        dto.setStock(producto.getStock());
+        dto.setActivo(producto.getActivo());
+        dto.setImagenUrl(producto.getImagenUrl());
+        dto.setFechaCreacion(producto.getFechaCreacion());
+        dto.setFechaActualizacion(producto.getFechaActualizacion());
+        if (producto.getCategoria() != null) {
+            dto.setIdCategoria(producto.getCategoria().getIdCategoria());
+            dto.setNombreCategoria(producto.getCategoria().getNombreCategoria());
+        }
+        dto.setDisponible(producto.isDisponible());
+        return dto;
+    }
+}
@@ -0,0 +1,38 @@
+package com.applegym.mapper;
+
+import com.applegym.dto.ServicioDTO;
+import com.applegym.entity.Servicio;
+
+/**
+ * Conversión de Servicio a ServicioDTO.
+ *
+ * Copia campo a campo lo mismo que producía ModelMapper (estrategia STRICT)
+ * más la categoría y la disponibilidad, sin reflexión.
+ *
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+public final class ServicioMapper {
+
+    private ServicioMapper() {
+    }
+
+    public static ServicioDTO convertirADTO(Servicio servicio) {
+        ServicioDTO dto = new ServicioDTO();
+        dto.setIdServicio(servicio.getIdServicio());
+        dto.setNombre(servicio.getNombre());
+        dto.setDescripcion(servicio.getDescripcion());
+        dto.setPrecio(servicio.getPrecio());
+        dto.setDuracion(servicio.getDuracion());
+        dto.setActivo(servicio.getActivo());
+        dto.setImagenUrl(servicio.getImagenUrl());
+        dto.setCapacidadMaxima(servicio.getCapacidadMaxima());
+        dto.setFechaCreacion(servicio.getFechaCreacion());
+        if (servicio.getCategoria() != null) {
+            dto.setIdCategoria(servicio.getCategoria().getIdCategoria());
+            dto.setNombreCategoria(servicio.getCategoria().getNombreCategoria());
+        }
+        dto.setDisponible(servicio.isDisponible());
+        return dto;
+    }
+}
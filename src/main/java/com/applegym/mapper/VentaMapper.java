@@ -0,0 +1,87 @@
+package com.applegym.mapper;
+
+import com.applegym.dto.ComprobanteDTO;
+import com.applegym.dto.DetalleVentaDTO;
+import com.applegym.dto.PagoDTO;
+import com.applegym.dto.VentaDTO;
+import com.applegym.entity.Comprobante;
+import com.applegym.entity.DetalleVenta;
+import com.applegym.entity.Pago;
+import com.applegym.entity.Venta;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Conversión de Venta a VentaDTO con sus detalles, pago y comprobante.
+ *
+ * Copia los mismos campos que producía ModelMapper (estrategia STRICT) más
+ * el nombre y email del cliente, sin reflexión.
+ *
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+public final class VentaMapper {
+
+    private VentaMapper() {
+    }
+
+    public static VentaDTO convertirADTO(Venta venta) {
+        VentaDTO dto = new VentaDTO();
+        dto.setIdVenta(venta.getIdVenta());
+        dto.setFechaVenta(venta.getFechaVenta());
+        dto.setTotal(venta.getTotal());
+        dto.setEstado(venta.getEstado());
+        if (venta.getCliente() != null) {
+            dto.setNombreCliente(venta.getCliente().getNombreCliente());
+            dto.setEmailCliente(venta.getCliente().getEmail());
+        }
+
+        List<DetalleVenta> detalles = venta.getDetalles();
+        if (detalles != null) {
+            List<DetalleVentaDTO> detallesDTO = new ArrayList<>(detalles.size());
+            for (DetalleVenta detalle : detalles) {
+                detallesDTO.add(convertirDetalleADTO(detalle));
+            }
+            dto.setDetalles(detallesDTO);
+        }
+        if (venta.getPago() != null) {
+            dto.setPago(convertirPagoADTO(venta.getPago()));
+        }
+        if (venta.getComprobante() != null) {
+            dto.setComprobante(convertirComprobanteADTO(venta.getComprobante()));
+        }
+        return dto;
+    }
+
+    private static DetalleVentaDTO convertirDetalleADTO(DetalleVenta detalle) {
+        DetalleVentaDTO dto = new DetalleVentaDTO();
+        dto.setIdDetalle(detalle.getIdDetalle());
+        dto.setIdProductoServicio(detalle.getIdProductoServicio());
+        dto.setTipo(detalle.getTipo());
+        dto.setNombre(detalle.getNombre());
+        dto.setCantidad(detalle.getCantidad());
+        dto.setPrecioUnitario(detalle.getPrecioUnitario());
+        dto.setSubtotal(detalle.getSubtotal());
+        return dto;
+    }
+
+    private static PagoDTO convertirPagoADTO(Pago pago) {
+        PagoDTO dto = new PagoDTO();
+        dto.setIdPago(pago.getIdPago());
+        dto.setTipoPago(pago.getTipoPago());
+        dto.setMonto(pago.getMonto());
+        dto.setFechaPago(pago.getFechaPago());
+        dto.setEstadoPago(pago.getEstadoPago());
+        return dto;
+    }
+
+    private static ComprobanteDTO convertirComprobanteADTO(Comprobante comprobante) {
+        ComprobanteDTO dto = new ComprobanteDTO();
+        dto.setIdComprobante(comprobante.getIdComprobante());
+        dto.setFechaEmision(comprobante.getFechaEmision());
+        dto.setArchivoComprobante(comprobante.getArchivoComprobante());
+        dto.setTipoComprobante(comprobante.getTipoComprobante());
+        return dto;
+    }
+}
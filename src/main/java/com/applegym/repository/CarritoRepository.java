@@ -2,12 +2,17 @@ package com.applegym.repository;
 
 import com.applegym.entity.Carrito;
 import com.applegym.entity.Cliente;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,6 +37,44 @@ public interface CarritoRepository extends JpaRepository<Carrito, Long> {
      */
     Optional<Carrito> findByClienteAndEstado(Cliente cliente, String estado);
     
+    /**
+     * Busca el carrito de un cliente en un estado dado cargando sus detalles
+     * en la misma consulta (usado en el checkout).
+     * 
+     * @param cliente Cliente propietario del carrito
+     * @param estado Estado del carrito
+     * @return Optional con el carrito y sus detalles
+     */
+    @Query("SELECT DISTINCT c FROM Carrito c LEFT JOIN FETCH c.detalles " +
+           "WHERE c.cliente = :cliente AND c.estado = :estado")
+    Optional<Carrito> findConDetallesByClienteAndEstado(@Param("cliente") Cliente cliente, 
+                                                       @Param("estado") String estado);
+    
+    /**
+     * Busca un carrito por ID cargando sus detalles en la misma consulta
+     * y bloqueando su fila hasta el fin de la transacción (usado al escribir los
+     * carritos en memoria, para no pisar un checkout en curso).
+     * 
+     * @param idCarrito ID del carrito
+     * @return Optional con el carrito y sus detalles
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Carrito c LEFT JOIN FETCH c.detalles WHERE c.idCarrito = :idCarrito")
+    Optional<Carrito> findConDetallesById(@Param("idCarrito") Long idCarrito);
+    
+    /**
+     * Busca los carritos en un estado dado de varios clientes activos, con el
+     * cliente y los detalles en la misma consulta (usado en el checkout por lotes).
+     * 
+     * @param emails Emails de los clientes
+     * @param estado Estado del carrito
+     * @return Lista de carritos con su cliente y detalles
+     */
+    @Query("SELECT DISTINCT c FROM Carrito c JOIN FETCH c.cliente cl LEFT JOIN FETCH c.detalles " +
+           "WHERE cl.email IN :emails AND cl.activo = true AND c.estado = :estado")
+    List<Carrito> findConDetallesByEmailsAndEstado(@Param("emails") Collection<String> emails,
+                                                  @Param("estado") String estado);
+    
     /**
      * Busca todos los carritos de un cliente.
      * 
@@ -124,12 +167,67 @@ public interface CarritoRepository extends JpaRepository<Carrito, Long> {
                                           @Param("estado") String estado);
     
     /**
-     * Elimina carritos antiguos según criterios de limpieza.
+     * Busca un lote de IDs de carritos activos sin modificaciones desde la fecha límite.
+     * Los carritos que nunca se modificaron se evalúan por su fecha de creación.
+     * 
+     * @param fechaLimite Fecha límite para considerar abandono
+     * @param pageable Tamaño del lote
+     * @return IDs de los carritos abandonados, del más antiguo al más reciente
+     */
+    @Query("SELECT c.idCarrito FROM Carrito c WHERE c.estado = 'ACTIVO' " +
+           "AND (c.fechaActualizacion < :fechaLimite OR (c.fechaActualizacion IS NULL AND c.fecha < :fechaLimite)) " +
+           "ORDER BY c.idCarrito")
+    List<Long> findIdsCarritosAbandonados(@Param("fechaLimite") LocalDateTime fechaLimite, Pageable pageable);
+    
+    /**
+     * Marca como abandonados los carritos indicados que sigan activos y sin cambios
+     * desde la fecha límite.
+     * 
+     * @param ids IDs de los carritos
+     * @param fechaLimite Fecha límite para considerar abandono
+     * @param ahora Fecha de la expiración
+     * @return Número de carritos marcados
+     */
+    @Modifying
+    @Query("UPDATE Carrito c SET c.estado = 'ABANDONADO', c.fechaActualizacion = :ahora " +
+           "WHERE c.idCarrito IN :ids AND c.estado = 'ACTIVO' " +
+           "AND (c.fechaActualizacion < :fechaLimite OR (c.fechaActualizacion IS NULL AND c.fecha < :fechaLimite))")
+    int marcarAbandonados(@Param("ids") Collection<Long> ids,
+                          @Param("fechaLimite") LocalDateTime fechaLimite,
+                          @Param("ahora") LocalDateTime ahora);
+    
+    /**
+     * Busca un lote de IDs de carritos en alguno de los estados dados cuya última
+     * modificación es anterior a la fecha límite.
      * 
-     * @param fechaLimite Fecha límite para eliminar
      * @param estados Estados de carritos a eliminar
+     * @param fechaLimite Fecha límite para eliminar
+     * @param pageable Tamaño del lote
+     * @return IDs de los carritos a eliminar
+     */
+    @Query("SELECT c.idCarrito FROM Carrito c WHERE c.estado IN :estados " +
+           "AND COALESCE(c.fechaActualizacion, c.fecha) < :fechaLimite ORDER BY c.idCarrito")
+    List<Long> findIdsCarritosAntiguos(@Param("estados") Collection<String> estados,
+                                       @Param("fechaLimite") LocalDateTime fechaLimite,
+                                       Pageable pageable);
+    
+    /**
+     * Elimina los detalles de los carritos indicados.
+     * 
+     * @param ids IDs de los carritos
+     * @return Número de detalles eliminados
+     */
+    @Modifying
+    @Query("DELETE FROM DetalleCarrito d WHERE d.carrito.idCarrito IN :ids")
+    int eliminarDetallesDeCarritos(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Elimina los carritos indicados (sus detalles deben eliminarse antes).
+     * 
+     * @param ids IDs de los carritos
+     * @return Número de carritos eliminados
      */
-    @Query("DELETE FROM Carrito c WHERE c.fecha < :fechaLimite AND c.estado IN :estados")
-    void eliminarCarritosAntiguos(@Param("fechaLimite") LocalDateTime fechaLimite, 
-                                 @Param("estados") List<String> estados);
-}
\ No newline at end of file
+    @Modifying
+    @Query("DELETE FROM Carrito c WHERE c.idCarrito IN :ids")
+    int eliminarPorIds(@Param("ids") Collection<Long> ids);
+}
@@ -1,7 +1,13 @@
 package com.applegym.repository;
 
+import com.applegym.dto.CategoriaDTO;
 import com.applegym.entity.Categoria;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -15,7 +21,20 @@ import java.util.List;
 @Repository
 public interface CategoriaRepository extends JpaRepository<Categoria, Long> {
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Categoria> findByActivo(Boolean activo);
     
     Categoria findByNombreCategoria(String nombreCategoria);
+    
+    /**
+     * Categorías con sus totales de productos y servicios contados en la base
+     * de datos, sin cargar las colecciones.
+     */
+    @Query("SELECT new com.applegym.dto.CategoriaDTO(c.idCategoria, c.nombreCategoria, c.descripcion, " +
+           "c.activo, c.fechaCreacion, " +
+           "(SELECT COUNT(p) FROM Producto p WHERE p.categoria = c), " +
+           "(SELECT COUNT(s) FROM Servicio s WHERE s.categoria = c)) " +
+           "FROM Categoria c WHERE c.activo = :activo")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<CategoriaDTO> findResumenByActivo(@Param("activo") Boolean activo);
 }
\ No newline at end of file
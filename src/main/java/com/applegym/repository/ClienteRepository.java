@@ -75,20 +75,16 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long> {
     Long countClientesActivos();
     
     /**
-     * Busca clientes con carritos activos.
+     * Calcula en una sola consulta los totales de clientes usados en las estadísticas.
      * 
-     * @return Lista de clientes con carritos activos
+     * @return Una fila con [total, activos, con carrito activo, con compras]
      */
-    @Query("SELECT DISTINCT c FROM Cliente c JOIN c.carritos car WHERE car.estado = 'ACTIVO'")
-    List<Cliente> findClientesConCarritosActivos();
-    
-    /**
-     * Busca clientes que han realizado compras.
-     * 
-     * @return Lista de clientes con ventas
-     */
-    @Query("SELECT DISTINCT c FROM Cliente c WHERE EXISTS (SELECT v FROM Venta v WHERE v.cliente = c)")
-    List<Cliente> findClientesConVentas();
+    @Query("SELECT COUNT(c), " +
+           "COALESCE(SUM(CASE WHEN c.activo = true THEN 1 ELSE 0 END), 0), " +
+           "(SELECT COUNT(DISTINCT car.cliente.idCliente) FROM Carrito car WHERE car.estado = 'ACTIVO'), " +
+           "(SELECT COUNT(DISTINCT v.cliente.idCliente) FROM Venta v) " +
+           "FROM Cliente c")
+    List<Object[]> calcularEstadisticas();
     
     /**
      * Busca clientes por email y que estén activos.
@@ -2,9 +2,15 @@ package com.applegym.repository;
 
 import com.applegym.entity.Comprobante;
 import com.applegym.entity.Venta;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -19,4 +25,30 @@ public interface ComprobanteRepository extends JpaRepository<Comprobante, Long>
     Optional<Comprobante> findByVenta(Venta venta);
     
     Optional<Comprobante> findByNumeroComprobante(String numeroComprobante);
+    
+    @Query("SELECT c FROM Comprobante c JOIN FETCH c.venta v JOIN FETCH v.cliente WHERE v.idVenta = :idVenta")
+    Optional<Comprobante> findByIdVentaConCliente(@Param("idVenta") Long idVenta);
+    
+    @Query("SELECT c.venta.idVenta FROM Comprobante c WHERE c.estadoComprobante = :estado ORDER BY c.idComprobante")
+    List<Long> findIdVentaByEstadoComprobante(@Param("estado") String estado, Pageable pageable);
+    
+    @Query("SELECT c.venta.idVenta FROM Comprobante c WHERE c.estadoComprobante = :estado " +
+           "AND (c.fechaActualizacion IS NULL OR c.fechaActualizacion < :fechaLimite) " +
+           "ORDER BY c.fechaActualizacion, c.idComprobante")
+    List<Long> findIdVentaByEstadoComprobanteAntesDe(@Param("estado") String estado,
+                                                     @Param("fechaLimite") LocalDateTime fechaLimite,
+                                                     Pageable pageable);
+    
+    /**
+     * Marca el comprobante de una venta con error, salvo que ya esté generado
+     * o enviado (p. ej. por una descarga concurrente que lo generó mientras
+     * fallaba el pipeline).
+     * 
+     * @return 1 si se marcó, 0 si el comprobante ya estaba generado
+     */
+    @Modifying
+    @Query("UPDATE Comprobante c SET c.estadoComprobante = 'ERROR', c.observaciones = :observaciones, " +
+           "c.fechaActualizacion = CURRENT_TIMESTAMP WHERE c.venta.idVenta = :idVenta " +
+           "AND c.estadoComprobante NOT IN ('GENERADO', 'ENVIADO')")
+    int marcarError(@Param("idVenta") Long idVenta, @Param("observaciones") String observaciones);
 }
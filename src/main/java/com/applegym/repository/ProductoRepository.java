@@ -3,16 +3,23 @@ package com.applegym.repository;
 import java.math.BigDecimal;
 import java.util.List;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.applegym.dto.ProductoDTO;
 import com.applegym.entity.Categoria;
 import com.applegym.entity.Producto;
 
+import jakarta.persistence.QueryHint;
+
 /**
  * Repositorio para la entidad Producto.
  * 
@@ -31,8 +38,24 @@ public interface ProductoRepository extends JpaRepository<Producto, Long> {
      * @param activo Estado activo
      * @return Lista de productos activos
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Producto> findByActivo(Boolean activo);
     
+    /**
+     * Productos activos con su categoría, proyectados directamente a DTO.
+     * 
+     * No carga entidades: no pasan por el contexto de persistencia ni se
+     * guardan instantáneas para el dirty checking.
+     * 
+     * @return Lista de productos activos ordenados por nombre
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new com.applegym.dto.ProductoDTO(p.idProducto, p.nombre, p.descripcion, p.precio, " +
+           "p.stock, p.activo, p.imagenUrl, c.idCategoria, c.nombreCategoria, p.fechaCreacion, " +
+           "p.fechaActualizacion) " +
+           "FROM Producto p LEFT JOIN p.categoria c WHERE p.activo = true ORDER BY p.nombre")
+    List<ProductoDTO> findResumenActivos();
+    
     /**
      * Busca productos por nombre (búsqueda parcial case-insensitive).
      * 
@@ -42,6 +65,18 @@ public interface ProductoRepository extends JpaRepository<Producto, Long> {
     @Query("SELECT p FROM Producto p WHERE LOWER(p.nombre) LIKE LOWER(CONCAT('%', :nombre, '%')) AND p.activo = true")
     List<Producto> findByNombreContainingIgnoreCase(@Param("nombre") String nombre);
     
+    /**
+     * Busca productos activos por nombre, paginando en la base de datos.
+     * 
+     * @param nombre Nombre a buscar
+     * @param pageable Configuración de paginación
+     * @return Página de productos que coincidan
+     */
+    @EntityGraph(attributePaths = "categoria")
+    @Query(value = "SELECT p FROM Producto p WHERE LOWER(p.nombre) LIKE LOWER(CONCAT('%', :nombre, '%')) AND p.activo = true",
+           countQuery = "SELECT COUNT(p) FROM Producto p WHERE LOWER(p.nombre) LIKE LOWER(CONCAT('%', :nombre, '%')) AND p.activo = true")
+    Page<Producto> findByNombreContainingIgnoreCase(@Param("nombre") String nombre, Pageable pageable);
+    
     /**
      * Busca productos por categoría.
      * 
@@ -75,6 +110,7 @@ public interface ProductoRepository extends JpaRepository<Producto, Long> {
      * 
      * @return Lista de productos con stock > 0
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT p FROM Producto p WHERE p.stock > 0 AND p.activo = true")
     List<Producto> findProductosDisponibles();
     
@@ -125,6 +161,39 @@ public interface ProductoRepository extends JpaRepository<Producto, Long> {
     List<Producto> findByCategoriaIdAndActivo(@Param("idCategoria") Long idCategoria, 
                                              @Param("activo") Boolean activo);
     
+    /**
+     * Busca productos por ID de categoría y activos, paginando en la base de datos.
+     * 
+     * @param idCategoria ID de la categoría
+     * @param activo Estado activo
+     * @param pageable Configuración de paginación
+     * @return Página de productos
+     */
+    @EntityGraph(attributePaths = "categoria")
+    @Query(value = "SELECT p FROM Producto p WHERE p.categoria.idCategoria = :idCategoria AND p.activo = :activo",
+           countQuery = "SELECT COUNT(p) FROM Producto p WHERE p.categoria.idCategoria = :idCategoria AND p.activo = :activo")
+    Page<Producto> findByCategoriaIdAndActivo(@Param("idCategoria") Long idCategoria, 
+                                             @Param("activo") Boolean activo,
+                                             Pageable pageable);
+    
+    /**
+     * Busca los primeros N productos relacionados (misma categoría, con stock),
+     * excluyendo el producto de referencia. No ejecuta consulta de conteo.
+     * 
+     * @param idCategoria ID de la categoría
+     * @param idProducto ID del producto a excluir
+     * @param pageable Límite de resultados
+     * @return Lista con a lo sumo pageable.getPageSize() productos
+     */
+    @EntityGraph(attributePaths = "categoria")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT p FROM Producto p WHERE p.categoria.idCategoria = :idCategoria " +
+           "AND p.idProducto <> :idProducto AND p.activo = true AND p.stock > 0 " +
+           "ORDER BY p.nombre")
+    List<Producto> findRelacionados(@Param("idCategoria") Long idCategoria,
+                                   @Param("idProducto") Long idProducto,
+                                   Pageable pageable);
+    
     /**
      * Busca productos disponibles paginados.
      * 
@@ -159,6 +228,21 @@ public interface ProductoRepository extends JpaRepository<Producto, Long> {
                                            @Param("conStock") Boolean conStock,
                                            Pageable pageable);
     
+    /**
+     * Descuenta stock de forma atómica solo si hay unidades suficientes.
+     * 
+     * La condición y la resta se evalúan en la misma sentencia, por lo que dos
+     * ventas concurrentes nunca pueden dejar el stock en negativo.
+     * 
+     * @param idProducto ID del producto
+     * @param cantidad Unidades a descontar
+     * @return 1 si se descontó, 0 si no había stock suficiente
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Producto p SET p.stock = p.stock - :cantidad, p.fechaActualizacion = CURRENT_TIMESTAMP " +
+           "WHERE p.idProducto = :idProducto AND p.stock >= :cantidad")
+    int decrementarStock(@Param("idProducto") Long idProducto, @Param("cantidad") Integer cantidad);
+    
     /**
      * Obtiene el valor total del inventario.
      *
@@ -170,5 +254,6 @@ public interface ProductoRepository extends JpaRepository<Producto, Long> {
     /**
      * Cuenta productos por estado activo.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Long countByActivo(Boolean activo);
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.applegym.repository;
+
+import com.applegym.entity.SecuenciaNumeracion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repositorio para las secuencias de numeración.
+ * 
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+@Repository
+public interface SecuenciaNumeracionRepository extends JpaRepository<SecuenciaNumeracion, String> {
+    
+    /**
+     * Avanza atómicamente el contador de una serie reservando un bloque de valores.
+     * 
+     * @return Filas afectadas (0 si la serie aún no existe)
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE SecuenciaNumeracion s SET s.siguienteValor = s.siguienteValor + :tamano, " +
+           "s.fechaActualizacion = CURRENT_TIMESTAMP WHERE s.serie = :serie")
+    int avanzar(@Param("serie") String serie, @Param("tamano") long tamano);
+    
+    @Query("SELECT s.siguienteValor FROM SecuenciaNumeracion s WHERE s.serie = :serie")
+    Optional<Long> findSiguienteValor(@Param("serie") String serie);
+}
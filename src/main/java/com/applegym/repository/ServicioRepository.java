@@ -1,12 +1,20 @@
 package com.applegym.repository;
 
+import com.applegym.dto.ServicioDTO;
 import com.applegym.entity.Servicio;
 import com.applegym.entity.Categoria;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 /**
@@ -18,8 +26,22 @@ import java.util.List;
 @Repository
 public interface ServicioRepository extends JpaRepository<Servicio, Long> {
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Servicio> findByActivo(Boolean activo);
     
+    /**
+     * Servicios activos con su categoría, proyectados directamente a DTO
+     * sin cargar entidades.
+     * 
+     * @return Lista de servicios activos ordenados por nombre
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new com.applegym.dto.ServicioDTO(s.idServicio, s.nombre, s.descripcion, s.precio, " +
+           "s.duracion, s.activo, s.imagenUrl, s.capacidadMaxima, c.idCategoria, c.nombreCategoria, " +
+           "s.fechaCreacion) " +
+           "FROM Servicio s LEFT JOIN s.categoria c WHERE s.activo = true ORDER BY s.nombre")
+    List<ServicioDTO> findResumenActivos();
+    
     List<Servicio> findByCategoria(Categoria categoria);
     
     List<Servicio> findByCategoriaAndActivo(Categoria categoria, Boolean activo);
@@ -27,8 +49,41 @@ public interface ServicioRepository extends JpaRepository<Servicio, Long> {
     @Query("SELECT s FROM Servicio s WHERE LOWER(s.nombre) LIKE LOWER(CONCAT('%', :nombre, '%')) AND s.activo = true")
     List<Servicio> findByNombreContainingIgnoreCase(@Param("nombre") String nombre);
     
+    /**
+     * Busca servicios activos por criterios múltiples, paginando en la base de datos.
+     * 
+     * La categoría se carga en la misma consulta para evitar consultas adicionales
+     * al convertir a DTO.
+     * 
+     * @param nombre Nombre del servicio (opcional)
+     * @param idCategoria ID de categoría (opcional)
+     * @param precioMin Precio mínimo (opcional)
+     * @param precioMax Precio máximo (opcional)
+     * @param pageable Configuración de paginación y ordenamiento
+     * @return Página de servicios que coincidan con los criterios
+     */
+    @EntityGraph(attributePaths = "categoria")
+    @Query(value = "SELECT s FROM Servicio s WHERE " +
+           "(:nombre IS NULL OR LOWER(s.nombre) LIKE LOWER(CONCAT('%', :nombre, '%'))) AND " +
+           "(:idCategoria IS NULL OR s.categoria.idCategoria = :idCategoria) AND " +
+           "(:precioMin IS NULL OR s.precio >= :precioMin) AND " +
+           "(:precioMax IS NULL OR s.precio <= :precioMax) AND " +
+           "s.activo = true",
+           countQuery = "SELECT COUNT(s) FROM Servicio s WHERE " +
+           "(:nombre IS NULL OR LOWER(s.nombre) LIKE LOWER(CONCAT('%', :nombre, '%'))) AND " +
+           "(:idCategoria IS NULL OR s.categoria.idCategoria = :idCategoria) AND " +
+           "(:precioMin IS NULL OR s.precio >= :precioMin) AND " +
+           "(:precioMax IS NULL OR s.precio <= :precioMax) AND " +
+           "s.activo = true")
+    Page<Servicio> findServiciosPorCriterios(@Param("nombre") String nombre,
+                                           @Param("idCategoria") Long idCategoria,
+                                           @Param("precioMin") BigDecimal precioMin,
+                                           @Param("precioMax") BigDecimal precioMax,
+                                           Pageable pageable);
+    
     /**
      * Cuenta servicios por estado activo.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Long countByActivo(Boolean activo);
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.applegym.repository;
+
+import com.applegym.entity.StockPendiente;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repositorio para las unidades vendidas pendientes de descontar del stock.
+ * 
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+@Repository
+public interface StockPendienteRepository extends JpaRepository<StockPendiente, Long> {
+    
+    /**
+     * Filas pendientes en orden de inserción.
+     * 
+     * @return Lista de filas pendientes
+     */
+    List<StockPendiente> findAllByOrderByIdStockPendienteAsc();
+    
+    /**
+     * Suma las unidades pendientes de un producto.
+     * 
+     * @param idProducto ID del producto
+     * @return Unidades vendidas sin descontar (0 si no hay)
+     */
+    @Query("SELECT COALESCE(SUM(s.cantidad), 0) FROM StockPendiente s WHERE s.idProducto = :idProducto")
+    Long sumarPendiente(@Param("idProducto") Long idProducto);
+    
+    /**
+     * Elimina las filas ya aplicadas al stock.
+     * 
+     * Se borra por ID y no por rango para no tocar filas de ventas que
+     * todavía no confirmaron cuando se leyó el lote.
+     * 
+     * @param ids IDs de las filas escritas
+     * @return Filas eliminadas
+     */
+    @Modifying
+    @Query("DELETE FROM StockPendiente s WHERE s.idStockPendiente IN :ids")
+    int eliminarPorIds(@Param("ids") List<Long> ids);
+}
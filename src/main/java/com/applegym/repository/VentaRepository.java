@@ -1,11 +1,16 @@
 package com.applegym.repository;
 
+import com.applegym.dto.VentaDetalleReporteDTO;
+import com.applegym.dto.VentaHistorialDTO;
 import com.applegym.entity.Venta;
 import com.applegym.entity.Cliente;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -13,6 +18,9 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import jakarta.persistence.QueryHint;
 
 /**
  * Repositorio para la entidad Venta.
@@ -34,6 +42,36 @@ public interface VentaRepository extends JpaRepository<Venta, Long> {
      */
     Optional<Venta> findByNumeroVenta(String numeroVenta);
     
+    /**
+     * Marca una venta como sumada a los acumulados de reportes.
+     * 
+     * @return 1 si se marcó, 0 si ya estaba sumada
+     */
+    @Modifying
+    @Query("UPDATE Venta v SET v.acumuladaResumen = true WHERE v.idVenta = :idVenta AND v.acumuladaResumen = false")
+    int marcarAcumuladaEnResumen(@Param("idVenta") Long idVenta);
+    
+    /**
+     * Marca como sumadas todas las ventas completadas, antes de reconstruir los acumulados.
+     * 
+     * @return Ventas marcadas
+     */
+    @Modifying
+    @Query("UPDATE Venta v SET v.acumuladaResumen = true " +
+           "WHERE v.acumuladaResumen = false AND v.estado IN ('COMPLETADO', 'PAGADO')")
+    int marcarCompletadasAcumuladasEnResumen();
+    
+    /**
+     * Busca una venta con todo lo necesario para mostrarla o generar su
+     * comprobante (cliente, detalles, pago y comprobante) en una sola consulta.
+     * 
+     * @param idVenta ID de la venta
+     * @return Optional con la venta completa si existe
+     */
+    @EntityGraph(attributePaths = {"cliente", "detalles", "pago", "comprobante"})
+    @Query("SELECT v FROM Venta v WHERE v.idVenta = :idVenta")
+    Optional<Venta> findCompletaById(@Param("idVenta") Long idVenta);
+    
     /**
      * Busca ventas por cliente.
      * 
@@ -147,6 +185,42 @@ public interface VentaRepository extends JpaRepository<Venta, Long> {
     @Query("SELECT v FROM Venta v WHERE v.cliente.idCliente = :idCliente ORDER BY v.fechaVenta DESC")
     List<Venta> findByClienteId(@Param("idCliente") Long idCliente);
     
+    /**
+     * Primera página del historial de compras de un cliente, de la más
+     * reciente a la más antigua.
+     * 
+     * @param idCliente ID del cliente
+     * @param pageable Solo se usa el tamaño de página
+     * @return Ventas resumidas
+     */
+    @Query("SELECT new com.applegym.dto.VentaHistorialDTO(v.idVenta, v.numeroVenta, v.fechaVenta, v.total, v.estado) " +
+           "FROM Venta v WHERE v.cliente.idCliente = :idCliente " +
+           "ORDER BY v.fechaVenta DESC, v.idVenta DESC")
+    List<VentaHistorialDTO> findHistorialByClienteId(@Param("idCliente") Long idCliente, Pageable pageable);
+    
+    /**
+     * Página siguiente del historial por keyset: continúa justo después de la
+     * última venta devuelta (fecha, id) en lugar de saltar filas con OFFSET,
+     * de modo que con el índice idx_venta_cliente_fecha cualquier página
+     * cuesta lo mismo que la primera. La condición redundante sobre
+     * fechaVenta permite usar el índice como rango y no solo por cliente.
+     * 
+     * @param idCliente ID del cliente
+     * @param fechaVenta Fecha de la última venta de la página anterior
+     * @param idVenta ID de la última venta de la página anterior
+     * @param pageable Solo se usa el tamaño de página
+     * @return Ventas resumidas
+     */
+    @Query("SELECT new com.applegym.dto.VentaHistorialDTO(v.idVenta, v.numeroVenta, v.fechaVenta, v.total, v.estado) " +
+           "FROM Venta v WHERE v.cliente.idCliente = :idCliente " +
+           "AND v.fechaVenta <= :fechaVenta " +
+           "AND (v.fechaVenta < :fechaVenta OR v.idVenta < :idVenta) " +
+           "ORDER BY v.fechaVenta DESC, v.idVenta DESC")
+    List<VentaHistorialDTO> findHistorialByClienteIdAntesDe(@Param("idCliente") Long idCliente,
+                                                           @Param("fechaVenta") LocalDateTime fechaVenta,
+                                                           @Param("idVenta") Long idVenta,
+                                                           Pageable pageable);
+    
     /**
      * Calcula el promedio de venta por cliente.
      * 
@@ -235,4 +309,28 @@ public interface VentaRepository extends JpaRepository<Venta, Long> {
            "ORDER BY CAST(v.fechaVenta AS date)")
     List<Object[]> findVentasPorFecha(@Param("inicio") LocalDateTime inicio, 
                                      @Param("fin") LocalDateTime fin);
+    
+    /**
+     * Recorre en streaming las líneas vendidas en un rango de fechas [inicio, fin).
+     * 
+     * Proyecta directamente a DTO y el fetch size Integer.MIN_VALUE hace que
+     * Connector/J entregue las filas una a una desde el servidor, de modo que ni
+     * el contexto de persistencia ni el driver retienen el resultado completo.
+     * El streaming se activa solo en esta sentencia (el resto de consultas sigue
+     * leyendo con el buffer normal del driver); mientras el stream está abierto
+     * la conexión no admite otras consultas, así que debe consumirse al final de
+     * la transacción y cerrarse al terminar.
+     */
+    @QueryHints({
+        @QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+        @QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.applegym.dto.VentaDetalleReporteDTO(v.idVenta, v.numeroVenta, v.fechaVenta, " +
+           "c.nombreCliente, c.email, dv.tipo, dv.nombre, dv.cantidad, dv.precioUnitario, dv.subtotal) " +
+           "FROM DetalleVenta dv JOIN dv.venta v JOIN v.cliente c " +
+           "WHERE v.fechaVenta >= :inicio AND v.fechaVenta < :fin " +
+           "AND v.estado IN ('COMPLETADO', 'PAGADO') " +
+           "ORDER BY v.fechaVenta, v.idVenta, dv.idDetalle")
+    Stream<VentaDetalleReporteDTO> streamVentasDetalladas(@Param("inicio") LocalDateTime inicio,
+                                                          @Param("fin") LocalDateTime fin);
 }
\ No newline at end of file
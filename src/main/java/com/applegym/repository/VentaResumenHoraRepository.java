@@ -0,0 +1,83 @@
+package com.applegym.repository;
+
+import com.applegym.dto.VentasPorFechaDTO;
+import com.applegym.entity.VentaResumenHora;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repositorio para el acumulado de ventas por fecha y hora.
+ * 
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+@Repository
+public interface VentaResumenHoraRepository extends JpaRepository<VentaResumenHora, Long> {
+    
+    /**
+     * Suma una venta al acumulado de su fecha y hora (crea la fila si no existe).
+     * 
+     * @return Filas afectadas
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "venta_resumen_hora"))
+    @Query(value = "INSERT INTO venta_resumen_hora (fecha, hora, cantidad_ventas, total_ventas, fecha_actualizacion) " +
+                   "VALUES (:fecha, :hora, :cantidad, :total, CURRENT_TIMESTAMP) " +
+                   "ON DUPLICATE KEY UPDATE cantidad_ventas = cantidad_ventas + VALUES(cantidad_ventas), " +
+                   "total_ventas = total_ventas + VALUES(total_ventas), fecha_actualizacion = CURRENT_TIMESTAMP",
+           nativeQuery = true)
+    int acumular(@Param("fecha") LocalDate fecha, @Param("hora") int hora,
+                 @Param("cantidad") long cantidad, @Param("total") BigDecimal total);
+    
+    /**
+     * Recalcula el acumulado completo desde la tabla venta (solo ventas ya
+     * marcadas como acumuladas).
+     * 
+     * @return Filas insertadas
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "venta_resumen_hora"))
+    @Query(value = "INSERT INTO venta_resumen_hora (fecha, hora, cantidad_ventas, total_ventas, fecha_actualizacion) " +
+                   "SELECT CAST(v.fecha_venta AS DATE), HOUR(v.fecha_venta), COUNT(*), SUM(v.total), CURRENT_TIMESTAMP " +
+                   "FROM venta v WHERE v.estado IN ('COMPLETADO', 'PAGADO') AND v.acumulada_resumen = TRUE " +
+                   "GROUP BY CAST(v.fecha_venta AS DATE), HOUR(v.fecha_venta)",
+           nativeQuery = true)
+    int reconstruirDesdeVentas();
+    
+    @Modifying
+    @Query("DELETE FROM VentaResumenHora")
+    int eliminarTodo();
+    
+    /**
+     * Calcula en una sola lectura los totales del dashboard.
+     * 
+     * @return [total histórico, cantidad de ventas, total desde hoy, desde inicioSemana, desde inicioMes]
+     */
+    @Query("SELECT COALESCE(SUM(r.totalVentas), 0), COALESCE(SUM(r.cantidadVentas), 0), " +
+           "COALESCE(SUM(CASE WHEN r.fecha >= :hoy THEN r.totalVentas ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN r.fecha >= :inicioSemana THEN r.totalVentas ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN r.fecha >= :inicioMes THEN r.totalVentas ELSE 0 END), 0) " +
+           "FROM VentaResumenHora r")
+    List<Object[]> calcularTotales(@Param("hoy") LocalDate hoy,
+                                   @Param("inicioSemana") LocalDate inicioSemana,
+                                   @Param("inicioMes") LocalDate inicioMes);
+    
+    /**
+     * Obtiene ventas agrupadas por fecha a partir del acumulado por hora.
+     */
+    @Query("SELECT new com.applegym.dto.VentasPorFechaDTO(r.fecha, SUM(r.cantidadVentas), SUM(r.totalVentas)) " +
+           "FROM VentaResumenHora r WHERE r.fecha BETWEEN :inicio AND :fin " +
+           "GROUP BY r.fecha ORDER BY r.fecha")
+    List<VentasPorFechaDTO> findVentasPorFecha(@Param("inicio") LocalDate inicio,
+                                              @Param("fin") LocalDate fin);
+}
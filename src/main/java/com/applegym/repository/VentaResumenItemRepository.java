@@ -0,0 +1,65 @@
+package com.applegym.repository;
+
+import com.applegym.entity.VentaResumenItem;
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Repositorio para el acumulado de ventas por producto o servicio.
+ * 
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+@Repository
+public interface VentaResumenItemRepository extends JpaRepository<VentaResumenItem, Long> {
+    
+    /**
+     * Suma unidades e importe vendidos de un item (crea la fila si no existe).
+     * 
+     * @return Filas afectadas
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "venta_resumen_item"))
+    @Query(value = "INSERT INTO venta_resumen_item (tipo, id_item, nombre, cantidad, total, fecha_actualizacion) " +
+                   "VALUES (:tipo, :idItem, :nombre, :cantidad, :total, CURRENT_TIMESTAMP) " +
+                   "ON DUPLICATE KEY UPDATE nombre = VALUES(nombre), cantidad = cantidad + VALUES(cantidad), " +
+                   "total = total + VALUES(total), fecha_actualizacion = CURRENT_TIMESTAMP",
+           nativeQuery = true)
+    int acumular(@Param("tipo") String tipo, @Param("idItem") Long idItem, @Param("nombre") String nombre,
+                 @Param("cantidad") long cantidad, @Param("total") BigDecimal total);
+    
+    /**
+     * Recalcula el acumulado completo desde detalle_venta (solo ventas completadas
+     * y ya marcadas como acumuladas).
+     * 
+     * @return Filas insertadas
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "venta_resumen_item"))
+    @Query(value = "INSERT INTO venta_resumen_item (tipo, id_item, nombre, cantidad, total, fecha_actualizacion) " +
+                   "SELECT dv.tipo, dv.id_producto_servicio, MAX(dv.nombre), SUM(dv.cantidad), SUM(dv.subtotal), " +
+                   "CURRENT_TIMESTAMP FROM detalle_venta dv JOIN venta v ON v.id_venta = dv.id_venta " +
+                   "WHERE dv.tipo IS NOT NULL AND v.estado IN ('COMPLETADO', 'PAGADO') AND v.acumulada_resumen = TRUE " +
+                   "GROUP BY dv.tipo, dv.id_producto_servicio",
+           nativeQuery = true)
+    int reconstruirDesdeDetalles();
+    
+    @Modifying
+    @Query("DELETE FROM VentaResumenItem")
+    int eliminarTodo();
+    
+    /**
+     * Obtiene el ranking de items de un tipo por unidades vendidas.
+     */
+    List<VentaResumenItem> findByTipoOrderByCantidadDescTotalDesc(String tipo, Pageable pageable);
+}
@@ -1,5 +1,6 @@
 package com.applegym.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -16,6 +17,7 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 /**
  * Filtro de autenticación JWT.
@@ -37,6 +39,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private CustomUserDetailsService customUserDetailsService;
     
+    @Autowired
+    private JwtPrincipalCache principalCache;
+    
     @Override
     protected void doFilterInternal(HttpServletRequest request, 
                                   HttpServletResponse response, 
@@ -45,11 +50,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
             
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromToken(jwt);
+            Optional<Claims> claims = StringUtils.hasText(jwt) ? 
+                tokenProvider.validateTokenAndGetClaims(jwt) : Optional.empty();
+            
+            if (claims.isPresent()) {
+                String username = claims.get().getSubject();
                 
-                // Cargar detalles del usuario
-                UserDetails userDetails = customUserDetailsService.loadUserByUsername(username);
+                // Cargar detalles del usuario (desde caché si ya se resolvió este token)
+                UserDetails userDetails = principalCache.obtener(jwt);
+                if (userDetails == null) {
+                    userDetails = customUserDetailsService.loadUserByUsername(username);
+                    principalCache.guardar(jwt, userDetails);
+                }
                 
                 // Crear token de autenticación
                 UsernamePasswordAuthenticationToken authentication = 
@@ -0,0 +1,109 @@
+package com.applegym.security;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caché acotada de usuarios autenticados por token JWT.
+ *
+ * Evita consultar la base de datos en cada request autenticada. La clave es
+ * el hash SHA-256 del token (nunca el token en claro) y las entradas caducan
+ * tras un TTL configurable. Las entradas de un cliente se invalidan cuando
+ * se modifica, desactiva o cambia su contraseña.
+ *
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+@Component
+public class JwtPrincipalCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtPrincipalCache.class);
+
+    @Value("${jwt.principal-cache.max-size:10000}")
+    private long maximoEntradas;
+
+    @Value("${jwt.principal-cache.ttl-seconds:300}")
+    private long ttlSegundos;
+
+    private Cache<String, UserDetails> cache;
+
+    @PostConstruct
+    public void inicializar() {
+        cache = CacheBuilder.newBuilder()
+                .maximumSize(maximoEntradas)
+                .expireAfterWrite(ttlSegundos, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * Obtiene el usuario asociado a un token ya validado.
+     *
+     * @param token Token JWT
+     * @return UserDetails en caché o null si no está
+     */
+    public UserDetails obtener(String token) {
+        return cache.getIfPresent(hash(token));
+    }
+
+    /**
+     * Guarda el usuario resuelto para un token ya validado.
+     *
+     * @param token Token JWT
+     * @param userDetails Usuario cargado
+     */
+    public void guardar(String token, UserDetails userDetails) {
+        cache.put(hash(token), userDetails);
+    }
+
+    /**
+     * Elimina todas las entradas de un cliente.
+     *
+     * Si hay una transacción activa se invalida también tras el commit, para
+     * que una request concurrente no vuelva a cachear los datos anteriores.
+     *
+     * @param email Email del cliente
+     */
+    public void invalidarCliente(String email) {
+        if (email == null) {
+            return;
+        }
+        eliminarEntradas(email);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eliminarEntradas(email);
+                }
+            });
+        }
+    }
+
+    private void eliminarEntradas(String email) {
+        cache.asMap().values().removeIf(userDetails -> email.equalsIgnoreCase(userDetails.getUsername()));
+        logger.debug("Caché de autenticación invalidada para: {}", email);
+    }
+
+    private String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.applegym.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -11,6 +12,7 @@ import org.springframework.stereotype.Component;
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.Optional;
 
 /**
  * Proveedor de tokens JWT para autenticación.
@@ -32,14 +34,28 @@ public class JwtTokenProvider {
     @Value("${jwt.expiration}")
     private int jwtExpirationInMs;
     
+    private SecretKey signingKey;
+    
+    private JwtParser jwtParser;
+    
+    /**
+     * Construye una sola vez la clave y el parser (ambos son thread-safe).
+     */
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+    
     /**
      * Obtiene la clave secreta para firmar los tokens.
      * 
      * @return SecretKey generada a partir del secret configurado
      */
     private SecretKey getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return signingKey;
     }
     
     /**
@@ -84,9 +100,7 @@ public class JwtTokenProvider {
      * @return Nombre de usuario extraído
      */
     public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
+        Claims claims = jwtParser
                 .parseClaimsJws(token)
                 .getBody();
         
@@ -100,9 +114,7 @@ public class JwtTokenProvider {
      * @return Fecha de expiración
      */
     public Date getExpirationDateFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
+        Claims claims = jwtParser
                 .parseClaimsJws(token)
                 .getBody();
         
@@ -116,12 +128,18 @@ public class JwtTokenProvider {
      * @return true si el token es válido, false caso contrario
      */
     public boolean validateToken(String authToken) {
+        return validateTokenAndGetClaims(authToken).isPresent();
+    }
+    
+    /**
+     * Valida el token y devuelve sus claims con un único parseo y verificación de firma.
+     * 
+     * @param authToken Token a validar
+     * @return Claims del token si es válido, vacío en caso contrario
+     */
+    public Optional<Claims> validateTokenAndGetClaims(String authToken) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(authToken);
-            return true;
+            return Optional.of(jwtParser.parseClaimsJws(authToken).getBody());
         } catch (MalformedJwtException ex) {
             logger.error("Token JWT mal formado: {}", ex.getMessage());
         } catch (ExpiredJwtException ex) {
@@ -133,7 +151,7 @@ public class JwtTokenProvider {
         } catch (Exception ex) {
             logger.error("Error validando token JWT: {}", ex.getMessage());
         }
-        return false;
+        return Optional.empty();
     }
     
     /**
@@ -176,9 +194,7 @@ public class JwtTokenProvider {
      * @return Claims del token
      */
     public Claims getAllClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
+        return jwtParser
                 .parseClaimsJws(token)
                 .getBody();
     }
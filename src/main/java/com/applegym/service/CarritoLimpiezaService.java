@@ -0,0 +1,21 @@
+package com.applegym.service;
+
+import java.util.Map;
+
+/**
+ * Interfaz de servicio para la limpieza periódica de carritos.
+ * 
+ * Define los contratos para expirar los carritos activos abandonados y
+ * purgar los carritos procesados o abandonados fuera de la retención.
+ * 
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+public interface CarritoLimpiezaService {
+    
+    int expirarAbandonados();
+    
+    int purgarAntiguos();
+    
+    Map<String, Object> obtenerEstado();
+}
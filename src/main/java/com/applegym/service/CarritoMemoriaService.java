@@ -0,0 +1,35 @@
+package com.applegym.service;
+
+import com.applegym.entity.Carrito;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Interfaz de servicio para los carritos activos en memoria.
+ * 
+ * Define los contratos para leer y modificar el carrito de un cliente sin
+ * acceder a la base de datos, escribir sus cambios de forma diferida y
+ * forzar la escritura antes del checkout.
+ * 
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+public interface CarritoMemoriaService {
+    
+    boolean isHabilitado();
+    
+    <T> T leer(String emailCliente, Function<Carrito, T> lectura);
+    
+    <T> T modificar(String emailCliente, Function<Carrito, T> modificacion);
+    
+    void escribir(String emailCliente);
+    
+    void descartar(String emailCliente);
+    
+    void descartarAlConfirmar(String emailCliente, Carrito vendido);
+    
+    int escribirPendientes();
+    
+    Map<String, Object> obtenerEstado();
+}
@@ -0,0 +1,26 @@
+package com.applegym.service;
+
+import com.applegym.dto.CatalogoSnapshot;
+import com.applegym.dto.ProductoDTO;
+import com.applegym.dto.ServicioDTO;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Interfaz de servicio para la búsqueda de texto en el catálogo.
+ * 
+ * Define los contratos para consultar el índice invertido de productos
+ * y servicios y mantenerlo sincronizado con el catálogo en memoria.
+ * 
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+public interface CatalogoBusquedaService {
+    
+    Page<ProductoDTO> buscarProductos(String consulta, Pageable pageable);
+    
+    Page<ServicioDTO> buscarServicios(String consulta, Pageable pageable);
+    
+    void actualizarIndice(CatalogoSnapshot snapshot);
+}
@@ -0,0 +1,39 @@
+package com.applegym.service;
+
+import com.applegym.dto.CatalogoSnapshot;
+import com.applegym.dto.CategoriaDTO;
+import com.applegym.dto.ProductoDTO;
+import com.applegym.dto.ServicioDTO;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Interfaz de servicio para el catálogo en memoria.
+ *
+ * Sirve las lecturas del catálogo desde una instantánea inmutable que se
+ * reconstruye en segundo plano cuando cambian los datos, sin acceder a la
+ * base de datos en cada petición.
+ *
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+public interface CatalogoSnapshotService {
+
+    CatalogoSnapshot obtenerSnapshot();
+
+    Page<ProductoDTO> buscarProductosDisponibles(String nombre, Long idCategoria,
+                                               BigDecimal precioMin, BigDecimal precioMax,
+                                               Pageable pageable);
+
+    Page<ServicioDTO> buscarServiciosDisponibles(String nombre, Long idCategoria,
+                                               BigDecimal precioMin, BigDecimal precioMax,
+                                               Pageable pageable);
+
+    List<CategoriaDTO> obtenerCategoriasActivas();
+
+    void solicitarReconstruccion();
+}
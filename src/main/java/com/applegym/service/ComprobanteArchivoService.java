@@ -0,0 +1,20 @@
+package com.applegym.service;
+
+import com.applegym.dto.ComprobanteArchivoDTO;
+
+/**
+ * Interfaz de servicio para el almacén de PDFs de comprobantes.
+ * 
+ * Define los contratos para generar una sola vez el PDF de cada venta,
+ * guardarlo direccionado por su hash SHA-256 y devolver su ubicación en
+ * las descargas siguientes.
+ * 
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+public interface ComprobanteArchivoService {
+    
+    ComprobanteArchivoDTO obtenerArchivo(Long ventaId, String emailCliente);
+    
+    ComprobanteArchivoDTO generarYGuardar(Long ventaId);
+}
@@ -0,0 +1,21 @@
+package com.applegym.service;
+
+import java.util.Map;
+
+/**
+ * Interfaz de servicio para la generación en segundo plano de comprobantes.
+ * 
+ * Define los contratos para encolar la generación del PDF de una venta tras
+ * el checkout y para retomar los comprobantes que quedaron pendientes.
+ * 
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+public interface ComprobanteGeneracionService {
+    
+    boolean encolar(Long ventaId);
+    
+    int encolarPendientes();
+    
+    Map<String, Object> obtenerEstado();
+}
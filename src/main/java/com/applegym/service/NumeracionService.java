@@ -0,0 +1,19 @@
+package com.applegym.service;
+
+import com.applegym.entity.Comprobante;
+
+/**
+ * Interfaz de servicio para la numeración de ventas y comprobantes.
+ * 
+ * Define los contratos para obtener números correlativos únicos por serie
+ * sin acceder a la base de datos en cada venta.
+ * 
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+public interface NumeracionService {
+    
+    String siguienteNumeroVenta();
+    
+    String siguienteNumeroComprobante(Comprobante comprobante);
+}
@@ -1,8 +1,15 @@
 package com.applegym.service;
 
+import com.applegym.dto.ResumenReporteDTO;
+import com.applegym.dto.VentaDetalleReporteDTO;
+import com.applegym.dto.VentasPorFechaDTO;
 import com.applegym.entity.Venta;
 
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Servicio para generación de documentos PDF.
@@ -19,4 +26,30 @@ public interface PdfService {
      * @return ByteArrayOutputStream con el PDF generado
      */
     ByteArrayOutputStream generarComprobantePDF(Venta venta);
+    
+    /**
+     * Genera un comprobante de venta escribiendo el PDF directamente en la salida.
+     * 
+     * @param venta La venta para generar el comprobante
+     * @param salida Stream donde se escribe el PDF (no se cierra)
+     */
+    void generarComprobantePDF(Venta venta, OutputStream salida);
+    
+    /**
+     * Genera el reporte de ventas de un período escribiendo en streaming.
+     * 
+     * Las líneas se consumen una a una y las páginas completas se vuelcan a la
+     * salida a medida que se generan.
+     * 
+     * @param fechaInicio Inicio del período
+     * @param fechaFin Fin del período
+     * @param resumen Resumen general del dashboard
+     * @param ventasPorFecha Totales por día del período
+     * @param lineas Líneas vendidas del período, en orden
+     * @param salida Stream donde se escribe el PDF (no se cierra)
+     * @return Número de páginas generadas
+     */
+    int generarReporteVentasPDF(LocalDate fechaInicio, LocalDate fechaFin, ResumenReporteDTO resumen,
+                                List<VentasPorFechaDTO> ventasPorFecha, Stream<VentaDetalleReporteDTO> lineas,
+                                OutputStream salida);
 }
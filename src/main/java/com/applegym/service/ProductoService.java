@@ -1,6 +1,7 @@
 package com.applegym.service;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
@@ -29,4 +30,8 @@ public interface ProductoService {
     Page<ProductoDTO> buscarProductosPorNombre(String nombre, Pageable pageable);
     
     Page<ProductoDTO> buscarProductosPorCategoria(Long idCategoria, Pageable pageable);
+    
+    List<ProductoDTO> buscarProductosRelacionados(Long idProducto, Long idCategoria, int limite);
+    
+    List<ProductoDTO> obtenerProductosActivos();
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import com.applegym.dto.ResumenReporteDTO;
 import com.applegym.dto.TopItemDTO;
 import com.applegym.dto.VentasPorFechaDTO;
 
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -37,8 +38,18 @@ public interface ReporteService {
      */
     byte[] exportarReporteExcel(LocalDate fechaInicio, LocalDate fechaFin);
     
+    /**
+     * Exporta reportes a Excel escribiendo en streaming sobre la salida indicada.
+     */
+    void exportarReporteExcel(LocalDate fechaInicio, LocalDate fechaFin, OutputStream salida);
+    
     /**
      * Exporta reportes a PDF.
      */
     byte[] exportarReportePDF(LocalDate fechaInicio, LocalDate fechaFin);
+    
+    /**
+     * Exporta reportes a PDF escribiendo en streaming sobre la salida indicada.
+     */
+    void exportarReportePDF(LocalDate fechaInicio, LocalDate fechaFin, OutputStream salida);
 }
@@ -0,0 +1,21 @@
+package com.applegym.service;
+
+import com.applegym.event.VentaCompletadaEvent;
+
+import java.util.Map;
+
+/**
+ * Interfaz de servicio para los acumulados de ventas usados por los reportes.
+ * 
+ * Define los contratos para sumar cada venta completada a los acumulados
+ * por hora y por item, y para reconstruirlos desde el histórico.
+ * 
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+public interface ResumenVentasService {
+    
+    void registrarVenta(VentaCompletadaEvent venta);
+    
+    Map<String, Object> reconstruir();
+}
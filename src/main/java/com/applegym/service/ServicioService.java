@@ -5,6 +5,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -26,4 +27,6 @@ public interface ServicioService {
     Page<ServicioDTO> buscarServiciosPorNombre(String nombre, Pageable pageable);
     
     Page<ServicioDTO> buscarServiciosPorCategoria(Long idCategoria, Pageable pageable);
+    
+    List<ServicioDTO> obtenerServiciosActivos();
 }
\ No newline at end of file
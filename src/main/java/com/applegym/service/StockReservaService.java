@@ -0,0 +1,31 @@
+package com.applegym.service;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Interfaz de servicio para el registro en memoria de reservas de stock.
+ *
+ * Define los contratos para reservar unidades al agregar productos al carrito,
+ * liberarlas, y convertirlas en ventas en el checkout sin competir por la fila
+ * de Producto en cada request.
+ *
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+public interface StockReservaService {
+
+    boolean isHabilitado();
+
+    boolean reservar(String emailCliente, Long idProducto, int cantidad);
+
+    boolean ajustarReserva(String emailCliente, Long idProducto, int cantidadTotal);
+
+    void liberar(String emailCliente, Long idProducto);
+
+    void liberarTodo(String emailCliente);
+
+    Optional<Long> reservarParaVenta(String emailCliente, Map<Long, Integer> cantidades);
+
+    int obtenerDisponible(Long idProducto);
+}
@@ -1,6 +1,10 @@
 package com.applegym.service;
 
 import com.applegym.dto.VentaDTO;
+import com.applegym.dto.VentaLoteComandoDTO;
+import com.applegym.dto.VentaLoteResultadoDTO;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -13,7 +17,20 @@ public interface VentaService {
     
     VentaDTO procesarVenta(String emailCliente, String metodoPago);
     
+    List<VentaLoteResultadoDTO> procesarVentasEnLote(List<VentaLoteComandoDTO> comandos);
+    
     Map<String, Object> generarComprobante(Long ventaId, String emailCliente);
     
     VentaDTO buscarVentaPorId(Long ventaId);
+    
+    /**
+     * Historial de compras del cliente paginado por keyset.
+     * 
+     * @param emailCliente Email del cliente
+     * @param antesDeFecha Fecha de la última venta recibida, o null para la primera página
+     * @param antesDeId ID de la última venta recibida, o null para la primera página
+     * @param tamano Ventas por página
+     * @return Ventas de la página y cursor de la siguiente (null si no hay más)
+     */
+    Map<String, Object> obtenerHistorial(String emailCliente, LocalDateTime antesDeFecha, Long antesDeId, int tamano);
 }
\ No newline at end of file
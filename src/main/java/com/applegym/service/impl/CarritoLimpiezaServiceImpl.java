@@ -0,0 +1,200 @@
+package com.applegym.service.impl;
+
+import com.applegym.repository.CarritoRepository;
+import com.applegym.service.CarritoLimpiezaService;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Implementación de la limpieza periódica de carritos.
+ *
+ * Cada ejecución marca como ABANDONADO los carritos activos sin cambios
+ * durante el plazo configurado y elimina los PROCESADO y ABANDONADO más
+ * antiguos que la retención. Se trabaja por lotes de IDs, cada uno en su
+ * propia transacción corta, para no retener bloqueos sobre carrito y
+ * detalle_carrito. Cada ejecución se limita por número de lotes y por
+ * duración, y el scheduler tiene varios hilos, así que la limpieza no retrasa
+ * la escritura diferida de stock y carritos. Las reservas de stock de un
+ * carrito abandonado ya expiraron por su propio TTL, que es mucho menor que
+ * el plazo de abandono.
+ *
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+@Service
+public class CarritoLimpiezaServiceImpl implements CarritoLimpiezaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CarritoLimpiezaServiceImpl.class);
+
+    private static final List<String> ESTADOS_PURGABLES = List.of("PROCESADO", "ABANDONADO");
+
+    @Autowired
+    private CarritoRepository carritoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${carritos.limpieza.enabled:true}")
+    private boolean habilitado;
+
+    @Value("${carritos.limpieza.abandono-dias:7}")
+    private long diasAbandono;
+
+    @Value("${carritos.limpieza.retencion-dias:30}")
+    private long diasRetencion;
+
+    @Value("${carritos.limpieza.batch-size:500}")
+    private int tamanoLote;
+
+    @Value("${carritos.limpieza.max-batches:200}")
+    private int maximoLotes;
+
+    @Value("${carritos.limpieza.max-duration-ms:60000}")
+    private long duracionMaximaMs;
+
+    private final AtomicLong carritosExpirados = new AtomicLong();
+
+    private final AtomicLong carritosEliminados = new AtomicLong();
+
+    private final AtomicLong detallesEliminados = new AtomicLong();
+
+    private final AtomicLong lotes = new AtomicLong();
+
+    private final AtomicLong tiempoTotalLotesNanos = new AtomicLong();
+
+    private final AtomicLong tiempoMaximoLoteNanos = new AtomicLong();
+
+    private final AtomicLong ultimoLoteNanos = new AtomicLong();
+
+    private volatile LocalDateTime ultimaEjecucion;
+
+    private TransactionTemplate transaccion;
+
+    @PostConstruct
+    public void inicializar() {
+        transaccion = new TransactionTemplate(transactionManager);
+        logger.info("Limpieza de carritos {} (abandono {} días, retención {} días, lotes de {})",
+                   habilitado ? "habilitada" : "deshabilitada", diasAbandono, diasRetencion, tamanoLote);
+    }
+
+    @Scheduled(fixedDelayString = "${carritos.limpieza.interval-ms:3600000}",
+               initialDelayString = "${carritos.limpieza.interval-ms:3600000}")
+    public void ejecutar() {
+        if (!habilitado) {
+            return;
+        }
+        long limite = calcularLimite();
+        int expirados = expirarAbandonados(limite);
+        int eliminados = purgarAntiguos(limite);
+        ultimaEjecucion = LocalDateTime.now();
+        if (expirados > 0 || eliminados > 0) {
+            logger.info("Limpieza de carritos - Expirados: {}, Eliminados: {}", expirados, eliminados);
+        }
+    }
+
+    @Override
+    public int expirarAbandonados() {
+        return expirarAbandonados(calcularLimite());
+    }
+
+    @Override
+    public int purgarAntiguos() {
+        return purgarAntiguos(calcularLimite());
+    }
+
+    private int expirarAbandonados(long limite) {
+        LocalDateTime fechaLimite = LocalDateTime.now().minusDays(diasAbandono);
+        return procesarPorLotes(limite,
+            () -> carritoRepository.findIdsCarritosAbandonados(fechaLimite, PageRequest.of(0, tamanoLote)),
+            ids -> {
+                int marcados = carritoRepository.marcarAbandonados(ids, fechaLimite, LocalDateTime.now());
+                carritosExpirados.addAndGet(marcados);
+                return marcados;
+            });
+    }
+
+    private int purgarAntiguos(long limite) {
+        LocalDateTime fechaLimite = LocalDateTime.now().minusDays(diasRetencion);
+        return procesarPorLotes(limite,
+            () -> carritoRepository.findIdsCarritosAntiguos(ESTADOS_PURGABLES, fechaLimite, PageRequest.of(0, tamanoLote)),
+            ids -> {
+                detallesEliminados.addAndGet(carritoRepository.eliminarDetallesDeCarritos(ids));
+                int eliminados = carritoRepository.eliminarPorIds(ids);
+                carritosEliminados.addAndGet(eliminados);
+                return eliminados;
+            });
+    }
+
+    @Override
+    public Map<String, Object> obtenerEstado() {
+        long totalLotes = lotes.get();
+        Map<String, Object> estado = new HashMap<>();
+        estado.put("habilitado", habilitado);
+        estado.put("ultimaEjecucion", ultimaEjecucion);
+        estado.put("carritosExpirados", carritosExpirados.get());
+        estado.put("carritosEliminados", carritosEliminados.get());
+        estado.put("detallesEliminados", detallesEliminados.get());
+        estado.put("lotes", totalLotes);
+        estado.put("ultimoLoteMs", TimeUnit.NANOSECONDS.toMillis(ultimoLoteNanos.get()));
+        estado.put("maximoLoteMs", TimeUnit.NANOSECONDS.toMillis(tiempoMaximoLoteNanos.get()));
+        estado.put("promedioLoteMs", totalLotes == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(tiempoTotalLotesNanos.get() / totalLotes));
+        return estado;
+    }
+
+    /**
+     * Repite buscar lote / procesar lote, cada par en su propia transacción,
+     * hasta que no queden filas o se alcance el máximo de lotes o el límite
+     * de tiempo de la ejecución. Lo que quede se procesa en la siguiente.
+     */
+    private int procesarPorLotes(long limite, Supplier<List<Long>> buscarLote,
+                                 Function<List<Long>, Integer> procesarLote) {
+        int total = 0;
+        for (int lote = 0; lote < maximoLotes; lote++) {
+            long inicio = System.nanoTime();
+            if (inicio - limite >= 0) {
+                logger.info("Limpieza de carritos interrumpida por tiempo tras {} lotes", lote);
+                break;
+            }
+            Integer procesados = transaccion.execute(status -> {
+                List<Long> ids = buscarLote.get();
+                return ids.isEmpty() ? null : procesarLote.apply(ids);
+            });
+            if (procesados == null) {
+                break;
+            }
+            registrarLote(System.nanoTime() - inicio);
+            total += procesados;
+            logger.debug("Lote de limpieza de carritos: {} filas", procesados);
+        }
+        return total;
+    }
+
+    private long calcularLimite() {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(duracionMaximaMs);
+    }
+
+    private void registrarLote(long nanos) {
+        lotes.incrementAndGet();
+        ultimoLoteNanos.set(nanos);
+        tiempoTotalLotesNanos.addAndGet(nanos);
+        tiempoMaximoLoteNanos.accumulateAndGet(nanos, Math::max);
+    }
+}
@@ -0,0 +1,508 @@
+package com.applegym.service.impl;
+
+import com.applegym.entity.Carrito;
+import com.applegym.entity.Cliente;
+import com.applegym.entity.DetalleCarrito;
+import com.applegym.exception.ResourceNotFoundException;
+import com.applegym.repository.CarritoRepository;
+import com.applegym.repository.ClienteRepository;
+import com.applegym.service.CarritoMemoriaService;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Implementación de los carritos activos en memoria.
+ *
+ * El carrito ACTIVO de cada cliente se carga una vez y se mantiene como un
+ * grafo Carrito/DetalleCarrito desconectado de JPA; agregar, quitar o cambiar
+ * cantidades lo modifica en memoria bajo el monitor del carrito. Los carritos
+ * con cambios quedan en {@code pendientes} (aunque la caché los desaloje) y
+ * se escriben en segundo plano: todos los cambios acumulados de un carrito se
+ * aplican en una sola transacción corta. El checkout fuerza la escritura antes
+ * de leer el carrito y lo descarta de memoria tras el commit; los cambios que
+ * llegan mientras tanto pasan a un carrito nuevo en lugar de perderse.
+ *
+ * Igual que las reservas de stock, asume una sola instancia de la aplicación.
+ * Con {@code carritos.memoria.enabled=false} el carrito vuelve a leerse y
+ * escribirse en la base de datos en cada operación.
+ *
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+@Service
+public class CarritoMemoriaServiceImpl implements CarritoMemoriaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CarritoMemoriaServiceImpl.class);
+
+    @Autowired
+    private CarritoRepository carritoRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${carritos.memoria.enabled:true}")
+    private boolean habilitado;
+
+    @Value("${carritos.memoria.max-size:10000}")
+    private long maximoCarritos;
+
+    @Value("${carritos.memoria.ttl-minutes:30}")
+    private long ttlMinutos;
+
+    private Cache<String, CarritoEnMemoria> carritos;
+
+    /** Carritos con cambios sin escribir; no se pierden aunque la caché los desaloje. */
+    private final Map<String, CarritoEnMemoria> pendientes = new ConcurrentHashMap<>();
+
+    private final AtomicLong cargas = new AtomicLong();
+
+    private final AtomicLong modificaciones = new AtomicLong();
+
+    private final AtomicLong escrituras = new AtomicLong();
+
+    private final AtomicLong errores = new AtomicLong();
+
+    private TransactionTemplate transaccion;
+
+    @PostConstruct
+    public void inicializar() {
+        carritos = CacheBuilder.newBuilder()
+                .maximumSize(maximoCarritos)
+                .expireAfterAccess(ttlMinutos, TimeUnit.MINUTES)
+                .build();
+        // Transacción propia: las entidades quedan desconectadas al terminar y
+        // la escritura del checkout se confirma aunque la venta se revierta
+        transaccion = new TransactionTemplate(transactionManager);
+        transaccion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        logger.info("Carritos en memoria {} (máximo {}, TTL {} min)",
+                   habilitado ? "habilitados" : "deshabilitados", maximoCarritos, ttlMinutos);
+    }
+
+    @Override
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    @Override
+    public <T> T leer(String emailCliente, Function<Carrito, T> lectura) {
+        CarritoEnMemoria entrada = obtenerEntrada(emailCliente);
+        synchronized (entrada) {
+            return lectura.apply(entrada.carrito);
+        }
+    }
+
+    /**
+     * Aplica la modificación sobre el carrito en memoria y lo marca como
+     * pendiente de escribir. La modificación debe validar antes de cambiar
+     * nada: si lanza una excepción el carrito no se marca.
+     */
+    @Override
+    public <T> T modificar(String emailCliente, Function<Carrito, T> modificacion) {
+        String clave = clave(emailCliente);
+        while (true) {
+            CarritoEnMemoria entrada = obtenerEntrada(emailCliente);
+            synchronized (entrada) {
+                if (entrada.descartado) {
+                    // El checkout lo descartó mientras se obtenía: se carga el siguiente
+                    continue;
+                }
+                T resultado = modificacion.apply(entrada.carrito);
+                entrada.version++;
+                pendientes.put(clave, entrada);
+                modificaciones.incrementAndGet();
+                return resultado;
+            }
+        }
+    }
+
+    @Override
+    public void escribir(String emailCliente) {
+        if (!habilitado) {
+            return;
+        }
+        String clave = clave(emailCliente);
+        CarritoEnMemoria entrada = pendientes.get(clave);
+        if (entrada != null) {
+            escribirEntrada(clave, entrada);
+        } else {
+            entrada = carritos.getIfPresent(clave);
+        }
+        if (entrada != null) {
+            synchronized (entrada) {
+                // Versión que leerá el checkout; si al confirmar sigue igual, no hubo cambios
+                entrada.versionCheckout = entrada.versionEscrita;
+            }
+        }
+    }
+
+    @Override
+    public void descartar(String emailCliente) {
+        if (!habilitado) {
+            return;
+        }
+        String clave = clave(emailCliente);
+        marcarDescartado(clave, carritos.asMap().remove(clave));
+        marcarDescartado(clave, pendientes.get(clave));
+    }
+
+    /**
+     * Descarta el carrito vendido cuando la venta confirma. Si mientras tanto
+     * el cliente modificó el carrito, lo que no entró en la venta se conserva
+     * en un carrito nuevo.
+     */
+    @Override
+    public void descartarAlConfirmar(String emailCliente, Carrito vendido) {
+        if (!habilitado) {
+            return;
+        }
+        Long idCarrito = vendido.getIdCarrito();
+        List<DetalleCarrito> lineasVendidas = copiar(vendido).getDetalles();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cerrarCheckout(emailCliente, idCarrito, lineasVendidas);
+                }
+            });
+        } else {
+            cerrarCheckout(emailCliente, idCarrito, lineasVendidas);
+        }
+    }
+
+    /**
+     * Escribe en la base de datos los carritos con cambios pendientes, uno por
+     * transacción, agrupando todas las modificaciones hechas desde el ciclo anterior.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${carritos.memoria.flush-interval-ms:1000}")
+    public int escribirPendientes() {
+        if (!habilitado || pendientes.isEmpty()) {
+            return 0;
+        }
+        int escritos = 0;
+        for (Map.Entry<String, CarritoEnMemoria> pendiente : pendientes.entrySet()) {
+            try {
+                if (escribirEntrada(pendiente.getKey(), pendiente.getValue())) {
+                    escritos++;
+                }
+            } catch (RuntimeException e) {
+                // Sigue pendiente y se reintenta en el siguiente ciclo
+                errores.incrementAndGet();
+                logger.error("Error al escribir el carrito de {}: {}", pendiente.getKey(), e.getMessage());
+            }
+        }
+        if (escritos > 0) {
+            logger.debug("Carritos escritos en base de datos: {}", escritos);
+        }
+        return escritos;
+    }
+
+    @Override
+    public Map<String, Object> obtenerEstado() {
+        Map<String, Object> estado = new HashMap<>();
+        estado.put("habilitado", habilitado);
+        estado.put("enMemoria", carritos.size());
+        estado.put("pendientes", pendientes.size());
+        estado.put("cargas", cargas.get());
+        estado.put("modificaciones", modificaciones.get());
+        estado.put("escrituras", escrituras.get());
+        estado.put("errores", errores.get());
+        return estado;
+    }
+
+    @PreDestroy
+    public void detener() {
+        escribirPendientes();
+    }
+
+    private void cerrarCheckout(String emailCliente, Long idCarrito, List<DetalleCarrito> lineasVendidas) {
+        String clave = clave(emailCliente);
+        CarritoEnMemoria entrada = carritos.getIfPresent(clave);
+        if (entrada == null) {
+            entrada = pendientes.get(clave);
+        }
+        if (entrada == null) {
+            return;
+        }
+        synchronized (entrada) {
+            if (entrada.descartado || !Objects.equals(entrada.carrito.getIdCarrito(), idCarrito)) {
+                // Ya es otro carrito: la escritura periódica lo cerró y conservó sus cambios
+                return;
+            }
+            if (entrada.version == entrada.versionCheckout) {
+                descartarEntrada(clave, entrada);
+            } else {
+                conservarRestantes(clave, entrada, lineasVendidas);
+            }
+        }
+    }
+
+    /**
+     * El carrito se cerró en la base de datos (venta o limpieza). Las unidades
+     * en memoria que no estaban en el carrito cerrado se pasan a un carrito
+     * nuevo, pendiente de insertar; si no queda ninguna, se descarta.
+     * Debe llamarse con el monitor de la entrada.
+     */
+    private void conservarRestantes(String clave, CarritoEnMemoria entrada, List<DetalleCarrito> lineasCerradas) {
+        Map<String, Integer> cerradas = new HashMap<>();
+        for (DetalleCarrito linea : lineasCerradas) {
+            cerradas.merge(claveDetalle(linea), linea.getCantidad(), Integer::sum);
+        }
+
+        Carrito carrito = entrada.carrito;
+        carrito.getDetalles().removeIf(detalle -> {
+            int restante = detalle.getCantidad() - cerradas.getOrDefault(claveDetalle(detalle), 0);
+            if (restante <= 0) {
+                return true;
+            }
+            detalle.setIdDetalleCarrito(null);
+            detalle.setCantidad(restante);
+            detalle.setSubtotal(detalle.getPrecioUnitario().multiply(BigDecimal.valueOf(restante)));
+            return false;
+        });
+
+        if (carrito.getDetalles().isEmpty()) {
+            descartarEntrada(clave, entrada);
+            return;
+        }
+        carrito.setIdCarrito(null);
+        carrito.setFecha(LocalDateTime.now());
+        carrito.calcularTotal();
+        entrada.version++;
+        pendientes.put(clave, entrada);
+        logger.info("Cambios hechos durante el cierre del carrito de {} pasan a un carrito nuevo ({} líneas)",
+                   clave, carrito.getDetalles().size());
+    }
+
+    private void descartarEntrada(String clave, CarritoEnMemoria entrada) {
+        entrada.descartado = true;
+        pendientes.remove(clave, entrada);
+        carritos.asMap().remove(clave, entrada);
+    }
+
+    private void marcarDescartado(String clave, CarritoEnMemoria entrada) {
+        if (entrada != null) {
+            synchronized (entrada) {
+                entrada.descartado = true;
+                pendientes.remove(clave, entrada);
+            }
+        }
+    }
+
+    private CarritoEnMemoria obtenerEntrada(String emailCliente) {
+        String clave = clave(emailCliente);
+        CarritoEnMemoria entrada = carritos.getIfPresent(clave);
+        if (entrada != null) {
+            return entrada;
+        }
+        // Un carrito desalojado con cambios sin escribir es más reciente que la base de datos
+        entrada = pendientes.get(clave);
+        if (entrada == null) {
+            entrada = cargar(emailCliente);
+        }
+        CarritoEnMemoria existente = carritos.asMap().putIfAbsent(clave, entrada);
+        return existente != null ? existente : entrada;
+    }
+
+    private CarritoEnMemoria cargar(String emailCliente) {
+        cargas.incrementAndGet();
+        return transaccion.execute(status -> {
+            Cliente cliente = clienteRepository.findByEmailAndActivo(emailCliente, true)
+                .orElseThrow(() -> new ResourceNotFoundException("Cliente no encontrado: " + emailCliente));
+            // Un carrito nuevo solo se inserta cuando recibe su primer item
+            Carrito carrito = carritoRepository.findConDetallesByClienteAndEstado(cliente, "ACTIVO")
+                .orElseGet(() -> new Carrito(cliente));
+            return new CarritoEnMemoria(carrito);
+        });
+    }
+
+    /**
+     * Escribe la versión actual del carrito. Las escrituras de un mismo carrito
+     * (ciclo periódico y checkout) se serializan para no insertarlo dos veces.
+     *
+     * @return true si se escribió algo
+     */
+    private boolean escribirEntrada(String clave, CarritoEnMemoria entrada) {
+        synchronized (entrada.escritura) {
+            Carrito copia;
+            long version;
+            synchronized (entrada) {
+                if (entrada.descartado || entrada.versionEscrita >= entrada.version) {
+                    return false;
+                }
+                version = entrada.version;
+                copia = copiar(entrada.carrito);
+            }
+
+            Carrito guardado = transaccion.execute(status -> persistir(copia));
+
+            synchronized (entrada) {
+                if (guardado == null || !"ACTIVO".equals(guardado.getEstado())) {
+                    if (!entrada.descartado && Objects.equals(entrada.carrito.getIdCarrito(), copia.getIdCarrito())) {
+                        // El carrito ya no está activo (checkout o limpieza)
+                        if (guardado == null) {
+                            descartarEntrada(clave, entrada);
+                        } else {
+                            conservarRestantes(clave, entrada, guardado.getDetalles());
+                        }
+                    }
+                    return false;
+                }
+                entrada.versionEscrita = version;
+                entrada.carrito.setIdCarrito(guardado.getIdCarrito());
+                asignarIdsDetalles(entrada.carrito, guardado);
+                if (entrada.versionEscrita >= entrada.version) {
+                    pendientes.remove(clave, entrada);
+                }
+            }
+            escrituras.incrementAndGet();
+            return true;
+        }
+    }
+
+    /**
+     * Aplica sobre la fila del carrito el estado de la copia: actualiza los
+     * detalles existentes, inserta los nuevos y elimina los que ya no están.
+     *
+     * @return el carrito guardado; si en la base de datos ya no está activo, el
+     *         carrito cerrado sin cambios, o null si ya no existe
+     */
+    private Carrito persistir(Carrito copia) {
+        Carrito carrito;
+        if (copia.getIdCarrito() == null) {
+            carrito = new Carrito(clienteRepository.getReferenceById(copia.getCliente().getIdCliente()));
+            carrito.setFecha(copia.getFecha());
+        } else {
+            carrito = carritoRepository.findConDetallesById(copia.getIdCarrito()).orElse(null);
+            if (carrito == null || !"ACTIVO".equals(carrito.getEstado())) {
+                return carrito;
+            }
+        }
+
+        Map<String, DetalleCarrito> actuales = new HashMap<>();
+        for (DetalleCarrito detalle : carrito.getDetalles()) {
+            actuales.putIfAbsent(claveDetalle(detalle), detalle);
+        }
+
+        Set<String> vigentes = new HashSet<>();
+        for (DetalleCarrito linea : copia.getDetalles()) {
+            String claveLinea = claveDetalle(linea);
+            vigentes.add(claveLinea);
+            DetalleCarrito detalle = actuales.get(claveLinea);
+            if (detalle == null) {
+                detalle = new DetalleCarrito();
+                detalle.setCarrito(carrito);
+                detalle.setTipo(linea.getTipo());
+                detalle.setIdItem(linea.getIdItem());
+                detalle.setFechaAgregado(linea.getFechaAgregado());
+                carrito.getDetalles().add(detalle);
+                actuales.put(claveLinea, detalle);
+            }
+            detalle.setNombreItem(linea.getNombreItem());
+            detalle.setDescripcionItem(linea.getDescripcionItem());
+            detalle.setPrecioUnitario(linea.getPrecioUnitario());
+            detalle.setCantidad(linea.getCantidad());
+            detalle.setSubtotal(linea.getSubtotal());
+        }
+        carrito.getDetalles().removeIf(detalle -> !vigentes.contains(claveDetalle(detalle)));
+        carrito.setTotal(copia.getTotal());
+
+        return carritoRepository.save(carrito);
+    }
+
+    private void asignarIdsDetalles(Carrito carrito, Carrito guardado) {
+        Map<String, Long> ids = new HashMap<>();
+        for (DetalleCarrito detalle : guardado.getDetalles()) {
+            ids.put(claveDetalle(detalle), detalle.getIdDetalleCarrito());
+        }
+        for (DetalleCarrito detalle : carrito.getDetalles()) {
+            if (detalle.getIdDetalleCarrito() == null) {
+                detalle.setIdDetalleCarrito(ids.get(claveDetalle(detalle)));
+            }
+        }
+    }
+
+    /**
+     * Copia el carrito para escribirlo fuera del monitor sin que las
+     * modificaciones concurrentes lo alteren a mitad de la escritura.
+     */
+    private Carrito copiar(Carrito carrito) {
+        Carrito copia = new Carrito(carrito.getCliente());
+        copia.setIdCarrito(carrito.getIdCarrito());
+        copia.setFecha(carrito.getFecha());
+        copia.setTotal(carrito.getTotal());
+
+        List<DetalleCarrito> detalles = copia.getDetalles();
+        for (DetalleCarrito detalle : carrito.getDetalles()) {
+            DetalleCarrito linea = new DetalleCarrito();
+            linea.setTipo(detalle.getTipo());
+            linea.setIdItem(detalle.getIdItem());
+            linea.setNombreItem(detalle.getNombreItem());
+            linea.setDescripcionItem(detalle.getDescripcionItem());
+            linea.setPrecioUnitario(detalle.getPrecioUnitario());
+            linea.setCantidad(detalle.getCantidad());
+            linea.setSubtotal(detalle.getSubtotal());
+            linea.setFechaAgregado(detalle.getFechaAgregado());
+            detalles.add(linea);
+        }
+        return copia;
+    }
+
+    private String claveDetalle(DetalleCarrito detalle) {
+        return detalle.getTipo().toUpperCase(Locale.ROOT) + '|' + detalle.getIdItem();
+    }
+
+    private String clave(String emailCliente) {
+        return emailCliente.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Carrito de un cliente en memoria. {@code version} cuenta las
+     * modificaciones y {@code versionEscrita} la última escrita en la base de
+     * datos; el carrito está pendiente mientras la primera sea mayor.
+     * {@code versionCheckout} es la versión escrita para el último checkout.
+     */
+    private static final class CarritoEnMemoria {
+        private final Carrito carrito;
+        private final Object escritura = new Object();
+        private long version;
+        private long versionEscrita;
+        private long versionCheckout;
+        private boolean descartado;
+
+        private CarritoEnMemoria(Carrito carrito) {
+            this.carrito = carrito;
+        }
+    }
+}
@@ -1,27 +1,40 @@
 package com.applegym.service.impl;
 
 import com.applegym.dto.CarritoDTO;
-import com.applegym.dto.DetalleCarritoDTO;
+import com.applegym.dto.ProductoDTO;
+import com.applegym.dto.ServicioDTO;
 import com.applegym.entity.*;
+import com.applegym.mapper.CarritoMapper;
 import com.applegym.repository.*;
+import com.applegym.service.CarritoMemoriaService;
 import com.applegym.service.CarritoService;
+import com.applegym.service.CatalogoSnapshotService;
+import com.applegym.service.StockReservaService;
 import com.applegym.exception.ResourceNotFoundException;
+import com.applegym.exception.StockInsuficienteException;
 
-import org.modelmapper.ModelMapper;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 /**
  * Implementación del servicio de Carrito.
- * 
+ *
+ * Con los carritos en memoria habilitados las operaciones no abren
+ * transacción: modifican el carrito en memoria y se escribe en la base de
+ * datos en segundo plano. Si están deshabilitados, cada operación carga y
+ * guarda el carrito en su propia transacción.
+ *
  * @author AppleGym Team
  * @version 1.0.0
  */
@@ -44,128 +57,114 @@ public class CarritoServiceImpl implements CarritoService {
     private ServicioRepository servicioRepository;
     
     @Autowired
-    private ModelMapper modelMapper;
+    private StockReservaService stockReservaService;
+    
+    @Autowired
+    private CarritoMemoriaService carritoMemoriaService;
+    
+    @Autowired
+    private CatalogoSnapshotService catalogoSnapshotService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private TransactionTemplate transaccion;
+    
+    @PostConstruct
+    public void inicializar() {
+        transaccion = new TransactionTemplate(transactionManager);
+    }
     
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public CarritoDTO obtenerCarritoActual(String emailCliente) {
         logger.debug("Obteniendo carrito actual para cliente: {}", emailCliente);
         
-        Cliente cliente = clienteRepository.findByEmailAndActivo(emailCliente, true)
-            .orElseThrow(() -> new ResourceNotFoundException("Cliente no encontrado: " + emailCliente));
-        
-        Carrito carrito = carritoRepository.findByClienteAndEstado(cliente, "ACTIVO")
-            .orElseGet(() -> crearNuevoCarrito(cliente));
+        if (carritoMemoriaService.isHabilitado()) {
+            return carritoMemoriaService.leer(emailCliente, CarritoMapper::convertirADTO);
+        }
         
-        return convertirADTO(carrito);
+        return transaccion.execute(status -> {
+            Cliente cliente = buscarCliente(emailCliente);
+            
+            Carrito carrito = carritoRepository.findByClienteAndEstado(cliente, "ACTIVO")
+                .orElseGet(() -> crearNuevoCarrito(cliente));
+            
+            return CarritoMapper.convertirADTO(carrito);
+        });
     }
     
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public CarritoDTO agregarItem(String emailCliente, Long itemId, String tipo, Integer cantidad) {
-        logger.debug("Agregando item al carrito - Cliente: {}, Item: {}, Tipo: {}, Cantidad: {}", 
+        logger.debug("Agregando item al carrito - Cliente: {}, Item: {}, Tipo: {}, Cantidad: {}",
                     emailCliente, itemId, tipo, cantidad);
         
-        Cliente cliente = clienteRepository.findByEmailAndActivo(emailCliente, true)
-            .orElseThrow(() -> new ResourceNotFoundException("Cliente no encontrado: " + emailCliente));
-        
-        Carrito carrito = carritoRepository.findByClienteAndEstado(cliente, "ACTIVO")
-            .orElseGet(() -> crearNuevoCarrito(cliente));
-        
         // Validar que el item existe y está disponible
-        BigDecimal precioUnitario;
-        String nombreItem;
-        String descripcionItem;
+        DetalleCarrito item = buscarItemDisponible(itemId, tipo);
+        BigDecimal precioUnitario = item.getPrecioUnitario();
         
-        if ("producto".equalsIgnoreCase(tipo)) {
-            Producto producto = productoRepository.findById(itemId)
-                .orElseThrow(() -> new ResourceNotFoundException("Producto no encontrado: " + itemId));
-            
-            if (!producto.getActivo() || producto.getStock() <= 0) {
-                throw new IllegalStateException("Producto no disponible: " + producto.getNombre());
+        return modificarCarrito(emailCliente, true, carrito -> {
+            // Reservar las unidades del producto mientras permanezcan en el carrito
+            if ("PRODUCTO".equals(item.getTipo()) && !stockReservaService.reservar(emailCliente, itemId, cantidad)) {
+                throw new StockInsuficienteException(itemId, item.getNombreItem(), cantidad);
             }
             
-            precioUnitario = producto.getPrecio();
-            nombreItem = producto.getNombre();
-            descripcionItem = producto.getDescripcion();
-            
-        } else if ("servicio".equalsIgnoreCase(tipo)) {
-            Servicio servicio = servicioRepository.findById(itemId)
-                .orElseThrow(() -> new ResourceNotFoundException("Servicio no encontrado: " + itemId));
+            // Buscar si ya existe el item en el carrito
+            DetalleCarrito detalleExistente = carrito.getDetalles().stream()
+                .filter(d -> d.getTipo().equalsIgnoreCase(tipo) && d.getIdItem().equals(itemId))
+                .findFirst()
+                .orElse(null);
             
-            if (!servicio.getActivo() || !servicio.isDisponible()) {
-                throw new IllegalStateException("Servicio no disponible: " + servicio.getNombre());
+            if (detalleExistente != null) {
+                // Actualizar cantidad
+                detalleExistente.setCantidad(detalleExistente.getCantidad() + cantidad);
+                detalleExistente.setSubtotal(precioUnitario.multiply(BigDecimal.valueOf(detalleExistente.getCantidad())));
+            } else {
+                // Crear nuevo detalle
+                item.setCarrito(carrito);
+                item.setCantidad(cantidad);
+                item.setSubtotal(precioUnitario.multiply(BigDecimal.valueOf(cantidad)));
+                
+                carrito.getDetalles().add(item);
             }
             
-            precioUnitario = servicio.getPrecio();
-            nombreItem = servicio.getNombre();
-            descripcionItem = servicio.getDescripcion();
+            // Actualizar total del carrito
+            actualizarTotalCarrito(carrito);
             
-        } else {
-            throw new IllegalArgumentException("Tipo de item inválido: " + tipo);
-        }
-        
-        // Buscar si ya existe el item en el carrito
-        DetalleCarrito detalleExistente = carrito.getDetalles().stream()
-            .filter(d -> d.getTipo().equalsIgnoreCase(tipo) && d.getIdItem().equals(itemId))
-            .findFirst()
-            .orElse(null);
-        
-        if (detalleExistente != null) {
-            // Actualizar cantidad
-            detalleExistente.setCantidad(detalleExistente.getCantidad() + cantidad);
-            detalleExistente.setSubtotal(precioUnitario.multiply(BigDecimal.valueOf(detalleExistente.getCantidad())));
-        } else {
-            // Crear nuevo detalle
-            DetalleCarrito nuevoDetalle = new DetalleCarrito();
-            nuevoDetalle.setCarrito(carrito);
-            nuevoDetalle.setTipo(tipo.toUpperCase());
-            nuevoDetalle.setIdItem(itemId);
-            nuevoDetalle.setNombreItem(nombreItem);
-            nuevoDetalle.setDescripcionItem(descripcionItem);
-            nuevoDetalle.setPrecioUnitario(precioUnitario);
-            nuevoDetalle.setCantidad(cantidad);
-            nuevoDetalle.setSubtotal(precioUnitario.multiply(BigDecimal.valueOf(cantidad)));
+            logger.info("Item agregado al carrito exitosamente - Carrito ID: {}", carrito.getIdCarrito());
             
-            carrito.getDetalles().add(nuevoDetalle);
-        }
-        
-        // Actualizar total del carrito
-        actualizarTotalCarrito(carrito);
-        
-        carritoRepository.save(carrito);
-        
-        logger.info("Item agregado al carrito exitosamente - Carrito ID: {}", carrito.getIdCarrito());
-        
-        return convertirADTO(carrito);
+            return CarritoMapper.convertirADTO(carrito);
+        });
     }
     
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void eliminarItem(String emailCliente, Long itemId) {
         logger.debug("Eliminando item del carrito - Cliente: {}, Item: {}", emailCliente, itemId);
         
-        Cliente cliente = clienteRepository.findByEmailAndActivo(emailCliente, true)
-            .orElseThrow(() -> new ResourceNotFoundException("Cliente no encontrado: " + emailCliente));
-        
-        Carrito carrito = carritoRepository.findByClienteAndEstado(cliente, "ACTIVO")
-            .orElseThrow(() -> new ResourceNotFoundException("Carrito no encontrado"));
-        
-        boolean itemEliminado = carrito.getDetalles().removeIf(
-            detalle -> detalle.getIdItem().equals(itemId)
-        );
-        
-        if (!itemEliminado) {
-            throw new ResourceNotFoundException("Item no encontrado en el carrito: " + itemId);
-        }
-        
-        actualizarTotalCarrito(carrito);
-        carritoRepository.save(carrito);
+        modificarCarrito(emailCliente, false, carrito -> {
+            boolean itemEliminado = carrito.getDetalles().removeIf(
+                detalle -> detalle.getIdItem().equals(itemId)
+            );
+            
+            if (!itemEliminado) {
+                throw new ResourceNotFoundException("Item no encontrado en el carrito: " + itemId);
+            }
+            
+            stockReservaService.liberar(emailCliente, itemId);
+            
+            actualizarTotalCarrito(carrito);
+            return null;
+        });
         
         logger.info("Item eliminado del carrito exitosamente - Item ID: {}", itemId);
     }
     
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public CarritoDTO actualizarCantidad(String emailCliente, Long itemId, Integer nuevaCantidad) {
-        logger.debug("Actualizando cantidad en carrito - Cliente: {}, Item: {}, Nueva cantidad: {}", 
+        logger.debug("Actualizando cantidad en carrito - Cliente: {}, Item: {}, Nueva cantidad: {}",
                     emailCliente, itemId, nuevaCantidad);
         
         if (nuevaCantidad <= 0) {
@@ -173,34 +172,38 @@ public class CarritoServiceImpl implements CarritoService {
             return obtenerCarritoActual(emailCliente);
         }
         
-        Cliente cliente = clienteRepository.findByEmailAndActivo(emailCliente, true)
-            .orElseThrow(() -> new ResourceNotFoundException("Cliente no encontrado: " + emailCliente));
-        
-        Carrito carrito = carritoRepository.findByClienteAndEstado(cliente, "ACTIVO")
-            .orElseThrow(() -> new ResourceNotFoundException("Carrito no encontrado"));
-        
-        DetalleCarrito detalle = carrito.getDetalles().stream()
-            .filter(d -> d.getIdItem().equals(itemId))
-            .findFirst()
-            .orElseThrow(() -> new ResourceNotFoundException("Item no encontrado en el carrito: " + itemId));
-        
-        detalle.setCantidad(nuevaCantidad);
-        detalle.setSubtotal(detalle.getPrecioUnitario().multiply(BigDecimal.valueOf(nuevaCantidad)));
-        
-        actualizarTotalCarrito(carrito);
-        carritoRepository.save(carrito);
+        CarritoDTO resultado = modificarCarrito(emailCliente, false, carrito -> {
+            DetalleCarrito detalle = carrito.getDetalles().stream()
+                .filter(d -> d.getIdItem().equals(itemId))
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Item no encontrado en el carrito: " + itemId));
+            
+            if ("PRODUCTO".equalsIgnoreCase(detalle.getTipo())
+                    && !stockReservaService.ajustarReserva(emailCliente, itemId, nuevaCantidad)) {
+                throw new StockInsuficienteException(itemId, detalle.getNombreItem(), nuevaCantidad);
+            }
+            
+            detalle.setCantidad(nuevaCantidad);
+            detalle.setSubtotal(detalle.getPrecioUnitario().multiply(BigDecimal.valueOf(nuevaCantidad)));
+            
+            actualizarTotalCarrito(carrito);
+            return CarritoMapper.convertirADTO(carrito);
+        });
         
         logger.info("Cantidad actualizada exitosamente - Item ID: {}, Nueva cantidad: {}", itemId, nuevaCantidad);
         
-        return convertirADTO(carrito);
+        return resultado;
     }
     
     @Override
     public void limpiarCarrito(String emailCliente) {
         logger.debug("Limpiando carrito para cliente: {}", emailCliente);
         
-        Cliente cliente = clienteRepository.findByEmailAndActivo(emailCliente, true)
-            .orElseThrow(() -> new ResourceNotFoundException("Cliente no encontrado: " + emailCliente));
+        // Lo que quede en memoria se escribe y se descarta antes de cerrar el carrito
+        carritoMemoriaService.escribir(emailCliente);
+        carritoMemoriaService.descartar(emailCliente);
+        
+        Cliente cliente = buscarCliente(emailCliente);
         
         Carrito carrito = carritoRepository.findByClienteAndEstado(cliente, "ACTIVO")
             .orElse(null);
@@ -208,10 +211,95 @@ public class CarritoServiceImpl implements CarritoService {
         if (carrito != null) {
             carrito.setEstado("PROCESADO");
             carritoRepository.save(carrito);
+            stockReservaService.liberarTodo(emailCliente);
             logger.info("Carrito limpiado exitosamente - Cliente: {}", emailCliente);
         }
     }
     
+    /**
+     * Aplica la modificación sobre el carrito activo del cliente: en memoria si
+     * está habilitado, o cargándolo y guardándolo en una transacción si no.
+     */
+    private <T> T modificarCarrito(String emailCliente, boolean crearSiNoExiste, Function<Carrito, T> modificacion) {
+        if (carritoMemoriaService.isHabilitado()) {
+            return carritoMemoriaService.modificar(emailCliente, modificacion);
+        }
+        
+        return transaccion.execute(status -> {
+            Cliente cliente = buscarCliente(emailCliente);
+            
+            Carrito carrito = crearSiNoExiste
+                ? carritoRepository.findByClienteAndEstado(cliente, "ACTIVO")
+                    .orElseGet(() -> crearNuevoCarrito(cliente))
+                : carritoRepository.findByClienteAndEstado(cliente, "ACTIVO")
+                    .orElseThrow(() -> new ResourceNotFoundException("Carrito no encontrado"));
+            
+            T resultado = modificacion.apply(carrito);
+            carritoRepository.save(carrito);
+            return resultado;
+        });
+    }
+    
+    /**
+     * Devuelve un detalle con los datos del item si existe y está disponible.
+     * Se busca primero en el catálogo en memoria; si no está ahí (inactivo, sin
+     * stock o aún no publicado) se consulta la base de datos.
+     */
+    private DetalleCarrito buscarItemDisponible(Long itemId, String tipo) {
+        DetalleCarrito item = new DetalleCarrito();
+        item.setIdItem(itemId);
+        
+        if ("producto".equalsIgnoreCase(tipo)) {
+            ProductoDTO enCatalogo = catalogoSnapshotService.obtenerSnapshot().getProducto(itemId);
+            if (enCatalogo != null && enCatalogo.isDisponible()) {
+                item.setNombreItem(enCatalogo.getNombre());
+                item.setDescripcionItem(enCatalogo.getDescripcion());
+                item.setPrecioUnitario(enCatalogo.getPrecio());
+            } else {
+                Producto producto = productoRepository.findById(itemId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Producto no encontrado: " + itemId));
+                
+                if (!producto.getActivo() || producto.getStock() <= 0) {
+                    throw new IllegalStateException("Producto no disponible: " + producto.getNombre());
+                }
+                
+                item.setNombreItem(producto.getNombre());
+                item.setDescripcionItem(producto.getDescripcion());
+                item.setPrecioUnitario(producto.getPrecio());
+            }
+        
+        } else if ("servicio".equalsIgnoreCase(tipo)) {
+            ServicioDTO enCatalogo = catalogoSnapshotService.obtenerSnapshot().getServicio(itemId);
+            if (enCatalogo != null && enCatalogo.isDisponible()) {
+                item.setNombreItem(enCatalogo.getNombre());
+                item.setDescripcionItem(enCatalogo.getDescripcion());
+                item.setPrecioUnitario(enCatalogo.getPrecio());
+            } else {
+                Servicio servicio = servicioRepository.findById(itemId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Servicio no encontrado: " + itemId));
+                
+                if (!servicio.getActivo() || !servicio.isDisponible()) {
+                    throw new IllegalStateException("Servicio no disponible: " + servicio.getNombre());
+                }
+                
+                item.setNombreItem(servicio.getNombre());
+                item.setDescripcionItem(servicio.getDescripcion());
+                item.setPrecioUnitario(servicio.getPrecio());
+            }
+        
+        } else {
+            throw new IllegalArgumentException("Tipo de item inválido: " + tipo);
+        }
+        
+        item.setTipo(tipo.toUpperCase());
+        return item;
+    }
+    
+    private Cliente buscarCliente(String emailCliente) {
+        return clienteRepository.findByEmailAndActivo(emailCliente, true)
+            .orElseThrow(() -> new ResourceNotFoundException("Cliente no encontrado: " + emailCliente));
+    }
+    
     private Carrito crearNuevoCarrito(Cliente cliente) {
         Carrito nuevoCarrito = new Carrito();
         nuevoCarrito.setCliente(cliente);
@@ -229,27 +317,4 @@ public class CarritoServiceImpl implements CarritoService {
         
         carrito.setTotal(total);
     }
-    
-    private CarritoDTO convertirADTO(Carrito carrito) {
-        CarritoDTO dto = modelMapper.map(carrito, CarritoDTO.class);
-        
-        if (carrito.getCliente() != null) {
-            dto.setNombreCliente(carrito.getCliente().getNombreCliente());
-        }
-        
-        List<DetalleCarritoDTO> detallesDTO = carrito.getDetalles().stream()
-            .map(this::convertirDetalleADTO)
-            .collect(Collectors.toList());
-        
-        dto.setDetalles(detallesDTO);
-        
-        return dto;
-    }
-    
-    private DetalleCarritoDTO convertirDetalleADTO(DetalleCarrito detalle) {
-        DetalleCarritoDTO dto = modelMapper.map(detalle, DetalleCarritoDTO.class);
-        dto.setNombreItem(detalle.getNombreItem());
-        dto.setDescripcionItem(detalle.getDescripcionItem());
-        return dto;
-    }
 }
\ No newline at end of file
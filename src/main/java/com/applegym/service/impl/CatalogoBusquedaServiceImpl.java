@@ -0,0 +1,314 @@
+package com.applegym.service.impl;
+
+import com.applegym.dto.CatalogoSnapshot;
+import com.applegym.dto.ProductoDTO;
+import com.applegym.dto.ServicioDTO;
+import com.applegym.event.CatalogoSnapshotActualizadoEvent;
+import com.applegym.service.CatalogoBusquedaService;
+import com.applegym.service.CatalogoSnapshotService;
+import com.applegym.util.TextoBusquedaUtil;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Implementación de la búsqueda del catálogo sobre un índice invertido en memoria.
+ *
+ * Indexa nombre y descripción de productos y servicios activos. Cada término
+ * apunta a los documentos que lo contienen con un peso (el nombre pesa más que
+ * la descripción). Las consultas aceptan coincidencia exacta, por prefijo y con
+ * errores tipográficos, y ordenan por relevancia. El índice se actualiza de forma
+ * incremental con cada nueva versión del catálogo: solo se reindexan los
+ * documentos cuyo texto cambió.
+ *
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+@Service
+public class CatalogoBusquedaServiceImpl implements CatalogoBusquedaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogoBusquedaServiceImpl.class);
+
+    private static final String PREFIJO_PRODUCTO = "P:";
+    private static final String PREFIJO_SERVICIO = "S:";
+
+    private static final float PESO_NOMBRE = 3.0f;
+    private static final float PESO_DESCRIPCION = 1.0f;
+
+    private static final float FACTOR_PREFIJO = 0.7f;
+    private static final float FACTOR_ERROR_1 = 0.5f;
+    private static final float FACTOR_ERROR_2 = 0.3f;
+    private static final float BONO_FRASE_NOMBRE = 2.0f;
+
+    @Autowired
+    private CatalogoSnapshotService catalogoSnapshotService;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Documento> documentos = new HashMap<>();
+
+    private final Map<String, Map<String, Float>> postings = new HashMap<>();
+
+    private final TreeSet<String> terminos = new TreeSet<>();
+
+    private volatile long versionIndexada = -1;
+
+    @Override
+    public Page<ProductoDTO> buscarProductos(String consulta, Pageable pageable) {
+        return buscar(consulta, PREFIJO_PRODUCTO, pageable);
+    }
+
+    @Override
+    public Page<ServicioDTO> buscarServicios(String consulta, Pageable pageable) {
+        return buscar(consulta, PREFIJO_SERVICIO, pageable);
+    }
+
+    @EventListener
+    public void onSnapshotActualizado(CatalogoSnapshotActualizadoEvent event) {
+        actualizarIndice(event.getSnapshot());
+    }
+
+    @Override
+    public void actualizarIndice(CatalogoSnapshot snapshot) {
+        lock.writeLock().lock();
+        try {
+            if (snapshot.getVersion() <= versionIndexada) {
+                return;
+            }
+
+            Set<String> vigentes = new HashSet<>();
+            int reindexados = 0;
+            for (ProductoDTO producto : snapshot.getProductos()) {
+                String clave = PREFIJO_PRODUCTO + producto.getIdProducto();
+                vigentes.add(clave);
+                if (indexar(clave, producto.getNombre(), producto.getDescripcion(), producto)) {
+                    reindexados++;
+                }
+            }
+            for (ServicioDTO servicio : snapshot.getServicios()) {
+                String clave = PREFIJO_SERVICIO + servicio.getIdServicio();
+                vigentes.add(clave);
+                if (indexar(clave, servicio.getNombre(), servicio.getDescripcion(), servicio)) {
+                    reindexados++;
+                }
+            }
+
+            List<String> eliminados = new ArrayList<>();
+            for (String clave : documentos.keySet()) {
+                if (!vigentes.contains(clave)) {
+                    eliminados.add(clave);
+                }
+            }
+            eliminados.forEach(clave -> quitar(documentos.remove(clave)));
+
+            versionIndexada = snapshot.getVersion();
+            logger.debug("Índice de búsqueda en versión {}: {} reindexados, {} eliminados, {} términos",
+                    versionIndexada, reindexados, eliminados.size(), terminos.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private <T> Page<T> buscar(String consulta, String prefijoTipo, Pageable pageable) {
+        asegurarIndice();
+
+        Set<String> tokens = new LinkedHashSet<>(TextoBusquedaUtil.tokenizar(consulta));
+        if (tokens.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, 0);
+        }
+        String frase = TextoBusquedaUtil.normalizar(consulta).trim();
+
+        List<Resultado> resultados = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            // Todos los términos de la consulta deben coincidir (AND)
+            Map<String, Float> acumulado = null;
+            for (String token : tokens) {
+                Map<String, Float> puntajes = puntuarTermino(token, prefijoTipo);
+                if (acumulado == null) {
+                    acumulado = puntajes;
+                } else {
+                    acumulado.keySet().retainAll(puntajes.keySet());
+                    acumulado.replaceAll((clave, puntaje) -> puntaje + puntajes.get(clave));
+                }
+                if (acumulado.isEmpty()) {
+                    break;
+                }
+            }
+
+            for (Map.Entry<String, Float> entrada : acumulado.entrySet()) {
+                Documento documento = documentos.get(entrada.getKey());
+                float puntaje = entrada.getValue();
+                if (!frase.isEmpty() && documento.nombreNormalizado.contains(frase)) {
+                    puntaje += BONO_FRASE_NOMBRE;
+                }
+                resultados.add(new Resultado(documento, puntaje));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        resultados.sort(Comparator.comparingDouble((Resultado r) -> r.puntaje).reversed()
+                .thenComparing(r -> r.documento.nombreNormalizado));
+
+        int desde = (int) Math.min(pageable.isPaged() ? pageable.getOffset() : 0, resultados.size());
+        int hasta = pageable.isPaged() ? Math.min(desde + pageable.getPageSize(), resultados.size()) : resultados.size();
+
+        List<T> pagina = new ArrayList<>(hasta - desde);
+        for (Resultado resultado : resultados.subList(desde, hasta)) {
+            @SuppressWarnings("unchecked")
+            T dto = (T) resultado.documento.dto;
+            pagina.add(dto);
+        }
+        return new PageImpl<>(pagina, pageable, resultados.size());
+    }
+
+    /**
+     * Calcula, para un término de la consulta, el mejor puntaje de cada documento
+     * del tipo indicado considerando coincidencia exacta, por prefijo y aproximada.
+     */
+    private Map<String, Float> puntuarTermino(String token, String prefijoTipo) {
+        Map<String, Float> puntajes = new HashMap<>();
+
+        // Exacto y por prefijo: rango ordenado [token, token + Character.MAX_VALUE]
+        for (String termino : terminos.subSet(token, true, token + Character.MAX_VALUE, true)) {
+            float factor = termino.equals(token) ? 1.0f
+                    : FACTOR_PREFIJO * token.length() / termino.length();
+            if (factor < 1.0f && token.length() < 2) {
+                continue;
+            }
+            acumularTermino(termino, factor, prefijoTipo, puntajes);
+        }
+
+        // Errores tipográficos: se comparan los términos que comparten la primera letra
+        if (token.length() >= 4) {
+            int maximo = token.length() >= 8 ? 2 : 1;
+            String inicial = token.substring(0, 1);
+            for (String termino : terminos.subSet(inicial, true, inicial + Character.MAX_VALUE, true)) {
+                if (termino.startsWith(token)) {
+                    continue;
+                }
+                int distancia = TextoBusquedaUtil.distanciaEdicion(token, termino, maximo);
+                if (distancia > maximo && termino.length() > token.length()) {
+                    // Prefijo con error ("protien" → "proteina")
+                    distancia = TextoBusquedaUtil.distanciaEdicion(
+                            token, termino.substring(0, token.length()), maximo);
+                }
+                if (distancia <= maximo) {
+                    acumularTermino(termino, distancia == 1 ? FACTOR_ERROR_1 : FACTOR_ERROR_2,
+                            prefijoTipo, puntajes);
+                }
+            }
+        }
+        return puntajes;
+    }
+
+    private void acumularTermino(String termino, float factor, String prefijoTipo, Map<String, Float> puntajes) {
+        Map<String, Float> lista = postings.get(termino);
+        float idf = (float) Math.log(1.0 + (double) documentos.size() / lista.size());
+        for (Map.Entry<String, Float> posting : lista.entrySet()) {
+            if (posting.getKey().startsWith(prefijoTipo)) {
+                float peso = posting.getValue();
+                // Saturación de frecuencia al estilo BM25
+                float puntaje = factor * idf * (peso * 2.2f / (peso + 1.2f));
+                puntajes.merge(posting.getKey(), puntaje, Math::max);
+            }
+        }
+    }
+
+    /**
+     * Indexa o actualiza un documento.
+     *
+     * @return true si hubo que recalcular sus términos
+     */
+    private boolean indexar(String clave, String nombre, String descripcion, Object dto) {
+        String firma = nombre + '\u0000' + descripcion;
+        Documento existente = documentos.get(clave);
+        if (existente != null && existente.firma.equals(firma)) {
+            // Mismo texto: solo se actualiza el DTO (stock, precio, etc.)
+            documentos.put(clave, new Documento(existente, dto));
+            return false;
+        }
+        if (existente != null) {
+            quitar(existente);
+        }
+
+        Map<String, Float> pesos = new HashMap<>();
+        TextoBusquedaUtil.tokenizar(nombre).forEach(t -> pesos.merge(t, PESO_NOMBRE, Float::sum));
+        TextoBusquedaUtil.tokenizar(descripcion).forEach(t -> pesos.merge(t, PESO_DESCRIPCION, Float::sum));
+
+        Documento documento = new Documento(clave, firma, TextoBusquedaUtil.normalizar(nombre), pesos, dto);
+        documentos.put(clave, documento);
+        pesos.forEach((termino, peso) -> postings.computeIfAbsent(termino, t -> {
+            terminos.add(t);
+            return new HashMap<>();
+        }).put(clave, peso));
+        return true;
+    }
+
+    private void quitar(Documento documento) {
+        for (String termino : documento.pesos.keySet()) {
+            Map<String, Float> lista = postings.get(termino);
+            if (lista != null) {
+                lista.remove(documento.clave);
+                if (lista.isEmpty()) {
+                    postings.remove(termino);
+                    terminos.remove(termino);
+                }
+            }
+        }
+    }
+
+    private void asegurarIndice() {
+        if (versionIndexada < 0) {
+            actualizarIndice(catalogoSnapshotService.obtenerSnapshot());
+        }
+    }
+
+    private static final class Documento {
+        private final String clave;
+        private final String firma;
+        private final String nombreNormalizado;
+        private final Map<String, Float> pesos;
+        private final Object dto;
+
+        private Documento(String clave, String firma, String nombreNormalizado, Map<String, Float> pesos, Object dto) {
+            this.clave = clave;
+            this.firma = firma;
+            this.nombreNormalizado = nombreNormalizado;
+            this.pesos = pesos;
+            this.dto = dto;
+        }
+
+        private Documento(Documento base, Object dto) {
+            this(base.clave, base.firma, base.nombreNormalizado, base.pesos, dto);
+        }
+    }
+
+    private static final class Resultado {
+        private final Documento documento;
+        private final float puntaje;
+
+        private Resultado(Documento documento, float puntaje) {
+            this.documento = documento;
+            this.puntaje = puntaje;
+        }
+    }
+}
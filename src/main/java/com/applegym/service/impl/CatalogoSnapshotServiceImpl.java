@@ -0,0 +1,253 @@
+package com.applegym.service.impl;
+
+import com.applegym.dto.CatalogoSnapshot;
+import com.applegym.dto.CategoriaDTO;
+import com.applegym.dto.ProductoDTO;
+import com.applegym.dto.ServicioDTO;
+import com.applegym.event.CatalogoModificadoEvent;
+import com.applegym.event.CatalogoSnapshotActualizadoEvent;
+import com.applegym.service.CatalogoSnapshotService;
+import com.applegym.service.CategoriaService;
+import com.applegym.service.ProductoService;
+import com.applegym.service.ServicioService;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Implementación del catálogo en memoria.
+ *
+ * Mantiene la instantánea vigente en una {@link AtomicReference}. Las
+ * reconstrucciones se ejecutan en un único hilo de fondo y se agrupan: varias
+ * solicitudes seguidas producen una sola reconstrucción. Mientras se construye
+ * la nueva versión se sigue sirviendo la anterior.
+ *
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+@Service
+public class CatalogoSnapshotServiceImpl implements CatalogoSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogoSnapshotServiceImpl.class);
+
+    private static final Comparator<String> TEXTO = Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER);
+
+    private static final Map<String, Comparator<ProductoDTO>> ORDEN_PRODUCTOS = Map.of(
+            "nombre", Comparator.comparing(ProductoDTO::getNombre, TEXTO),
+            "precio", Comparator.comparing(ProductoDTO::getPrecio, Comparator.nullsLast(Comparator.naturalOrder())),
+            "stock", Comparator.comparing(ProductoDTO::getStock, Comparator.nullsLast(Comparator.naturalOrder())),
+            "fechaCreacion", Comparator.comparing(ProductoDTO::getFechaCreacion, Comparator.nullsLast(Comparator.naturalOrder())),
+            "idProducto", Comparator.comparing(ProductoDTO::getIdProducto, Comparator.nullsLast(Comparator.naturalOrder())));
+
+    private static final Map<String, Comparator<ServicioDTO>> ORDEN_SERVICIOS = Map.of(
+            "nombre", Comparator.comparing(ServicioDTO::getNombre, TEXTO),
+            "precio", Comparator.comparing(ServicioDTO::getPrecio, Comparator.nullsLast(Comparator.naturalOrder())),
+            "duracion", Comparator.comparing(ServicioDTO::getDuracion, Comparator.nullsLast(Comparator.naturalOrder())),
+            "fechaCreacion", Comparator.comparing(ServicioDTO::getFechaCreacion, Comparator.nullsLast(Comparator.naturalOrder())),
+            "idServicio", Comparator.comparing(ServicioDTO::getIdServicio, Comparator.nullsLast(Comparator.naturalOrder())));
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private ServicioService servicioService;
+
+    @Autowired
+    private CategoriaService categoriaService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final AtomicReference<CatalogoSnapshot> snapshotActual = new AtomicReference<>();
+
+    private final AtomicLong versiones = new AtomicLong();
+
+    private final AtomicBoolean reconstruccionPendiente = new AtomicBoolean(false);
+
+    private final ExecutorService reconstructor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread hilo = new Thread(runnable, "catalogo-snapshot");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    @Override
+    public CatalogoSnapshot obtenerSnapshot() {
+        CatalogoSnapshot snapshot = snapshotActual.get();
+        if (snapshot == null) {
+            // Primera lectura antes de que termine la carga inicial
+            synchronized (this) {
+                snapshot = snapshotActual.get();
+                if (snapshot == null) {
+                    snapshot = reconstruir();
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    @Override
+    public Page<ProductoDTO> buscarProductosDisponibles(String nombre, Long idCategoria,
+                                                      BigDecimal precioMin, BigDecimal precioMax,
+                                                      Pageable pageable) {
+        Predicate<ProductoDTO> filtro = producto -> producto.isDisponible()
+                && coincideNombre(producto.getNombre(), nombre)
+                && (idCategoria == null || idCategoria.equals(producto.getIdCategoria()))
+                && coincidePrecio(producto.getPrecio(), precioMin, precioMax);
+
+        return paginar(obtenerSnapshot().getProductos(), filtro, pageable, ORDEN_PRODUCTOS);
+    }
+
+    @Override
+    public Page<ServicioDTO> buscarServiciosDisponibles(String nombre, Long idCategoria,
+                                                      BigDecimal precioMin, BigDecimal precioMax,
+                                                      Pageable pageable) {
+        Predicate<ServicioDTO> filtro = servicio -> coincideNombre(servicio.getNombre(), nombre)
+                && (idCategoria == null || idCategoria.equals(servicio.getIdCategoria()))
+                && coincidePrecio(servicio.getPrecio(), precioMin, precioMax);
+
+        return paginar(obtenerSnapshot().getServicios(), filtro, pageable, ORDEN_SERVICIOS);
+    }
+
+    @Override
+    public List<CategoriaDTO> obtenerCategoriasActivas() {
+        return obtenerSnapshot().getCategorias();
+    }
+
+    @Override
+    public void solicitarReconstruccion() {
+        if (reconstruccionPendiente.compareAndSet(false, true)) {
+            reconstructor.execute(() -> {
+                // Se libera antes de reconstruir para no perder cambios concurrentes
+                reconstruccionPendiente.set(false);
+                try {
+                    reconstruir();
+                } catch (Exception e) {
+                    logger.error("Error reconstruyendo el catálogo en memoria: {}", e.getMessage());
+                }
+            });
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarAlIniciar() {
+        solicitarReconstruccion();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCatalogoModificado(CatalogoModificadoEvent event) {
+        logger.debug("Catálogo modificado ({}), se programa reconstrucción", event.getOrigen());
+        solicitarReconstruccion();
+    }
+
+    /**
+     * Refresco periódico para recoger cambios hechos fuera de la aplicación
+     * (scripts SQL de mantenimiento, otras instancias).
+     */
+    @Scheduled(fixedDelayString = "${catalogo.snapshot.refresh-interval-ms:300000}",
+               initialDelayString = "${catalogo.snapshot.refresh-interval-ms:300000}")
+    public void refrescarPeriodicamente() {
+        solicitarReconstruccion();
+    }
+
+    @PreDestroy
+    public void detener() {
+        reconstructor.shutdownNow();
+    }
+
+    private CatalogoSnapshot reconstruir() {
+        long inicio = System.currentTimeMillis();
+
+        List<ProductoDTO> productos = productoService.obtenerProductosActivos();
+        List<ServicioDTO> servicios = servicioService.obtenerServiciosActivos();
+        List<CategoriaDTO> categorias = categoriaService.obtenerCategoriasActivas();
+
+        CatalogoSnapshot snapshot = new CatalogoSnapshot(
+                versiones.incrementAndGet(), productos, servicios, categorias);
+        snapshotActual.set(snapshot);
+        eventPublisher.publishEvent(new CatalogoSnapshotActualizadoEvent(snapshot));
+
+        logger.info("Catálogo en memoria actualizado a versión {} ({} productos, {} servicios, {} categorías) en {} ms",
+                snapshot.getVersion(), productos.size(), servicios.size(), categorias.size(),
+                System.currentTimeMillis() - inicio);
+        return snapshot;
+    }
+
+    private <T> Page<T> paginar(List<T> elementos, Predicate<T> filtro, Pageable pageable,
+                                Map<String, Comparator<T>> ordenes) {
+        List<T> filtrados = elementos.stream()
+                .filter(filtro)
+                .collect(Collectors.toList());
+
+        Comparator<T> comparador = construirComparador(pageable.getSort(), ordenes);
+        if (comparador != null) {
+            filtrados.sort(comparador);
+        }
+
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(filtrados, pageable, filtrados.size());
+        }
+
+        int desde = (int) Math.min(pageable.getOffset(), filtrados.size());
+        int hasta = Math.min(desde + pageable.getPageSize(), filtrados.size());
+        return new PageImpl<>(filtrados.subList(desde, hasta), pageable, filtrados.size());
+    }
+
+    private <T> Comparator<T> construirComparador(Sort sort, Map<String, Comparator<T>> ordenes) {
+        Comparator<T> comparador = null;
+        for (Sort.Order orden : sort) {
+            Comparator<T> actual = ordenes.get(orden.getProperty());
+            if (actual == null) {
+                // Propiedad no ordenable en memoria: se conserva el orden por nombre
+                continue;
+            }
+            if (orden.isDescending()) {
+                actual = actual.reversed();
+            }
+            comparador = comparador == null ? actual : comparador.thenComparing(actual);
+        }
+        return comparador;
+    }
+
+    private boolean coincideNombre(String nombre, String busqueda) {
+        if (busqueda == null) {
+            return true;
+        }
+        return nombre != null && nombre.toLowerCase().contains(busqueda.toLowerCase());
+    }
+
+    private boolean coincidePrecio(BigDecimal precio, BigDecimal precioMin, BigDecimal precioMax) {
+        if (precioMin == null && precioMax == null) {
+            return true;
+        }
+        if (precio == null) {
+            return false;
+        }
+        return (precioMin == null || precio.compareTo(precioMin) >= 0)
+                && (precioMax == null || precio.compareTo(precioMax) <= 0);
+    }
+}
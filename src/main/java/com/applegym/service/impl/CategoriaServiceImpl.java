@@ -1,11 +1,9 @@
 package com.applegym.service.impl;
 
 import com.applegym.dto.CategoriaDTO;
-import com.applegym.entity.Categoria;
 import com.applegym.repository.CategoriaRepository;
 import com.applegym.service.CategoriaService;
 
-import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,7 +11,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Implementación del servicio de Categoria.
@@ -30,18 +27,12 @@ public class CategoriaServiceImpl implements CategoriaService {
     @Autowired
     private CategoriaRepository categoriaRepository;
     
-    @Autowired
-    private ModelMapper modelMapper;
-    
     @Override
     @Transactional(readOnly = true)
     public List<CategoriaDTO> obtenerCategoriasActivas() {
         logger.debug("Obteniendo categorías activas");
         
-        return categoriaRepository.findByActivo(true)
-                .stream()
-                .map(this::convertirADTO)
-                .collect(Collectors.toList());
+        return categoriaRepository.findResumenByActivo(true);
     }
     
     @Override
@@ -49,11 +40,4 @@ public class CategoriaServiceImpl implements CategoriaService {
     public List<CategoriaDTO> buscarCategoriasActivas() {
         return obtenerCategoriasActivas();
     }
-    
-    private CategoriaDTO convertirADTO(Categoria categoria) {
-        CategoriaDTO dto = modelMapper.map(categoria, CategoriaDTO.class);
-        dto.setTotalProductos(categoria.getTotalProductos());
-        dto.setTotalServicios(categoria.getTotalServicios());
-        return dto;
-    }
 }
\ No newline at end of file
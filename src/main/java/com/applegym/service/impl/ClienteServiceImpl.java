@@ -1,15 +1,19 @@
 package com.applegym.service.impl;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,7 +25,11 @@ import com.applegym.exception.DuplicateResourceException;
 import com.applegym.exception.InvalidDataException;
 import com.applegym.exception.ResourceNotFoundException;
 import com.applegym.repository.ClienteRepository;
+import com.applegym.security.JwtPrincipalCache;
 import com.applegym.service.ClienteService;
+import com.google.common.base.Suppliers;
+
+import jakarta.annotation.PostConstruct;
 
 /**
  * Implementación del servicio de Cliente.
@@ -47,6 +55,23 @@ public class ClienteServiceImpl implements ClienteService {
     @Autowired
     private ModelMapper modelMapper;
     
+    @Autowired
+    private JwtPrincipalCache principalCache;
+    
+    @Value("${clientes.estadisticas.ttl-seconds:30}")
+    private long ttlEstadisticasSegundos;
+    
+    /** Última instantánea de estadísticas, recalculada como mucho una vez por TTL. */
+    private Supplier<Map<String, Object>> estadisticas = this::calcularEstadisticas;
+    
+    @PostConstruct
+    public void inicializar() {
+        if (ttlEstadisticasSegundos > 0) {
+            estadisticas = Suppliers.memoizeWithExpiration(
+                this::calcularEstadisticas, ttlEstadisticasSegundos, TimeUnit.SECONDS);
+        }
+    }
+    
     @Override
     public ClienteDTO registrarCliente(ClienteRegistroDTO clienteRegistroDTO) {
         // Validar datos primero (incluye validación de null)
@@ -109,6 +134,7 @@ public class ClienteServiceImpl implements ClienteService {
         logger.info("Actualizando cliente con ID: {}", id);
         
         Cliente cliente = obtenerClienteEntity(id);
+        String emailAnterior = cliente.getEmail();
         
         // Validar email único si cambió
         if (!cliente.getEmail().equals(clienteDTO.getEmail().toLowerCase().trim())) {
@@ -124,6 +150,7 @@ public class ClienteServiceImpl implements ClienteService {
         cliente.setDireccion(clienteDTO.getDireccion());
         
         Cliente clienteActualizado = clienteRepository.save(cliente);
+        principalCache.invalidarCliente(emailAnterior);
         
         logger.info("Cliente actualizado exitosamente: {}", clienteActualizado.getIdCliente());
         
@@ -137,6 +164,7 @@ public class ClienteServiceImpl implements ClienteService {
         Cliente cliente = obtenerClienteEntity(id);
         cliente.setActivo(false);
         clienteRepository.save(cliente);
+        principalCache.invalidarCliente(cliente.getEmail());
         
         logger.info("Cliente desactivado exitosamente: {}", id);
     }
@@ -192,6 +220,7 @@ public class ClienteServiceImpl implements ClienteService {
         // Actualizar contraseña
         cliente.setPassword(passwordEncoder.encode(nuevaPassword));
         clienteRepository.save(cliente);
+        principalCache.invalidarCliente(cliente.getEmail());
         
         logger.info("Contraseña cambiada exitosamente para cliente: {}", id);
     }
@@ -226,16 +255,21 @@ public class ClienteServiceImpl implements ClienteService {
     @Override
     @Transactional(readOnly = true)
     public Map<String, Object> obtenerEstadisticasClientes() {
-        logger.debug("Obteniendo estadísticas de clientes");
+        return estadisticas.get();
+    }
+    
+    private Map<String, Object> calcularEstadisticas() {
+        logger.debug("Calculando estadísticas de clientes");
         
-        Map<String, Object> estadisticas = new HashMap<>();
+        Object[] totales = clienteRepository.calcularEstadisticas().get(0);
         
-        estadisticas.put("totalClientes", clienteRepository.count());
-        estadisticas.put("clientesActivos", clienteRepository.countClientesActivos());
-        estadisticas.put("clientesConCarritos", clienteRepository.findClientesConCarritosActivos().size());
-        estadisticas.put("clientesConCompras", clienteRepository.findClientesConVentas().size());
+        Map<String, Object> resultado = new HashMap<>();
+        resultado.put("totalClientes", ((Number) totales[0]).longValue());
+        resultado.put("clientesActivos", ((Number) totales[1]).longValue());
+        resultado.put("clientesConCarritos", ((Number) totales[2]).longValue());
+        resultado.put("clientesConCompras", ((Number) totales[3]).longValue());
         
-        return estadisticas;
+        return Collections.unmodifiableMap(resultado);
     }
     
     // Métodos privados de validación
@@ -0,0 +1,234 @@
+package com.applegym.service.impl;
+
+import com.applegym.dto.ComprobanteArchivoDTO;
+import com.applegym.entity.Comprobante;
+import com.applegym.entity.Venta;
+import com.applegym.exception.ResourceNotFoundException;
+import com.applegym.repository.ComprobanteRepository;
+import com.applegym.repository.VentaRepository;
+import com.applegym.service.ComprobanteArchivoService;
+import com.applegym.service.NumeracionService;
+import com.applegym.service.PdfService;
+import com.google.common.io.BaseEncoding;
+import com.google.common.util.concurrent.Striped;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Implementación del almacén de PDFs de comprobantes.
+ *
+ * Cada PDF se genera una sola vez y se guarda como {@code ab/cd/<sha256>.pdf}
+ * bajo el directorio configurado; el hash queda en Comprobante.hashDocumento
+ * y sirve de ETag en las descargas.
+ *
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+@Service
+public class ComprobanteArchivoServiceImpl implements ComprobanteArchivoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ComprobanteArchivoServiceImpl.class);
+
+    private static final String URL_DESCARGA = "/api/ventas/comprobante/%d/pdf";
+
+    @Autowired
+    private ComprobanteRepository comprobanteRepository;
+
+    @Autowired
+    private VentaRepository ventaRepository;
+
+    @Autowired
+    private PdfService pdfService;
+
+    @Autowired
+    private NumeracionService numeracionService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${comprobantes.storage.dir:./uploads/comprobantes}")
+    private String directorio;
+
+    /** Evita que dos descargas simultáneas de la misma venta generen el PDF dos veces. */
+    private final Striped<Lock> bloqueos = Striped.lazyWeakLock(64);
+
+    private Path raiz;
+
+    private TransactionTemplate transaccion;
+
+    private TransactionTemplate transaccionLectura;
+
+    @PostConstruct
+    public void inicializar() throws IOException {
+        raiz = Paths.get(directorio).toAbsolutePath().normalize();
+        Files.createDirectories(raiz);
+        transaccion = new TransactionTemplate(transactionManager);
+        transaccionLectura = new TransactionTemplate(transactionManager);
+        transaccionLectura.setReadOnly(true);
+        logger.info("Almacén de comprobantes en {}", raiz);
+    }
+
+    @Override
+    public ComprobanteArchivoDTO obtenerArchivo(Long ventaId, String emailCliente) {
+        ComprobanteArchivoDTO archivo = transaccionLectura.execute(status -> {
+            Comprobante comprobante = comprobanteRepository.findByIdVentaConCliente(ventaId).orElse(null);
+            Venta venta = comprobante != null ? comprobante.getVenta()
+                : ventaRepository.findById(ventaId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Venta no encontrada"));
+
+            if (!venta.getCliente().getEmail().equals(emailCliente)) {
+                throw new AccessDeniedException("No tiene permisos para acceder a este comprobante");
+            }
+            return comprobante != null ? archivoExistente(comprobante) : null;
+        });
+
+        return archivo != null ? archivo : generarYGuardar(ventaId);
+    }
+
+    @Override
+    public ComprobanteArchivoDTO generarYGuardar(Long ventaId) {
+        Lock bloqueo = bloqueos.get(ventaId);
+        bloqueo.lock();
+        try {
+            return transaccion.execute(status -> {
+                Venta venta = ventaRepository.findCompletaById(ventaId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Venta no encontrada"));
+
+                Comprobante comprobante = venta.getComprobante();
+                if (comprobante == null) {
+                    comprobante = new Comprobante(venta, Comprobante.TipoComprobante.BOLETA);
+                    comprobante.setSerieComprobante("001");
+                    comprobante.setNumeroComprobante(numeracionService.siguienteNumeroComprobante(comprobante));
+                    venta.setComprobante(comprobante);
+                } else {
+                    // Otro hilo pudo generarlo mientras se esperaba el bloqueo
+                    ComprobanteArchivoDTO existente = archivoExistente(comprobante);
+                    if (existente != null) {
+                        marcarComoGenerado(comprobante);
+                        return existente;
+                    }
+                }
+
+                ComprobanteArchivoDTO archivo = renderizar(venta);
+                comprobante.setArchivoComprobante(raiz.relativize(archivo.getRuta()).toString());
+                comprobante.setHashDocumento(archivo.getHash());
+                comprobante.setUrlDescarga(String.format(URL_DESCARGA, ventaId));
+                marcarComoGenerado(comprobante);
+                comprobanteRepository.save(comprobante);
+
+                logger.info("Comprobante almacenado - Venta: {}, Hash: {}, Bytes: {}",
+                           ventaId, archivo.getHash(), archivo.getTamano());
+                return archivo;
+            });
+        } finally {
+            bloqueo.unlock();
+        }
+    }
+
+    private void marcarComoGenerado(Comprobante comprobante) {
+        String estado = comprobante.getEstadoComprobante();
+        if (Comprobante.EstadoComprobante.PENDIENTE.name().equals(estado) ||
+            Comprobante.EstadoComprobante.ERROR.name().equals(estado)) {
+            comprobante.setEstadoComprobante(Comprobante.EstadoComprobante.GENERADO.name());
+            comprobante.setObservaciones(null);
+        }
+    }
+
+    /**
+     * Devuelve el archivo ya almacenado del comprobante, o null si aún no se generó
+     * o el archivo ya no está en disco.
+     */
+    private ComprobanteArchivoDTO archivoExistente(Comprobante comprobante) {
+        if (comprobante.getHashDocumento() == null || comprobante.getArchivoComprobante() == null) {
+            return null;
+        }
+        Path ruta = raiz.resolve(comprobante.getArchivoComprobante()).normalize();
+        try {
+            if (!ruta.startsWith(raiz) || !Files.isRegularFile(ruta)) {
+                logger.warn("Archivo de comprobante no encontrado: {}", ruta);
+                return null;
+            }
+            return new ComprobanteArchivoDTO(ruta, comprobante.getHashDocumento(), Files.size(ruta),
+                                             nombreArchivo(comprobante.getVenta()));
+        } catch (IOException e) {
+            logger.warn("No se pudo leer el comprobante {}: {}", ruta, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Genera el PDF a un temporal calculando su SHA-256 al vuelo y lo mueve a su
+     * ruta definitiva; si ya existe un archivo con el mismo hash se reutiliza.
+     */
+    private ComprobanteArchivoDTO renderizar(Venta venta) {
+        Path temporal = null;
+        try {
+            temporal = Files.createTempFile(raiz, "comprobante-", ".tmp");
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (OutputStream salida = new DigestOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporal)), digest)) {
+                pdfService.generarComprobantePDF(venta, salida);
+            }
+
+            String hash = BaseEncoding.base16().lowerCase().encode(digest.digest());
+            Path destino = raiz.resolve(hash.substring(0, 2))
+                               .resolve(hash.substring(2, 4))
+                               .resolve(hash + ".pdf");
+            Files.createDirectories(destino.getParent());
+            if (Files.exists(destino)) {
+                Files.delete(temporal);
+            } else {
+                mover(temporal, destino);
+            }
+            return new ComprobanteArchivoDTO(destino, hash, Files.size(destino), nombreArchivo(venta));
+
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al almacenar el comprobante de la venta " + venta.getIdVenta(), e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        } finally {
+            if (temporal != null) {
+                try {
+                    Files.deleteIfExists(temporal);
+                } catch (IOException e) {
+                    logger.warn("No se pudo eliminar el temporal {}: {}", temporal, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void mover(Path origen, Path destino) throws IOException {
+        try {
+            Files.move(origen, destino, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(origen, destino, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private String nombreArchivo(Venta venta) {
+        return String.format("Comprobante_%s.pdf",
+            venta.getNumeroVenta() != null ? venta.getNumeroVenta() : "VT" + venta.getIdVenta());
+    }
+}
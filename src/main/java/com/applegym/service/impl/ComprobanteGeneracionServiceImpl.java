@@ -0,0 +1,248 @@
+package com.applegym.service.impl;
+
+import com.applegym.entity.Comprobante;
+import com.applegym.event.VentaCompletadaEvent;
+import com.applegym.repository.ComprobanteRepository;
+import com.applegym.service.ComprobanteArchivoService;
+import com.applegym.service.ComprobanteGeneracionService;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementación de la generación en segundo plano de comprobantes.
+ *
+ * Tras el commit de cada venta se encola la generación de su PDF en un pool
+ * de hilos con cola acotada. Si la cola está llena la venta no espera: su
+ * comprobante queda PENDIENTE y lo retoma el barrido periódico cuando hay
+ * capacidad (o la primera descarga, que lo genera bajo demanda). Los que
+ * fallaron quedan en ERROR y el barrido los reintenta tras una espera, hasta
+ * un máximo de reintentos por comprobante.
+ *
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+@Service
+public class ComprobanteGeneracionServiceImpl implements ComprobanteGeneracionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ComprobanteGeneracionServiceImpl.class);
+
+    private static final int LONGITUD_MAXIMA_OBSERVACION = 255;
+
+    @Autowired
+    private ComprobanteArchivoService comprobanteArchivoService;
+
+    @Autowired
+    private ComprobanteRepository comprobanteRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${comprobantes.pipeline.enabled:true}")
+    private boolean habilitado;
+
+    @Value("${comprobantes.pipeline.workers:2}")
+    private int hilos;
+
+    @Value("${comprobantes.pipeline.queue-capacity:500}")
+    private int capacidadCola;
+
+    @Value("${comprobantes.pipeline.retry-backoff-ms:300000}")
+    private long esperaReintentoMs;
+
+    @Value("${comprobantes.pipeline.max-reintentos:5}")
+    private int maximoReintentos;
+
+    /** Ventas encoladas o en generación, para no encolarlas dos veces. */
+    private final Set<Long> enCurso = ConcurrentHashMap.newKeySet();
+
+    /** Reintentos hechos de los comprobantes en ERROR (se reinician al arrancar). */
+    private final Map<Long, Integer> reintentos = new ConcurrentHashMap<>();
+
+    private final AtomicLong generados = new AtomicLong();
+
+    private final AtomicLong errores = new AtomicLong();
+
+    private final AtomicLong rechazados = new AtomicLong();
+
+    private final AtomicLong reintentados = new AtomicLong();
+
+    private ThreadPoolExecutor ejecutor;
+
+    private TransactionTemplate transaccion;
+
+    @PostConstruct
+    public void inicializar() {
+        transaccion = new TransactionTemplate(transactionManager);
+
+        AtomicInteger contador = new AtomicInteger();
+        ejecutor = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadCola),
+                runnable -> {
+                    Thread hilo = new Thread(runnable, "comprobante-pdf-" + contador.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        logger.info("Generación de comprobantes en segundo plano {} ({} hilos, cola de {})",
+                   habilitado ? "habilitada" : "deshabilitada", hilos, capacidadCola);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onVentaCompletada(VentaCompletadaEvent event) {
+        encolar(event.getIdVenta());
+    }
+
+    @Override
+    public boolean encolar(Long ventaId) {
+        if (!habilitado || !enCurso.add(ventaId)) {
+            return false;
+        }
+        try {
+            ejecutor.execute(() -> generar(ventaId));
+            return true;
+        } catch (RejectedExecutionException e) {
+            // Cola llena: el comprobante queda PENDIENTE para el próximo barrido
+            enCurso.remove(ventaId);
+            rechazados.incrementAndGet();
+            logger.debug("Cola de comprobantes llena, venta {} queda pendiente", ventaId);
+            return false;
+        }
+    }
+
+    /**
+     * Retoma los comprobantes pendientes (cola llena, reinicio de la aplicación)
+     * hasta ocupar la capacidad libre de la cola y, con la capacidad que quede,
+     * reintenta los que fallaron hace más de la espera configurada.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${comprobantes.pipeline.sweep-interval-ms:30000}",
+               initialDelayString = "${comprobantes.pipeline.sweep-interval-ms:30000}")
+    public int encolarPendientes() {
+        int libres = ejecutor.getQueue().remainingCapacity();
+        if (!habilitado || libres == 0) {
+            return 0;
+        }
+
+        List<Long> pendientes = transaccion.execute(status -> comprobanteRepository.findIdVentaByEstadoComprobante(
+                Comprobante.EstadoComprobante.PENDIENTE.name(), PageRequest.of(0, libres + enCurso.size())));
+
+        int encolados = 0;
+        for (Long ventaId : pendientes) {
+            if (encolar(ventaId)) {
+                encolados++;
+            }
+        }
+        if (encolados > 0) {
+            logger.info("Comprobantes pendientes encolados: {}", encolados);
+        }
+        return encolados + reintentarErrores();
+    }
+
+    /**
+     * Vuelve a encolar los comprobantes en ERROR cuyo último fallo es anterior
+     * a la espera de reintento. Los que agotaron los reintentos se dejan para
+     * la generación bajo demanda en la descarga.
+     */
+    private int reintentarErrores() {
+        int libres = ejecutor.getQueue().remainingCapacity();
+        if (libres == 0) {
+            return 0;
+        }
+        long agotados = reintentos.values().stream().filter(n -> n >= maximoReintentos).count();
+        LocalDateTime fechaLimite = LocalDateTime.now().minus(esperaReintentoMs, ChronoUnit.MILLIS);
+        List<Long> fallidos = transaccion.execute(status -> comprobanteRepository.findIdVentaByEstadoComprobanteAntesDe(
+                Comprobante.EstadoComprobante.ERROR.name(), fechaLimite,
+                PageRequest.of(0, (int) Math.min(Integer.MAX_VALUE, libres + enCurso.size() + agotados))));
+
+        int encolados = 0;
+        for (Long ventaId : fallidos) {
+            if (reintentos.getOrDefault(ventaId, 0) < maximoReintentos && encolar(ventaId)) {
+                reintentos.merge(ventaId, 1, Integer::sum);
+                encolados++;
+            }
+        }
+        if (encolados > 0) {
+            reintentados.addAndGet(encolados);
+            logger.info("Comprobantes con error reencolados: {}", encolados);
+        }
+        return encolados;
+    }
+
+    @Override
+    public Map<String, Object> obtenerEstado() {
+        Map<String, Object> estado = new HashMap<>();
+        estado.put("habilitado", habilitado);
+        estado.put("hilos", hilos);
+        estado.put("enCola", ejecutor.getQueue().size());
+        estado.put("capacidadLibre", ejecutor.getQueue().remainingCapacity());
+        estado.put("generados", generados.get());
+        estado.put("errores", errores.get());
+        estado.put("rechazados", rechazados.get());
+        estado.put("reintentados", reintentados.get());
+        return estado;
+    }
+
+    @PreDestroy
+    public void detener() throws InterruptedException {
+        // Lo que quede en cola sigue PENDIENTE y se retoma al arrancar
+        ejecutor.shutdownNow();
+        ejecutor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private void generar(Long ventaId) {
+        try {
+            comprobanteArchivoService.generarYGuardar(ventaId);
+            generados.incrementAndGet();
+            reintentos.remove(ventaId);
+        } catch (Exception e) {
+            errores.incrementAndGet();
+            logger.error("Error generando el comprobante de la venta {}: {}", ventaId, e.getMessage());
+            marcarComoError(ventaId, e.getMessage());
+            if (reintentos.getOrDefault(ventaId, 0) >= maximoReintentos) {
+                logger.warn("Comprobante de la venta {} sin más reintentos, se generará al descargarlo", ventaId);
+            }
+        } finally {
+            enCurso.remove(ventaId);
+        }
+    }
+
+    private void marcarComoError(Long ventaId, String mensaje) {
+        String observacion = mensaje != null && mensaje.length() > LONGITUD_MAXIMA_OBSERVACION
+            ? mensaje.substring(0, LONGITUD_MAXIMA_OBSERVACION) : mensaje;
+        try {
+            Integer marcados = transaccion.execute(status -> comprobanteRepository.marcarError(ventaId, observacion));
+            if (marcados == null || marcados == 0) {
+                logger.debug("Comprobante de la venta {} ya generado, no se marca con error", ventaId);
+            }
+        } catch (Exception e) {
+            logger.error("No se pudo marcar con error el comprobante de la venta {}: {}", ventaId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.applegym.service.impl;
+
+import com.applegym.entity.Comprobante;
+import com.applegym.entity.SecuenciaNumeracion;
+import com.applegym.repository.SecuenciaNumeracionRepository;
+import com.applegym.service.NumeracionService;
+import com.applegym.util.AsignadorBloques;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Implementación de la numeración de ventas y comprobantes.
+ *
+ * Usa un {@link AsignadorBloques} sobre la tabla secuencia_numeracion: cada
+ * bloque se reserva en una transacción propia y corta, de modo que la fila de
+ * la serie no queda bloqueada mientras dura la venta. Los números de una venta
+ * que revierte se pierden (la numeración admite huecos).
+ *
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+@Service
+public class NumeracionServiceImpl implements NumeracionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NumeracionServiceImpl.class);
+
+    private static final String SERIE_VENTA = "VT";
+
+    private static final int MAXIMO_INTENTOS = 3;
+
+    @Autowired
+    private SecuenciaNumeracionRepository secuenciaNumeracionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${numeracion.tamano-bloque:100}")
+    private int tamanoBloque;
+
+    private TransactionTemplate transaccion;
+
+    private AsignadorBloques asignador;
+
+    @PostConstruct
+    public void inicializar() {
+        transaccion = new TransactionTemplate(transactionManager);
+        transaccion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        asignador = new AsignadorBloques(this::reservarBloque, tamanoBloque);
+    }
+
+    @Override
+    public String siguienteNumeroVenta() {
+        return String.format("%s-%010d", SERIE_VENTA, asignador.siguiente(SERIE_VENTA));
+    }
+
+    @Override
+    public String siguienteNumeroComprobante(Comprobante comprobante) {
+        String serie = comprobante.getPrefijoSerie();
+        return String.format("%s-%08d", serie, asignador.siguiente(serie));
+    }
+
+    /**
+     * Reserva {@code tamano} valores de la serie y devuelve el primero.
+     * La primera reserva de una serie crea su fila empezando en 1.
+     */
+    private long reservarBloque(String serie, int tamano) {
+        for (int intento = 1; ; intento++) {
+            try {
+                long inicio = transaccion.execute(status -> {
+                    if (secuenciaNumeracionRepository.avanzar(serie, tamano) == 0) {
+                        secuenciaNumeracionRepository.saveAndFlush(new SecuenciaNumeracion(serie, 1L + tamano));
+                        return 1L;
+                    }
+                    return secuenciaNumeracionRepository.findSiguienteValor(serie)
+                        .orElseThrow(() -> new IllegalStateException("Serie no encontrada: " + serie)) - tamano;
+                });
+                logger.debug("Bloque de numeración reservado - Serie: {}, Desde: {}, Tamaño: {}", serie, inicio, tamano);
+                return inicio;
+            } catch (DataIntegrityViolationException e) {
+                // Otra instancia creó la serie al mismo tiempo: se vuelve a avanzar
+                if (intento >= MAXIMO_INTENTOS) {
+                    throw e;
+                }
+            }
+        }
+    }
+}
@@ -1,11 +1,25 @@
 package com.applegym.service.impl;
 
+import com.applegym.dto.ResumenReporteDTO;
+import com.applegym.dto.VentaDetalleReporteDTO;
+import com.applegym.dto.VentasPorFechaDTO;
 import com.applegym.entity.*;
 import com.applegym.service.PdfService;
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.FontProgramFactory;
+import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.colors.Color;
 import com.itextpdf.kernel.colors.ColorConstants;
 import com.itextpdf.kernel.colors.DeviceRgb;
+import com.itextpdf.kernel.events.PdfDocumentEvent;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.PageSize;
 import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfPage;
 import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
 import com.itextpdf.layout.Document;
 import com.itextpdf.layout.element.Cell;
 import com.itextpdf.layout.element.Paragraph;
@@ -13,17 +27,30 @@ import com.itextpdf.layout.element.Table;
 import com.itextpdf.layout.properties.TextAlignment;
 import com.itextpdf.layout.properties.UnitValue;
 
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Implementación del servicio de generación de PDFs.
  * 
+ * Los programas de fuente y la parte fija del comprobante (encabezado y pie)
+ * se preparan una sola vez al iniciar. Cada comprobante solo dibuja esa
+ * plantilla con operaciones de canvas ya posicionadas (el encabezado en cada
+ * página, el pie una vez al pie de la última) y maqueta los datos de la venta,
+ * escribiendo directamente sobre el stream de salida.
+ * 
  * @author AppleGym Team
  * @version 1.0.0
  */
@@ -33,19 +60,77 @@ public class PdfServiceImpl implements PdfService {
     private static final Logger logger = LoggerFactory.getLogger(PdfServiceImpl.class);
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
     private static final DeviceRgb COLOR_PRIMARY = new DeviceRgb(66, 148, 76); // #42944C
+    private static final DateTimeFormatter FECHA_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    
+    // Filas de la tabla de detalle que se acumulan antes de volcarlas al documento
+    private static final int FILAS_POR_BLOQUE = 200;
+    
+    // Márgenes del comprobante: reservan el espacio del encabezado (en cada página)
+    // y del pie (solo en la última) de la plantilla
+    private static final float MARGEN_SUPERIOR_COMPROBANTE = 100;
+    private static final float MARGEN_INFERIOR_COMPROBANTE = 90;
+    private static final float MARGEN_LATERAL_COMPROBANTE = 36;
+    
+    private FontProgram programaNormal;
+    
+    private FontProgram programaNegrita;
+    
+    private List<TextoPlantilla> encabezadoComprobante;
+    
+    private List<TextoPlantilla> pieComprobante;
+    
+    /**
+     * Carga los programas de fuente y precalcula la posición de cada texto
+     * fijo del comprobante (centrado en A4).
+     */
+    @PostConstruct
+    public void inicializar() throws IOException {
+        programaNormal = FontProgramFactory.createFont(StandardFonts.HELVETICA);
+        programaNegrita = FontProgramFactory.createFont(StandardFonts.HELVETICA_BOLD);
+        
+        PdfFont normal = crearFuente(programaNormal);
+        PdfFont negrita = crearFuente(programaNegrita);
+        float ancho = PageSize.A4.getWidth();
+        
+        encabezadoComprobante = List.of(
+            new TextoPlantilla("APPLEGYM", true, 24, COLOR_PRIMARY, 782, negrita, ancho),
+            new TextoPlantilla("Comprobante de Venta", false, 16, ColorConstants.BLACK, 755, normal, ancho));
+        pieComprobante = List.of(
+            new TextoPlantilla("¡Gracias por su compra!", true, 12, ColorConstants.BLACK, 70, negrita, ancho),
+            new TextoPlantilla("AppleGym - Tu gimnasio digital de confianza", false, 10,
+                               ColorConstants.GRAY, 55, normal, ancho),
+            new TextoPlantilla("info@applegym.com | www.applegym.com", false, 9,
+                               ColorConstants.GRAY, 43, normal, ancho));
+    }
     
     @Override
     public ByteArrayOutputStream generarComprobantePDF(Venta venta) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        generarComprobantePDF(venta, baos);
+        return baos;
+    }
+    
+    @Override
+    public void generarComprobantePDF(Venta venta, OutputStream salida) {
         logger.info("Generando PDF para venta ID: {}", venta.getIdVenta());
         
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfWriter writer = new PdfWriter(salida);
+        // El stream pertenece al llamador (p. ej. la respuesta HTTP)
+        writer.setCloseStream(false);
         
         try {
-            PdfWriter writer = new PdfWriter(baos);
             PdfDocument pdfDoc = new PdfDocument(writer);
-            Document document = new Document(pdfDoc);
+            PdfFont normal = crearFuente(programaNormal);
+            PdfFont negrita = crearFuente(programaNegrita);
+            pdfDoc.addEventHandler(PdfDocumentEvent.START_PAGE, evento ->
+                dibujarPlantilla(((PdfDocumentEvent) evento).getPage(), encabezadoComprobante, normal, negrita));
             
-            // Encabezado
+            Document document = new Document(pdfDoc, PageSize.A4);
+            document.setFont(normal);
+            document.setMargins(MARGEN_SUPERIOR_COMPROBANTE, MARGEN_LATERAL_COMPROBANTE,
+                                MARGEN_INFERIOR_COMPROBANTE, MARGEN_LATERAL_COMPROBANTE);
+            
+            // Encabezado (número de comprobante; el resto viene de la plantilla)
             agregarEncabezado(document, venta);
             
             // Información del cliente
@@ -65,8 +150,8 @@ public class PdfServiceImpl implements PdfService {
                 agregarInformacionPago(document, venta.getPago());
             }
             
-            // Pie de página
-            agregarPiePagina(document, venta);
+            // Pie de página: una sola vez, al final del comprobante
+            dibujarPlantilla(pdfDoc.getLastPage(), pieComprobante, normal, negrita);
             
             document.close();
             logger.info("PDF generado exitosamente para venta ID: {}", venta.getIdVenta());
@@ -75,25 +160,169 @@ public class PdfServiceImpl implements PdfService {
             logger.error("Error generando PDF para venta ID: {}", venta.getIdVenta(), e);
             throw new RuntimeException("Error al generar el PDF: " + e.getMessage(), e);
         }
+    }
+    
+    @Override
+    public int generarReporteVentasPDF(LocalDate fechaInicio, LocalDate fechaFin, ResumenReporteDTO resumen,
+                                       List<VentasPorFechaDTO> ventasPorFecha, Stream<VentaDetalleReporteDTO> lineas,
+                                       OutputStream salida) {
+        long inicio = System.nanoTime();
+        long filas = 0;
+        int paginas;
         
-        return baos;
+        PdfWriter writer = new PdfWriter(salida);
+        // El stream pertenece al llamador (p. ej. la respuesta HTTP)
+        writer.setCloseStream(false);
+        
+        try (Document document = new Document(new PdfDocument(writer), PageSize.A4.rotate())) {
+            agregarEncabezadoReporte(document, fechaInicio, fechaFin);
+            agregarResumenReporte(document, resumen);
+            agregarVentasPorFechaReporte(document, ventasPorFecha);
+            
+            document.add(new Paragraph("VENTAS DETALLADAS")
+                .setFontSize(12)
+                .setBold()
+                .setMarginTop(15)
+                .setMarginBottom(5));
+            
+            // Tabla grande: se agrega al documento antes de llenarla y se vuelca por bloques,
+            // de modo que solo las filas del bloque actual quedan en memoria
+            Table table = new Table(UnitValue.createPercentArray(new float[]{2, 2, 3, 1, 4, 1, 1.5f, 1.5f}), true);
+            table.setWidth(UnitValue.createPercentValue(100));
+            agregarCeldaEncabezado(table, "Venta");
+            agregarCeldaEncabezado(table, "Fecha");
+            agregarCeldaEncabezado(table, "Cliente");
+            agregarCeldaEncabezado(table, "Tipo");
+            agregarCeldaEncabezado(table, "Item");
+            agregarCeldaEncabezado(table, "Cant.");
+            agregarCeldaEncabezado(table, "Precio Unit.");
+            agregarCeldaEncabezado(table, "Subtotal");
+            document.add(table);
+            
+            Iterator<VentaDetalleReporteDTO> iterador = lineas.iterator();
+            while (iterador.hasNext()) {
+                VentaDetalleReporteDTO linea = iterador.next();
+                table.addCell(celdaReporte(linea.getNumeroVenta() != null 
+                    ? linea.getNumeroVenta() : String.valueOf(linea.getIdVenta()), TextAlignment.LEFT));
+                table.addCell(celdaReporte(linea.getFechaVenta().format(DATE_FORMATTER), TextAlignment.LEFT));
+                table.addCell(celdaReporte(linea.getNombreCliente(), TextAlignment.LEFT));
+                table.addCell(celdaReporte(linea.getTipo(), TextAlignment.LEFT));
+                table.addCell(celdaReporte(linea.getNombreItem(), TextAlignment.LEFT));
+                table.addCell(celdaReporte(String.valueOf(linea.getCantidad()), TextAlignment.CENTER));
+                table.addCell(celdaReporte("$" + linea.getPrecioUnitario(), TextAlignment.RIGHT));
+                table.addCell(celdaReporte("$" + linea.getSubtotal(), TextAlignment.RIGHT));
+                
+                if (++filas % FILAS_POR_BLOQUE == 0) {
+                    table.flush();
+                }
+            }
+            
+            if (filas == 0) {
+                table.addCell(new Cell(1, 8).add(new Paragraph("Sin ventas en el período"))
+                    .setTextAlignment(TextAlignment.CENTER));
+            }
+            table.complete();
+            
+            paginas = document.getPdfDocument().getNumberOfPages();
+            
+        } catch (Exception e) {
+            logger.error("Error generando reporte PDF: {}", e.getMessage(), e);
+            throw new RuntimeException("Error al generar el reporte PDF: " + e.getMessage(), e);
+        }
+        
+        double segundos = Math.max((System.nanoTime() - inicio) / 1_000_000_000.0, 0.001);
+        logger.info("Reporte PDF generado - Líneas: {}, Páginas: {}, Tiempo: {} ms, Rendimiento: {} páginas/s",
+                   filas, paginas, Math.round(segundos * 1000), String.format("%.1f", paginas / segundos));
+        
+        return paginas;
     }
     
-    private void agregarEncabezado(Document document, Venta venta) {
-        // Título principal
-        Paragraph titulo = new Paragraph("APPLEGYM")
+    private void agregarEncabezadoReporte(Document document, LocalDate fechaInicio, LocalDate fechaFin) {
+        document.add(new Paragraph("APPLEGYM")
             .setFontSize(24)
             .setBold()
             .setFontColor(COLOR_PRIMARY)
-            .setTextAlignment(TextAlignment.CENTER);
-        document.add(titulo);
+            .setTextAlignment(TextAlignment.CENTER));
         
-        Paragraph subtitulo = new Paragraph("Comprobante de Venta")
+        document.add(new Paragraph("Reporte de Ventas")
             .setFontSize(16)
             .setTextAlignment(TextAlignment.CENTER)
-            .setMarginBottom(5);
-        document.add(subtitulo);
+            .setMarginBottom(5));
         
+        document.add(new Paragraph("Período: " + fechaInicio.format(FECHA_FORMATTER) 
+                + " - " + fechaFin.format(FECHA_FORMATTER))
+            .setFontSize(12)
+            .setTextAlignment(TextAlignment.CENTER)
+            .setMarginBottom(20));
+    }
+    
+    private void agregarResumenReporte(Document document, ResumenReporteDTO resumen) {
+        document.add(new Paragraph("RESUMEN GENERAL")
+            .setFontSize(12)
+            .setBold()
+            .setMarginBottom(5));
+        
+        Table table = new Table(2);
+        table.setWidth(UnitValue.createPercentValue(60));
+        
+        agregarFilaInfo(table, "Ventas Totales:", "$" + resumen.getVentasTotales());
+        agregarFilaInfo(table, "Cantidad de Ventas:", String.valueOf(resumen.getTotalVentas()));
+        agregarFilaInfo(table, "Ventas Hoy:", "$" + resumen.getVentasHoy());
+        agregarFilaInfo(table, "Ventas Última Semana:", "$" + resumen.getVentasSemana());
+        agregarFilaInfo(table, "Ventas Último Mes:", "$" + resumen.getVentasMes());
+        
+        document.add(table);
+    }
+    
+    private void agregarVentasPorFechaReporte(Document document, List<VentasPorFechaDTO> ventasPorFecha) {
+        document.add(new Paragraph("VENTAS POR FECHA")
+            .setFontSize(12)
+            .setBold()
+            .setMarginTop(15)
+            .setMarginBottom(5));
+        
+        Table table = new Table(new float[]{2, 2, 2});
+        table.setWidth(UnitValue.createPercentValue(60));
+        agregarCeldaEncabezado(table, "Fecha");
+        agregarCeldaEncabezado(table, "Cantidad de Ventas");
+        agregarCeldaEncabezado(table, "Total Ventas");
+        
+        for (VentasPorFechaDTO dia : ventasPorFecha) {
+            table.addCell(celdaReporte(dia.getFecha().format(FECHA_FORMATTER), TextAlignment.LEFT));
+            table.addCell(celdaReporte(String.valueOf(dia.getCantidadVentas()), TextAlignment.CENTER));
+            table.addCell(celdaReporte("$" + dia.getTotalVentas(), TextAlignment.RIGHT));
+        }
+        
+        document.add(table);
+    }
+    
+    private Cell celdaReporte(String texto, TextAlignment alineacion) {
+        return new Cell().add(new Paragraph(texto != null ? texto : "").setFontSize(8))
+            .setTextAlignment(alineacion);
+    }
+    
+    /**
+     * Dibuja textos fijos del comprobante en la página, en el margen reservado
+     * para ellos (el contenido nunca los solapa).
+     */
+    private void dibujarPlantilla(PdfPage page, List<TextoPlantilla> textos, PdfFont normal, PdfFont negrita) {
+        PdfCanvas canvas = new PdfCanvas(page.newContentStreamBefore(), page.getResources(), page.getDocument());
+        for (TextoPlantilla texto : textos) {
+            canvas.beginText()
+                .setFontAndSize(texto.negrita ? negrita : normal, texto.tamano)
+                .setFillColor(texto.color)
+                .moveText(texto.x, texto.y)
+                .showText(texto.texto)
+                .endText();
+        }
+        canvas.release();
+    }
+    
+    private PdfFont crearFuente(FontProgram programa) {
+        return PdfFontFactory.createFont(programa, PdfEncodings.WINANSI);
+    }
+    
+    private void agregarEncabezado(Document document, Venta venta) {
         // Número de comprobante
         String numeroComprobante = venta.getComprobante() != null ? 
             venta.getComprobante().getNumeroComprobante() : 
@@ -234,29 +463,6 @@ public class PdfServiceImpl implements PdfService {
         document.add(table);
     }
     
-    private void agregarPiePagina(Document document, Venta venta) {
-        document.add(new Paragraph("\n"));
-        
-        Paragraph agradecimiento = new Paragraph("¡Gracias por su compra!")
-            .setFontSize(12)
-            .setBold()
-            .setTextAlignment(TextAlignment.CENTER)
-            .setMarginTop(20);
-        document.add(agradecimiento);
-        
-        Paragraph info = new Paragraph("AppleGym - Tu gimnasio digital de confianza")
-            .setFontSize(10)
-            .setTextAlignment(TextAlignment.CENTER)
-            .setFontColor(ColorConstants.GRAY);
-        document.add(info);
-        
-        Paragraph contacto = new Paragraph("info@applegym.com | www.applegym.com")
-            .setFontSize(9)
-            .setTextAlignment(TextAlignment.CENTER)
-            .setFontColor(ColorConstants.GRAY);
-        document.add(contacto);
-    }
-    
     private void agregarFilaInfo(Table table, String label, String value) {
         table.addCell(new Cell().add(new Paragraph(label).setBold())
             .setBorder(null));
@@ -285,4 +491,26 @@ public class PdfServiceImpl implements PdfService {
             default -> tipoPago;
         };
     }
+    
+    /**
+     * Texto fijo de la plantilla con su posición ya calculada.
+     */
+    private static final class TextoPlantilla {
+        private final String texto;
+        private final boolean negrita;
+        private final float tamano;
+        private final Color color;
+        private final float x;
+        private final float y;
+        
+        private TextoPlantilla(String texto, boolean negrita, float tamano, Color color, float y,
+                               PdfFont fuente, float anchoPagina) {
+            this.texto = texto;
+            this.negrita = negrita;
+            this.tamano = tamano;
+            this.color = color;
+            this.x = (anchoPagina - fuente.getWidth(texto, tamano)) / 2;
+            this.y = y;
+        }
+    }
 }
@@ -2,15 +2,16 @@ package com.applegym.service.impl;
 
 import com.applegym.dto.ProductoDTO;
 import com.applegym.entity.Producto;
+import com.applegym.mapper.ProductoMapper;
 import com.applegym.repository.ProductoRepository;
 import com.applegym.service.ProductoService;
 
-import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -35,9 +36,6 @@ public class ProductoServiceImpl implements ProductoService {
     @Autowired
     private ProductoRepository productoRepository;
     
-    @Autowired
-    private ModelMapper modelMapper;
-    
     @Override
     @Transactional(readOnly = true)
     public Optional<ProductoDTO> buscarProductoPorId(Long id) {
@@ -45,7 +43,7 @@ public class ProductoServiceImpl implements ProductoService {
         
         return productoRepository.findById(id)
                 .filter(producto -> producto.getActivo())
-                .map(this::convertirADTO);
+                .map(ProductoMapper::convertirADTO);
     }
     
     @Override
@@ -58,12 +56,12 @@ public class ProductoServiceImpl implements ProductoService {
         try {
             return productoRepository.findProductosPorCriterios(
                     nombre, idCategoria, precioMin, precioMax, true, pageable)
-                    .map(this::convertirADTO);
+                    .map(ProductoMapper::convertirADTO);
         } catch (Exception e) {
             // Fallback a búsqueda básica
             List<Producto> productos = productoRepository.findProductosDisponibles();
             List<ProductoDTO> productosDTO = productos.stream()
-                    .map(this::convertirADTO)
+                    .map(ProductoMapper::convertirADTO)
                     .collect(Collectors.toList());
             return new PageImpl<>(productosDTO, pageable, productosDTO.size());
         }
@@ -74,12 +72,8 @@ public class ProductoServiceImpl implements ProductoService {
     public Page<ProductoDTO> buscarProductosPorNombre(String nombre, Pageable pageable) {
         logger.debug("Buscando productos por nombre: {}", nombre);
         
-        List<ProductoDTO> productos = productoRepository.findByNombreContainingIgnoreCase(nombre)
-                .stream()
-                .map(this::convertirADTO)
-                .collect(Collectors.toList());
-        
-        return new PageImpl<>(productos, pageable, productos.size());
+        return productoRepository.findByNombreContainingIgnoreCase(nombre, pageable)
+                .map(ProductoMapper::convertirADTO);
     }
     
     @Override
@@ -87,21 +81,26 @@ public class ProductoServiceImpl implements ProductoService {
     public Page<ProductoDTO> buscarProductosPorCategoria(Long idCategoria, Pageable pageable) {
         logger.debug("Buscando productos por categoría: {}", idCategoria);
         
-        List<ProductoDTO> productos = productoRepository.findByCategoriaIdAndActivo(idCategoria, true)
+        return productoRepository.findByCategoriaIdAndActivo(idCategoria, true, pageable)
+                .map(ProductoMapper::convertirADTO);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductoDTO> buscarProductosRelacionados(Long idProducto, Long idCategoria, int limite) {
+        logger.debug("Buscando {} productos relacionados con: {}", limite, idProducto);
+        
+        return productoRepository.findRelacionados(idCategoria, idProducto, PageRequest.of(0, limite))
                 .stream()
-                .map(this::convertirADTO)
+                .map(ProductoMapper::convertirADTO)
                 .collect(Collectors.toList());
-        
-        return new PageImpl<>(productos, pageable, productos.size());
     }
     
-    private ProductoDTO convertirADTO(Producto producto) {
-        ProductoDTO dto = modelMapper.map(producto, ProductoDTO.class);
-        if (producto.getCategoria() != null) {
-            dto.setIdCategoria(producto.getCategoria().getIdCategoria());
-            dto.setNombreCategoria(producto.getCategoria().getNombreCategoria());
-        }
-        dto.setDisponible(producto.isDisponible());
-        return dto;
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductoDTO> obtenerProductosActivos() {
+        logger.debug("Obteniendo productos activos");
+        
+        return productoRepository.findResumenActivos();
     }
 }
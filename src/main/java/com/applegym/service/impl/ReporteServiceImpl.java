@@ -2,27 +2,36 @@ package com.applegym.service.impl;
 
 import com.applegym.dto.ResumenReporteDTO;
 import com.applegym.dto.TopItemDTO;
+import com.applegym.dto.VentaDetalleReporteDTO;
 import com.applegym.dto.VentasPorFechaDTO;
+import com.applegym.entity.VentaResumenItem;
 import com.applegym.repository.*;
+import com.applegym.service.PdfService;
 import com.applegym.service.ReporteService;
 
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Implementación del servicio de reportes.
+ * 
+ * Los importes y rankings se leen de los acumulados por hora y por item
+ * (ver ResumenVentasServiceImpl), por lo que su costo depende de los días
+ * consultados y no del tamaño del histórico de ventas.
  */
 @Service
 @Transactional(readOnly = true)
@@ -30,6 +39,12 @@ public class ReporteServiceImpl implements ReporteService {
     
     private static final Logger logger = LoggerFactory.getLogger(ReporteServiceImpl.class);
     
+    // Filas de cada hoja que se mantienen en memoria; el resto se vuelca a disco
+    private static final int VENTANA_FILAS_EXCEL = 200;
+    
+    // Límite de filas de una hoja .xlsx (1.048.576 incluyendo el encabezado)
+    private static final int MAX_FILAS_HOJA = 1_048_575;
+    
     @Autowired
     private VentaRepository ventaRepository;
     
@@ -42,19 +57,30 @@ public class ReporteServiceImpl implements ReporteService {
     @Autowired
     private ServicioRepository servicioRepository;
     
+    @Autowired
+    private VentaResumenHoraRepository ventaResumenHoraRepository;
+    
+    @Autowired
+    private VentaResumenItemRepository ventaResumenItemRepository;
+    
+    @Autowired
+    private PdfService pdfService;
+    
     @Override
     public ResumenReporteDTO obtenerResumenGeneral() {
         logger.debug("Generando resumen general de reportes");
         
         ResumenReporteDTO resumen = new ResumenReporteDTO();
         
-        // Total de ventas (monto)
-        BigDecimal ventasTotales = ventaRepository.calcularVentasTotales();
-        resumen.setVentasTotales(ventasTotales != null ? ventasTotales : BigDecimal.ZERO);
-        
-        // Cantidad de ventas
-        Long totalVentas = ventaRepository.count();
-        resumen.setTotalVentas(totalVentas);
+        // Importes y cantidad de ventas desde el acumulado por hora (una sola lectura)
+        LocalDate hoy = LocalDate.now();
+        Object[] totales = ventaResumenHoraRepository.calcularTotales(
+            hoy, hoy.minusDays(7), hoy.minusDays(30)).get(0);
+        resumen.setVentasTotales(aBigDecimal(totales[0]));
+        resumen.setTotalVentas(((Number) totales[1]).longValue());
+        resumen.setVentasHoy(aBigDecimal(totales[2]));
+        resumen.setVentasSemana(aBigDecimal(totales[3]));
+        resumen.setVentasMes(aBigDecimal(totales[4]));
         
         // Total de clientes activos
         Long totalClientes = clienteRepository.countByActivo(true);
@@ -68,22 +94,6 @@ public class ReporteServiceImpl implements ReporteService {
         Long totalServicios = servicioRepository.countByActivo(true);
         resumen.setTotalServicios(totalServicios);
         
-        // Ventas de hoy
-        LocalDateTime inicioHoy = LocalDate.now().atStartOfDay();
-        LocalDateTime finHoy = LocalDate.now().plusDays(1).atStartOfDay();
-        BigDecimal ventasHoy = ventaRepository.calcularVentasPorRangoFecha(inicioHoy, finHoy);
-        resumen.setVentasHoy(ventasHoy != null ? ventasHoy : BigDecimal.ZERO);
-        
-        // Ventas de la semana
-        LocalDateTime inicioSemana = LocalDate.now().minusDays(7).atStartOfDay();
-        BigDecimal ventasSemana = ventaRepository.calcularVentasPorRangoFecha(inicioSemana, LocalDateTime.now());
-        resumen.setVentasSemana(ventasSemana != null ? ventasSemana : BigDecimal.ZERO);
-        
-        // Ventas del mes
-        LocalDateTime inicioMes = LocalDate.now().minusDays(30).atStartOfDay();
-        BigDecimal ventasMes = ventaRepository.calcularVentasPorRangoFecha(inicioMes, LocalDateTime.now());
-        resumen.setVentasMes(ventasMes != null ? ventasMes : BigDecimal.ZERO);
-        
         // Fecha de última venta
         resumen.setFechaUltimaVenta(ventaRepository.findFechaUltimaVenta());
         
@@ -97,71 +107,45 @@ public class ReporteServiceImpl implements ReporteService {
     public List<TopItemDTO> obtenerProductosMasVendidos(int limit) {
         logger.debug("Obteniendo top {} productos más vendidos", limit);
         
-        List<Object[]> resultados = ventaRepository.findTopProductosMasVendidos(limit);
-        List<TopItemDTO> topProductos = new ArrayList<>();
-        
-        for (Object[] row : resultados) {
-            TopItemDTO dto = new TopItemDTO();
-            dto.setIdItem(((Number) row[0]).longValue());
-            dto.setNombre((String) row[1]);
-            dto.setTipo("PRODUCTO");
-            dto.setCantidadVendida(((Number) row[2]).longValue());
-            dto.setTotalVentas((BigDecimal) row[3]);
-            
-            topProductos.add(dto);
-        }
-        
-        return topProductos;
+        return obtenerRanking("PRODUCTO", limit);
     }
     
     @Override
     public List<TopItemDTO> obtenerServiciosMasSolicitados(int limit) {
         logger.debug("Obteniendo top {} servicios más solicitados", limit);
         
-        List<Object[]> resultados = ventaRepository.findTopServiciosMasSolicitados(limit);
-        List<TopItemDTO> topServicios = new ArrayList<>();
-        
-        for (Object[]row : resultados) {
-            TopItemDTO dto = new TopItemDTO();
-            dto.setIdItem(((Number) row[0]).longValue());
-            dto.setNombre((String) row[1]);
-            dto.setTipo("SERVICIO");
-            dto.setCantidadVendida(((Number) row[2]).longValue());
-            dto.setTotalVentas((BigDecimal) row[3]);
-            
-            topServicios.add(dto);
-        }
-        
-        return topServicios;
+        return obtenerRanking("SERVICIO", limit);
     }
     
     @Override
     public List<VentasPorFechaDTO> obtenerVentasPorFecha(LocalDate fechaInicio, LocalDate fechaFin) {
         logger.debug("Obteniendo ventas por fecha - Inicio: {}, Fin: {}", fechaInicio, fechaFin);
         
-        LocalDateTime inicio = fechaInicio.atStartOfDay();
-        LocalDateTime fin = fechaFin.plusDays(1).atStartOfDay();
-        
-        List<Object[]> resultados = ventaRepository.findVentasPorFecha(inicio, fin);
-        List<VentasPorFechaDTO> ventasPorFecha = new ArrayList<>();
-        
-        for (Object[] row : resultados) {
-            VentasPorFechaDTO dto = new VentasPorFechaDTO();
-            dto.setFecha(((java.sql.Date) row[0]).toLocalDate());
-            dto.setCantidadVentas(((Number) row[1]).longValue());
-            dto.setTotalVentas((BigDecimal) row[2]);
-            
-            ventasPorFecha.add(dto);
-        }
-        
-        return ventasPorFecha;
+        return ventaResumenHoraRepository.findVentasPorFecha(fechaInicio, fechaFin);
     }
     
     @Override
     public byte[] exportarReporteExcel(LocalDate fechaInicio, LocalDate fechaFin) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        exportarReporteExcel(fechaInicio, fechaFin, outputStream);
+        return outputStream.toByteArray();
+    }
+    
+    /**
+     * Exporta el reporte a Excel escribiendo directamente en el stream de salida.
+     * 
+     * Usa SXSSF con una ventana acotada de filas en memoria y lee las ventas
+     * detalladas con una consulta en streaming, de modo que la memoria usada
+     * no depende del rango de fechas.
+     */
+    @Override
+    public void exportarReporteExcel(LocalDate fechaInicio, LocalDate fechaFin, OutputStream salida) {
         logger.debug("Exportando reporte a Excel - Inicio: {}, Fin: {}", fechaInicio, fechaFin);
         
-        try (Workbook workbook = new XSSFWorkbook()) {
+        long inicio = System.currentTimeMillis();
+        SXSSFWorkbook workbook = new SXSSFWorkbook(VENTANA_FILAS_EXCEL);
+        workbook.setCompressTempFiles(true);
+        try {
             // Hoja 1: Resumen General
             Sheet resumenSheet = workbook.createSheet("Resumen General");
             crearHojaResumen(resumenSheet, workbook);
@@ -178,25 +162,71 @@ public class ReporteServiceImpl implements ReporteService {
             Sheet ventasSheet = workbook.createSheet("Ventas por Fecha");
             crearHojaVentasPorFecha(ventasSheet, workbook, fechaInicio, fechaFin);
             
-            // Convertir a bytes
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            workbook.write(outputStream);
+            // Hoja 5: Ventas Detalladas (una fila por línea vendida)
+            long filas = crearHojasVentasDetalladas(workbook, fechaInicio, fechaFin);
             
-            logger.info("Reporte Excel generado exitosamente");
-            return outputStream.toByteArray();
+            workbook.write(salida);
+            salida.flush();
+            
+            logger.info("Reporte Excel generado exitosamente - Líneas: {}, Tiempo: {} ms", 
+                       filas, System.currentTimeMillis() - inicio);
             
         } catch (Exception e) {
             logger.error("Error generando reporte Excel: {}", e.getMessage());
             throw new RuntimeException("Error generando reporte Excel", e);
+        } finally {
+            // Elimina los archivos temporales de las hojas
+            workbook.dispose();
         }
     }
     
     @Override
     public byte[] exportarReportePDF(LocalDate fechaInicio, LocalDate fechaFin) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        exportarReportePDF(fechaInicio, fechaFin, outputStream);
+        return outputStream.toByteArray();
+    }
+    
+    /**
+     * Exporta el reporte a PDF escribiendo directamente en el stream de salida.
+     * 
+     * Las líneas vendidas se leen con la misma consulta en streaming que el
+     * Excel y se pasan al generador sin acumularlas.
+     */
+    @Override
+    public void exportarReportePDF(LocalDate fechaInicio, LocalDate fechaFin, OutputStream salida) {
         logger.debug("Exportando reporte a PDF - Inicio: {}, Fin: {}", fechaInicio, fechaFin);
         
-        // TODO: Implementar exportación a PDF con iText
-        throw new UnsupportedOperationException("Exportación a PDF en desarrollo");
+        ResumenReporteDTO resumen = obtenerResumenGeneral();
+        List<VentasPorFechaDTO> ventasPorFecha = obtenerVentasPorFecha(fechaInicio, fechaFin);
+        
+        try (Stream<VentaDetalleReporteDTO> lineas = ventaRepository.streamVentasDetalladas(
+                fechaInicio.atStartOfDay(), fechaFin.plusDays(1).atStartOfDay())) {
+            pdfService.generarReporteVentasPDF(fechaInicio, fechaFin, resumen, ventasPorFecha, lineas, salida);
+        }
+    }
+    
+    /**
+     * Lee el ranking de un tipo de item desde el acumulado por item.
+     */
+    private List<TopItemDTO> obtenerRanking(String tipo, int limit) {
+        List<VentaResumenItem> resultados = ventaResumenItemRepository
+            .findByTipoOrderByCantidadDescTotalDesc(tipo, PageRequest.of(0, Math.max(limit, 1)));
+        List<TopItemDTO> ranking = new ArrayList<>();
+        
+        for (VentaResumenItem item : resultados) {
+            ranking.add(new TopItemDTO(item.getIdItem(), item.getNombre(), tipo,
+                                       item.getCantidad(), item.getTotal()));
+        }
+        
+        return ranking;
+    }
+    
+    private BigDecimal aBigDecimal(Object valor) {
+        if (valor == null) {
+            return BigDecimal.ZERO;
+        }
+        return valor instanceof BigDecimal ? (BigDecimal) valor : new BigDecimal(valor.toString());
     }
     
     // Métodos privados para crear hojas de Excel
@@ -264,9 +294,9 @@ public class ReporteServiceImpl implements ReporteService {
             }
         }
         
-        // Ajustar anchos
+        // Anchos fijos: autoSizeColumn recorre todas las filas y no aplica en streaming
         for (int i = 0; i < headers.length; i++) {
-            sheet.autoSizeColumn(i);
+            sheet.setColumnWidth(i, i == 1 ? 9000 : 5000);
         }
     }
     
@@ -301,9 +331,9 @@ public class ReporteServiceImpl implements ReporteService {
             }
         }
         
-        // Ajustar anchos
+        // Anchos fijos: autoSizeColumn recorre todas las filas y no aplica en streaming
         for (int i = 0; i < headers.length; i++) {
-            sheet.autoSizeColumn(i);
+            sheet.setColumnWidth(i, i == 1 ? 9000 : 5000);
         }
     }
     
@@ -336,10 +366,85 @@ public class ReporteServiceImpl implements ReporteService {
             }
         }
         
-        // Ajustar anchos
+        // Anchos fijos: autoSizeColumn recorre todas las filas y no aplica en streaming
         for (int i = 0; i < headers.length; i++) {
-            sheet.autoSizeColumn(i);
+            sheet.setColumnWidth(i, i == 1 ? 9000 : 5000);
+        }
+    }
+    
+    /**
+     * Escribe las líneas vendidas del rango a medida que se leen de la base de datos.
+     * Si se supera el máximo de filas de una hoja se continúa en otra.
+     * 
+     * @return Número de líneas escritas
+     */
+    private long crearHojasVentasDetalladas(Workbook workbook, LocalDate fechaInicio, LocalDate fechaFin) {
+        CellStyle headerStyle = createHeaderStyle(workbook);
+        CellStyle fechaStyle = workbook.createCellStyle();
+        fechaStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd hh:mm"));
+        CellStyle importeStyle = workbook.createCellStyle();
+        importeStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("#,##0.00"));
+        
+        String[] headers = {"Venta", "Fecha", "Cliente", "Email", "Tipo", "Item",
+                            "Cantidad", "Precio Unitario", "Subtotal"};
+        int[] anchos = {5000, 4500, 7000, 7500, 3500, 9000, 3000, 4000, 4000};
+        
+        long total = 0;
+        int hojas = 0;
+        Sheet sheet = null;
+        int rowNum = 0;
+        
+        try (Stream<VentaDetalleReporteDTO> lineas = ventaRepository.streamVentasDetalladas(
+                fechaInicio.atStartOfDay(), fechaFin.plusDays(1).atStartOfDay())) {
+            
+            for (VentaDetalleReporteDTO linea : (Iterable<VentaDetalleReporteDTO>) lineas::iterator) {
+                if (sheet == null || rowNum > MAX_FILAS_HOJA) {
+                    hojas++;
+                    sheet = workbook.createSheet(hojas == 1 ? "Ventas Detalladas" : "Ventas Detalladas " + hojas);
+                    crearEncabezados(sheet, headers, anchos, headerStyle);
+                    rowNum = 1;
+                }
+                
+                Row row = sheet.createRow(rowNum++);
+                row.createCell(0).setCellValue(linea.getNumeroVenta() != null 
+                    ? linea.getNumeroVenta() : String.valueOf(linea.getIdVenta()));
+                Cell fechaCell = row.createCell(1);
+                fechaCell.setCellValue(linea.getFechaVenta());
+                fechaCell.setCellStyle(fechaStyle);
+                row.createCell(2).setCellValue(linea.getNombreCliente());
+                row.createCell(3).setCellValue(linea.getEmailCliente());
+                row.createCell(4).setCellValue(linea.getTipo());
+                row.createCell(5).setCellValue(linea.getNombreItem());
+                row.createCell(6).setCellValue(linea.getCantidad());
+                crearCeldaImporte(row, 7, linea.getPrecioUnitario(), importeStyle);
+                crearCeldaImporte(row, 8, linea.getSubtotal(), importeStyle);
+                total++;
+            }
+        }
+        
+        if (sheet == null) {
+            crearEncabezados(workbook.createSheet("Ventas Detalladas"), headers, anchos, headerStyle);
+        }
+        return total;
+    }
+    
+    private void crearEncabezados(Sheet sheet, String[] headers, int[] anchos, CellStyle headerStyle) {
+        Row headerRow = sheet.createRow(0);
+        for (int i = 0; i < headers.length; i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(headers[i]);
+            cell.setCellStyle(headerStyle);
+            sheet.setColumnWidth(i, anchos[i]);
+        }
+        sheet.createFreezePane(0, 1);
+    }
+    
+    private void crearCeldaImporte(Row row, int columna, BigDecimal valor, CellStyle style) {
+        Cell cell = row.createCell(columna);
+        if (valor != null) {
+            cell.setCellValue(valor.doubleValue());
         }
+        cell.setCellStyle(style);
     }
     
     private void crearFilaDato(Sheet sheet, int rowNum, String label, String value, CellStyle style) {
@@ -0,0 +1,225 @@
+package com.applegym.service.impl;
+
+import com.applegym.event.VentaCompletadaEvent;
+import com.applegym.repository.VentaRepository;
+import com.applegym.repository.VentaResumenHoraRepository;
+import com.applegym.repository.VentaResumenItemRepository;
+import com.applegym.service.ResumenVentasService;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Implementación de los acumulados de ventas para reportes.
+ * 
+ * Cada venta completada se suma, tras su commit, a la fila de su fecha y hora
+ * y a la fila de cada item vendido mediante upserts atómicos. Si la
+ * actualización de una venta falla, se revierte completa y se reintenta
+ * periódicamente; tras varios fallos los acumulados se reconstruyen. Al
+ * arrancar, si están vacíos y ya existen ventas, se reconstruyen desde el
+ * histórico.
+ * 
+ * Cada venta se marca como acumulada en la misma transacción que la suma,
+ * y la reconstrucción solo cuenta ventas marcadas: una venta que confirma
+ * durante la reconstrucción se suma una sola vez. Además, la reconstrucción
+ * toma un bloqueo exclusivo que las sumas incrementales comparten entre sí.
+ * 
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+@Service
+@Transactional
+public class ResumenVentasServiceImpl implements ResumenVentasService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ResumenVentasServiceImpl.class);
+    
+    @Autowired
+    private VentaResumenHoraRepository ventaResumenHoraRepository;
+    
+    @Autowired
+    private VentaResumenItemRepository ventaResumenItemRepository;
+    
+    @Autowired
+    private VentaRepository ventaRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${reportes.resumen.max-reintentos:5}")
+    private int maximoReintentos;
+    
+    /** Ventas confirmadas cuyo acumulado falló, con el número de intentos. */
+    private final Map<Long, VentaPendiente> pendientes = new ConcurrentHashMap<>();
+    
+    /** Lectura para las sumas incrementales, escritura para la reconstrucción. */
+    private final ReentrantReadWriteLock bloqueoResumen = new ReentrantReadWriteLock();
+    
+    private TransactionTemplate transaccion;
+    
+    @PostConstruct
+    public void inicializarTransaccion() {
+        transaccion = new TransactionTemplate(transactionManager);
+        transaccion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onVentaCompletada(VentaCompletadaEvent event) {
+        try {
+            acumularVenta(event);
+        } catch (Exception e) {
+            // La venta ya está confirmada: su acumulado se revirtió completo y se reintenta
+            logger.error("Error actualizando acumulados de la venta {}, se reintentará: {}",
+                        event.getIdVenta(), e.getMessage());
+            pendientes.putIfAbsent(event.getIdVenta(), new VentaPendiente(event));
+        }
+    }
+    
+    /**
+     * Reintenta los acumulados que fallaron, cada venta en su propia transacción.
+     * Si alguna agota los reintentos se reconstruyen todos desde el histórico,
+     * que ya incluye las ventas pendientes.
+     *
+     * @return número de ventas que siguen pendientes
+     */
+    @Scheduled(fixedDelayString = "${reportes.resumen.retry-interval-ms:60000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int reintentarPendientes() {
+        if (pendientes.isEmpty()) {
+            return 0;
+        }
+        boolean agotados = false;
+        for (VentaPendiente pendiente : pendientes.values()) {
+            try {
+                acumularVenta(pendiente.venta);
+                pendientes.remove(pendiente.venta.getIdVenta());
+                logger.info("Acumulados de la venta {} actualizados tras reintento", pendiente.venta.getIdVenta());
+            } catch (Exception e) {
+                pendiente.intentos++;
+                agotados |= pendiente.intentos >= maximoReintentos;
+                logger.warn("Reintento fallido de acumulados de la venta {} ({}/{}): {}",
+                           pendiente.venta.getIdVenta(), pendiente.intentos, maximoReintentos, e.getMessage());
+            }
+        }
+        if (agotados) {
+            try {
+                Set<Long> incluidas = new HashSet<>(pendientes.keySet());
+                reconstruir();
+                pendientes.keySet().removeAll(incluidas);
+            } catch (Exception e) {
+                // Siguen pendientes y agotadas: se vuelve a reconstruir en el siguiente ciclo
+                logger.error("Error reconstruyendo acumulados de ventas: {}", e.getMessage());
+            }
+        }
+        return pendientes.size();
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        if (ventaResumenHoraRepository.count() == 0 && ventaRepository.findFechaUltimaVenta() != null) {
+            logger.info("Acumulados de ventas vacíos, reconstruyendo desde el histórico");
+            reconstruir();
+        }
+    }
+    
+    @Override
+    public void registrarVenta(VentaCompletadaEvent venta) {
+        if (ventaRepository.marcarAcumuladaEnResumen(venta.getIdVenta()) == 0) {
+            // Una reconstrucción ya la incluyó
+            logger.debug("Venta {} ya incluida en los acumulados", venta.getIdVenta());
+            return;
+        }
+        ventaResumenHoraRepository.acumular(venta.getFechaVenta().toLocalDate(),
+                venta.getFechaVenta().getHour(), 1, venta.getTotal());
+        
+        // Agrupar por item y actualizar en orden fijo para evitar deadlocks entre ventas
+        Map<String, VentaCompletadaEvent.Linea> lineas = new TreeMap<>();
+        for (VentaCompletadaEvent.Linea linea : venta.getLineas()) {
+            if (linea.getTipo() == null) {
+                continue;
+            }
+            lineas.merge(linea.getTipo() + ':' + linea.getIdItem(), linea, (a, b) ->
+                new VentaCompletadaEvent.Linea(a.getTipo(), a.getIdItem(), b.getNombre(),
+                    a.getCantidad() + b.getCantidad(), a.getSubtotal().add(b.getSubtotal())));
+        }
+        for (VentaCompletadaEvent.Linea linea : lineas.values()) {
+            ventaResumenItemRepository.acumular(linea.getTipo(), linea.getIdItem(), linea.getNombre(),
+                    linea.getCantidad(), linea.getSubtotal());
+        }
+        
+        logger.debug("Acumulados actualizados - Venta: {}, Items: {}", venta.getIdVenta(), lineas.size());
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<String, Object> reconstruir() {
+        long inicio = System.currentTimeMillis();
+        
+        int[] filas;
+        bloqueoResumen.writeLock().lock();
+        try {
+            filas = transaccion.execute(status -> {
+                ventaResumenHoraRepository.eliminarTodo();
+                ventaResumenItemRepository.eliminarTodo();
+                ventaRepository.marcarCompletadasAcumuladasEnResumen();
+                return new int[] {
+                    ventaResumenHoraRepository.reconstruirDesdeVentas(),
+                    ventaResumenItemRepository.reconstruirDesdeDetalles()
+                };
+            });
+        } finally {
+            bloqueoResumen.writeLock().unlock();
+        }
+        int horas = filas[0];
+        int items = filas[1];
+        
+        long duracion = System.currentTimeMillis() - inicio;
+        logger.info("Acumulados de ventas reconstruidos - Horas: {}, Items: {}, Tiempo: {} ms", horas, items, duracion);
+        
+        Map<String, Object> resultado = new HashMap<>();
+        resultado.put("filasHora", horas);
+        resultado.put("filasItem", items);
+        resultado.put("duracionMs", duracion);
+        return resultado;
+    }
+    
+    private void acumularVenta(VentaCompletadaEvent venta) {
+        bloqueoResumen.readLock().lock();
+        try {
+            transaccion.executeWithoutResult(status -> registrarVenta(venta));
+        } finally {
+            bloqueoResumen.readLock().unlock();
+        }
+    }
+    
+    private static final class VentaPendiente {
+        private final VentaCompletadaEvent venta;
+        private int intentos;
+        
+        private VentaPendiente(VentaCompletadaEvent venta) {
+            this.venta = venta;
+        }
+    }
+}
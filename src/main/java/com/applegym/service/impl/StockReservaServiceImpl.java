@@ -0,0 +1,556 @@
+package com.applegym.service.impl;
+
+import com.applegym.entity.Producto;
+import com.applegym.entity.StockPendiente;
+import com.applegym.event.CatalogoModificadoEvent;
+import com.applegym.exception.ResourceNotFoundException;
+import com.applegym.repository.ProductoRepository;
+import com.applegym.repository.StockPendienteRepository;
+import com.applegym.service.StockReservaService;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implementación del registro en memoria de reservas de stock.
+ *
+ * Cada producto tiene un contador sin bloqueos sembrado desde la base de datos
+ * con su stock. Agregar un producto al carrito reserva unidades (con caducidad);
+ * el checkout convierte la reserva en venta al confirmar la transacción, y las
+ * ventas acumuladas se escriben en MySQL en lotes periódicos (un UPDATE por
+ * producto y ciclo), de modo que las compras concurrentes de un mismo producto
+ * no compiten por su fila en cada request.
+ *
+ * Las unidades vendidas se registran en la tabla stock_pendiente dentro de la
+ * transacción del checkout, así que una venta confirmada nunca pierde su
+ * descuento aunque la aplicación caiga antes del lote: el lote solo consolida
+ * esas filas en el stock del producto.
+ *
+ * El registro asume una sola instancia de la aplicación. Con
+ * {@code stock.reservas.enabled=false} el checkout vuelve a descontar el stock
+ * directamente en la base de datos.
+ *
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+@Service
+public class StockReservaServiceImpl implements StockReservaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockReservaServiceImpl.class);
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private StockPendienteRepository stockPendienteRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${stock.reservas.enabled:true}")
+    private boolean habilitado;
+
+    @Value("${stock.reservas.ttl-minutes:30}")
+    private long ttlMinutos;
+
+    @Value("${stock.reservas.resync-interval-ms:60000}")
+    private long intervaloResincronizacionMs;
+
+    @Value("${stock.reservas.shortfall-backoff-ms:1000}")
+    private long esperaFaltanteMs;
+
+    @Value("${stock.reservas.shortfall-backoff-max-ms:60000}")
+    private long esperaFaltanteMaxMs;
+
+    private final Map<Long, ContadorStock> contadores = new ConcurrentHashMap<>();
+
+    private final Map<String, Reserva> reservas = new ConcurrentHashMap<>();
+
+    /** Productos cuyas ventas no caben en el stock de la base de datos. */
+    private final Map<Long, Faltante> productosConFaltante = new ConcurrentHashMap<>();
+
+    private TransactionTemplate transaccion;
+
+    /** Hasta el primer lote puede haber filas pendientes de antes del arranque. */
+    private volatile boolean revisarRegistro = true;
+
+    private volatile long ultimaResincronizacion = System.currentTimeMillis();
+
+    @PostConstruct
+    public void inicializar() {
+        transaccion = new TransactionTemplate(transactionManager);
+        logger.info("Reservas de stock en memoria {}", habilitado ? "habilitadas" : "deshabilitadas");
+    }
+
+    @Override
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    @Override
+    public boolean reservar(String emailCliente, Long idProducto, int cantidad) {
+        if (!habilitado) {
+            return true;
+        }
+        ContadorStock contador = obtenerContador(idProducto);
+        boolean[] reservado = {false};
+
+        reservas.compute(clave(emailCliente, idProducto), (k, reserva) -> {
+            if (!contador.reservar(cantidad)) {
+                return reserva;
+            }
+            reservado[0] = true;
+            Reserva nueva = reserva != null ? reserva : new Reserva(idProducto);
+            nueva.cantidad += cantidad;
+            nueva.renovar(ttlMinutos);
+            return nueva;
+        });
+
+        if (!reservado[0]) {
+            logger.debug("Reserva rechazada - Producto: {}, Cantidad: {}, Disponible: {}",
+                        idProducto, cantidad, contador.disponible());
+        }
+        return reservado[0];
+    }
+
+    @Override
+    public boolean ajustarReserva(String emailCliente, Long idProducto, int cantidadTotal) {
+        if (!habilitado) {
+            return true;
+        }
+        ContadorStock contador = obtenerContador(idProducto);
+        boolean[] ajustado = {true};
+
+        reservas.compute(clave(emailCliente, idProducto), (k, reserva) -> {
+            int actual = reserva != null ? reserva.cantidad : 0;
+            int diferencia = cantidadTotal - actual;
+            if (diferencia > 0 && !contador.reservar(diferencia)) {
+                ajustado[0] = false;
+                return reserva;
+            }
+            if (diferencia < 0) {
+                contador.liberar(-diferencia);
+            }
+            if (cantidadTotal <= 0) {
+                return null;
+            }
+            Reserva nueva = reserva != null ? reserva : new Reserva(idProducto);
+            nueva.cantidad = cantidadTotal;
+            nueva.renovar(ttlMinutos);
+            return nueva;
+        });
+        return ajustado[0];
+    }
+
+    @Override
+    public void liberar(String emailCliente, Long idProducto) {
+        if (!habilitado) {
+            return;
+        }
+        reservas.computeIfPresent(clave(emailCliente, idProducto), (k, reserva) -> {
+            liberarReserva(reserva);
+            return null;
+        });
+    }
+
+    @Override
+    public void liberarTodo(String emailCliente) {
+        if (!habilitado) {
+            return;
+        }
+        String prefijo = prefijo(emailCliente);
+        for (String clave : reservas.keySet()) {
+            if (clave.startsWith(prefijo)) {
+                reservas.computeIfPresent(clave, (k, reserva) -> {
+                    liberarReserva(reserva);
+                    return null;
+                });
+            }
+        }
+    }
+
+    /**
+     * Asegura las unidades de una venta y programa su confirmación.
+     *
+     * Primero completa la reserva de cada producto hasta la cantidad comprada
+     * (por si caducó o el stock se agotó mientras tanto); si todas se pueden
+     * cubrir, registra las unidades en stock_pendiente dentro de la transacción
+     * actual y pasan a "vendidas" en memoria cuando la transacción confirma.
+     * Si la transacción revierte, las filas desaparecen con ella y las reservas
+     * quedan como estaban, caducando o liberándose normalmente.
+     *
+     * @return ID del primer producto sin stock suficiente, o vacío si la venta quedó asegurada
+     */
+    @Override
+    public Optional<Long> reservarParaVenta(String emailCliente, Map<Long, Integer> cantidades) {
+        Map<Long, Integer> ordenadas = new TreeMap<>(cantidades);
+
+        for (Map.Entry<Long, Integer> entrada : ordenadas.entrySet()) {
+            if (!asegurarReserva(emailCliente, entrada.getKey(), entrada.getValue())) {
+                return Optional.of(entrada.getKey());
+            }
+        }
+
+        List<StockPendiente> vendidas = new ArrayList<>();
+        ordenadas.forEach((idProducto, cantidad) -> vendidas.add(new StockPendiente(idProducto, cantidad)));
+        stockPendienteRepository.saveAll(vendidas);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    confirmarVenta(emailCliente, ordenadas);
+                }
+            });
+        } else {
+            confirmarVenta(emailCliente, ordenadas);
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public int obtenerDisponible(Long idProducto) {
+        return obtenerContador(idProducto).disponible();
+    }
+
+    /**
+     * Libera las reservas caducadas.
+     */
+    @Scheduled(fixedDelayString = "${stock.reservas.sweep-interval-ms:30000}")
+    public void liberarReservasCaducadas() {
+        if (!habilitado || reservas.isEmpty()) {
+            return;
+        }
+        long ahora = System.currentTimeMillis();
+        int liberadas = 0;
+        for (String clave : reservas.keySet()) {
+            boolean[] caducada = {false};
+            reservas.computeIfPresent(clave, (k, reserva) -> {
+                if (reserva.expiraEn > ahora) {
+                    return reserva;
+                }
+                liberarReserva(reserva);
+                caducada[0] = true;
+                return null;
+            });
+            if (caducada[0]) {
+                liberadas++;
+            }
+        }
+        if (liberadas > 0) {
+            logger.info("Reservas de stock caducadas liberadas: {}", liberadas);
+        }
+    }
+
+    /**
+     * Escribe en la base de datos las unidades vendidas pendientes.
+     *
+     * Lee las filas de stock_pendiente, aplica un único UPDATE por producto
+     * en orden de ID y elimina las filas escritas, todo en una transacción.
+     * Los productos con faltante se reintentan con espera creciente.
+     * La resincronización se hace dentro de este método, que es synchronized,
+     * por lo que nunca se solapan aunque el scheduler tenga varios hilos.
+     */
+    @Scheduled(fixedDelayString = "${stock.reservas.flush-interval-ms:500}")
+    public synchronized void escribirPendientes() {
+        if (!habilitado) {
+            return;
+        }
+
+        long ahora = System.currentTimeMillis();
+        if (revisarRegistro || hayPendientesPorEscribir(ahora)) {
+            consolidarPendientes(ahora);
+        }
+
+        if (ahora - ultimaResincronizacion >= intervaloResincronizacionMs) {
+            ultimaResincronizacion = ahora;
+            contadores.keySet().forEach(this::resincronizar);
+        }
+    }
+
+    @PreDestroy
+    public void detener() {
+        escribirPendientes();
+    }
+
+    private boolean hayPendientesPorEscribir(long ahora) {
+        for (Map.Entry<Long, ContadorStock> entrada : contadores.entrySet()) {
+            if (entrada.getValue().pendiente.get() > 0 && !enEspera(entrada.getKey(), ahora)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean enEspera(Long idProducto, long ahora) {
+        Faltante faltante = productosConFaltante.get(idProducto);
+        return faltante != null && faltante.siguienteIntento > ahora;
+    }
+
+    private void consolidarPendientes(long ahora) {
+        Map<Long, Integer> escritos = new TreeMap<>();
+        Map<Long, Integer> rechazados = new TreeMap<>();
+        try {
+            transaccion.executeWithoutResult(status -> {
+                Map<Long, Integer> lote = new TreeMap<>();
+                Map<Long, List<Long>> filas = new TreeMap<>();
+                for (StockPendiente pendiente : stockPendienteRepository.findAllByOrderByIdStockPendienteAsc()) {
+                    if (enEspera(pendiente.getIdProducto(), ahora)) {
+                        continue;
+                    }
+                    lote.merge(pendiente.getIdProducto(), pendiente.getCantidad(), Integer::sum);
+                    filas.computeIfAbsent(pendiente.getIdProducto(), id -> new ArrayList<>())
+                        .add(pendiente.getIdStockPendiente());
+                }
+
+                lote.forEach((idProducto, cantidad) -> {
+                    if (productoRepository.decrementarStock(idProducto, cantidad) == 0) {
+                        rechazados.put(idProducto, cantidad);
+                        return;
+                    }
+                    stockPendienteRepository.eliminarPorIds(filas.get(idProducto));
+                    escritos.put(idProducto, cantidad);
+                });
+                if (!escritos.isEmpty()) {
+                    eventPublisher.publishEvent(new CatalogoModificadoEvent("venta:stock"));
+                }
+            });
+        } catch (RuntimeException e) {
+            // Las filas siguen en stock_pendiente: se reintenta completo en el siguiente ciclo
+            logger.error("Error al escribir el stock pendiente", e);
+            return;
+        }
+        revisarRegistro = false;
+
+        escritos.forEach((idProducto, cantidad) -> {
+            ContadorStock contador = contadores.get(idProducto);
+            if (contador != null) {
+                // Primero la base y luego lo pendiente: el disponible nunca sube de más
+                contador.base.addAndGet(-cantidad);
+                contador.pendiente.addAndGet(-cantidad);
+            }
+            if (productosConFaltante.remove(idProducto) != null) {
+                logger.info("Stock pendiente escrito tras reposición - Producto: {}, Unidades: {}",
+                           idProducto, cantidad);
+                resincronizar(idProducto);
+            }
+        });
+        // La base de datos tenía menos stock del esperado (modificación externa):
+        // las unidades siguen pendientes y se reintentan cuando se reponga
+        rechazados.forEach((idProducto, cantidad) -> registrarFaltante(idProducto, cantidad, ahora));
+
+        if (!escritos.isEmpty()) {
+            logger.debug("Stock escrito en base de datos - Productos: {}", escritos.size());
+        }
+    }
+
+    /**
+     * Vuelve a leer el stock de la base de datos (reposiciones, cambios desde administración).
+     * Solo se aplica si el producto no tiene ventas pendientes de escribir.
+     */
+    private void resincronizar(Long idProducto) {
+        ContadorStock contador = contadores.get(idProducto);
+        if (contador == null || contador.pendiente.get() > 0) {
+            return;
+        }
+        productoRepository.findById(idProducto).ifPresentOrElse(
+            producto -> contador.base.set(stockDe(producto)),
+            () -> contador.base.set(0));
+    }
+
+    /**
+     * Ajusta la base al stock real de la base de datos sin tocar lo pendiente:
+     * el disponible queda en cero o negativo y no se vende más hasta reponer.
+     * El siguiente intento del producto se aplaza con espera exponencial
+     * (hasta {@code stock.reservas.shortfall-backoff-max-ms}), y la alerta se
+     * registra una vez por producto, no en cada ciclo.
+     */
+    private void registrarFaltante(Long idProducto, int cantidad, long ahora) {
+        ContadorStock contador = obtenerContador(idProducto);
+        int stockReal = productoRepository.findById(idProducto).map(this::stockDe).orElse(0);
+        contador.base.set(stockReal);
+
+        Faltante faltante = productosConFaltante.computeIfAbsent(idProducto, id -> new Faltante());
+        faltante.intentos++;
+        long espera = Math.min(esperaFaltanteMaxMs, esperaFaltanteMs << Math.min(faltante.intentos - 1, 16));
+        faltante.siguienteIntento = ahora + espera;
+
+        if (faltante.intentos == 1) {
+            logger.error("Stock en base de datos inferior a lo vendido - Producto: {}, Vendidas sin escribir: {}, Stock: {}",
+                        idProducto, cantidad, stockReal);
+        } else {
+            logger.debug("Stock pendiente sin escribir - Producto: {}, Unidades: {}, Stock: {}, Próximo intento en {} ms",
+                        idProducto, cantidad, stockReal, espera);
+        }
+    }
+
+    private boolean asegurarReserva(String emailCliente, Long idProducto, int cantidad) {
+        ContadorStock contador = obtenerContador(idProducto);
+        boolean[] asegurada = {true};
+
+        reservas.compute(clave(emailCliente, idProducto), (k, reserva) -> {
+            int actual = reserva != null ? reserva.cantidad : 0;
+            if (actual < cantidad && !contador.reservar(cantidad - actual)) {
+                asegurada[0] = false;
+                return reserva;
+            }
+            Reserva nueva = reserva != null ? reserva : new Reserva(idProducto);
+            nueva.cantidad = Math.max(actual, cantidad);
+            nueva.renovar(ttlMinutos);
+            return nueva;
+        });
+        return asegurada[0];
+    }
+
+    private void confirmarVenta(String emailCliente, Map<Long, Integer> cantidades) {
+        cantidades.forEach((idProducto, cantidad) -> {
+            ContadorStock contador = obtenerContador(idProducto);
+            reservas.compute(clave(emailCliente, idProducto), (k, reserva) -> {
+                int reservado = reserva != null ? reserva.cantidad : 0;
+                // Primero se suma a pendiente y luego se resta de reservado: nunca sobra disponible
+                contador.pendiente.addAndGet(cantidad);
+                contador.liberar(Math.min(reservado, cantidad));
+                if (reservado < cantidad) {
+                    // La reserva caducó tras asegurarla: se descuenta igualmente lo vendido
+                    logger.warn("Venta confirmada con reserva incompleta - Producto: {}, Reservado: {}, Vendido: {}",
+                               idProducto, reservado, cantidad);
+                }
+                if (reservado > cantidad) {
+                    // Unidades agregadas al carrito durante el checkout: siguen reservadas
+                    reserva.cantidad = reservado - cantidad;
+                    return reserva;
+                }
+                return null;
+            });
+        });
+        logger.debug("Venta confirmada en reservas de stock - Cliente: {}, Productos: {}",
+                    emailCliente, cantidades.size());
+    }
+
+    private void liberarReserva(Reserva reserva) {
+        ContadorStock contador = contadores.get(reserva.idProducto);
+        if (contador != null) {
+            contador.liberar(reserva.cantidad);
+        }
+    }
+
+    private ContadorStock obtenerContador(Long idProducto) {
+        ContadorStock contador = contadores.get(idProducto);
+        return contador != null ? contador : crearContador(idProducto);
+    }
+
+    /**
+     * Siembra el contador con el stock y las ventas sin escribir de la base de
+     * datos. Se sincroniza con el lote para no leer el stock ya descontado
+     * junto con filas que el lote está a punto de restar otra vez.
+     */
+    private synchronized ContadorStock crearContador(Long idProducto) {
+        ContadorStock contador = contadores.get(idProducto);
+        if (contador != null) {
+            return contador;
+        }
+        Producto producto = productoRepository.findById(idProducto)
+            .orElseThrow(() -> new ResourceNotFoundException("Producto no encontrado: " + idProducto));
+        contador = new ContadorStock(stockDe(producto));
+        Long pendiente = stockPendienteRepository.sumarPendiente(idProducto);
+        contador.pendiente.set(pendiente != null ? pendiente.intValue() : 0);
+        contadores.put(idProducto, contador);
+        return contador;
+    }
+
+    private int stockDe(Producto producto) {
+        return producto.getStock() != null ? producto.getStock() : 0;
+    }
+
+    private String clave(String emailCliente, Long idProducto) {
+        return prefijo(emailCliente) + idProducto;
+    }
+
+    private String prefijo(String emailCliente) {
+        return emailCliente.toLowerCase(Locale.ROOT) + '|';
+    }
+
+    /**
+     * Estado de un producto: disponible = base - reservado - pendiente.
+     *
+     * {@code base} es el último stock conocido en la base de datos,
+     * {@code reservado} las unidades en carritos y {@code pendiente} las
+     * vendidas que aún no se escribieron.
+     */
+    private static final class ContadorStock {
+        private final AtomicInteger base;
+        private final AtomicInteger reservado = new AtomicInteger();
+        private final AtomicInteger pendiente = new AtomicInteger();
+
+        private ContadorStock(int stockInicial) {
+            this.base = new AtomicInteger(stockInicial);
+        }
+
+        private int disponible() {
+            return base.get() - reservado.get() - pendiente.get();
+        }
+
+        /**
+         * Reserva sin bloqueos: el CAS sobre {@code reservado} serializa las
+         * reservas concurrentes, así que dos compradores nunca toman la misma unidad.
+         */
+        private boolean reservar(int cantidad) {
+            while (true) {
+                int actual = reservado.get();
+                if (base.get() - actual - pendiente.get() < cantidad) {
+                    return false;
+                }
+                if (reservado.compareAndSet(actual, actual + cantidad)) {
+                    return true;
+                }
+            }
+        }
+
+        private void liberar(int cantidad) {
+            reservado.addAndGet(-cantidad);
+        }
+    }
+
+    private static final class Faltante {
+        private int intentos;
+        private long siguienteIntento;
+    }
+
+    private static final class Reserva {
+        private final Long idProducto;
+        private int cantidad;
+        private long expiraEn;
+
+        private Reserva(Long idProducto) {
+            this.idProducto = idProducto;
+        }
+
+        private void renovar(long ttlMinutos) {
+            expiraEn = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(ttlMinutos);
+        }
+    }
+}
@@ -1,23 +1,51 @@
 package com.applegym.service.impl;
 
 import com.applegym.dto.VentaDTO;
+import com.applegym.dto.VentaHistorialDTO;
+import com.applegym.dto.VentaLoteComandoDTO;
+import com.applegym.dto.VentaLoteResultadoDTO;
 import com.applegym.entity.*;
+import com.applegym.mapper.VentaMapper;
 import com.applegym.repository.*;
 import com.applegym.service.VentaService;
+import com.applegym.service.CarritoMemoriaService;
 import com.applegym.service.CarritoService;
+import com.applegym.service.NumeracionService;
+import com.applegym.service.StockReservaService;
+import com.applegym.event.CatalogoModificadoEvent;
+import com.applegym.event.VentaCompletadaEvent;
 import com.applegym.exception.ResourceNotFoundException;
+import com.applegym.exception.CarritoVacioException;
+import com.applegym.exception.StockInsuficienteException;
 
-import org.modelmapper.ModelMapper;
+import com.google.common.collect.Lists;
+
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Implementación del servicio de Ventas.
@@ -31,6 +59,8 @@ public class VentaServiceImpl implements VentaService {
     
     private static final Logger logger = LoggerFactory.getLogger(VentaServiceImpl.class);
     
+    private static final int TAMANO_MAXIMO_HISTORIAL = 100;
+    
     @Autowired
     private VentaRepository ventaRepository;
     
@@ -50,32 +80,223 @@ public class VentaServiceImpl implements VentaService {
     private CarritoService carritoService;
     
     @Autowired
-    private ModelMapper modelMapper;
+    private CarritoMemoriaService carritoMemoriaService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private StockReservaService stockReservaService;
+    
+    @Autowired
+    private NumeracionService numeracionService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${ventas.lote.tamano-bloque:50}")
+    private int tamanoBloque;
+    
+    private TransactionTemplate transaccion;
+    
+    @PostConstruct
+    public void inicializar() {
+        transaccion = new TransactionTemplate(transactionManager);
+    }
     
     @Override
     public VentaDTO procesarVenta(String emailCliente, String metodoPago) {
         logger.debug("Procesando venta - Cliente: {}, Método: {}", emailCliente, metodoPago);
         
+        // Los cambios del carrito que siguen solo en memoria se escriben antes de leerlo
+        carritoMemoriaService.escribir(emailCliente);
+        
         // 1. Validar cliente
         Cliente cliente = clienteRepository.findByEmailAndActivo(emailCliente, true)
             .orElseThrow(() -> new ResourceNotFoundException("Cliente no encontrado: " + emailCliente));
         
         // 2. Obtener carrito activo
-        Carrito carrito = carritoRepository.findByClienteAndEstado(cliente, "ACTIVO")
+        Carrito carrito = carritoRepository.findConDetallesByClienteAndEstado(cliente, "ACTIVO")
             .orElseThrow(() -> new ResourceNotFoundException("No hay carrito activo para el cliente"));
         
         if (carrito.getDetalles().isEmpty()) {
-            throw new IllegalStateException("El carrito está vacío");
+            throw new CarritoVacioException();
+        }
+        
+        // 3. Cargar en bloque los productos y servicios referenciados (una consulta por tipo)
+        Map<Long, Producto> productos = cargarProductos(carrito.getDetalles());
+        Map<Long, Servicio> servicios = cargarServicios(carrito.getDetalles());
+        
+        Venta venta = registrarVenta(emailCliente, metodoPago, cliente, carrito, productos, servicios);
+        
+        logger.info("Venta procesada exitosamente - ID: {}, Total: {}", venta.getIdVenta(), venta.getTotal());
+        
+        return VentaMapper.convertirADTO(venta);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> obtenerHistorial(String emailCliente, LocalDateTime antesDeFecha,
+                                                Long antesDeId, int tamano) {
+        Cliente cliente = clienteRepository.findByEmailAndActivo(emailCliente, true)
+            .orElseThrow(() -> new ResourceNotFoundException("Cliente no encontrado: " + emailCliente));
+        
+        int tamanoPagina = Math.max(1, Math.min(tamano, TAMANO_MAXIMO_HISTORIAL));
+        // Se pide una fila de más para saber si hay otra página sin contar el total
+        Pageable limite = PageRequest.of(0, tamanoPagina + 1);
+        
+        List<VentaHistorialDTO> ventas = (antesDeFecha == null || antesDeId == null)
+            ? ventaRepository.findHistorialByClienteId(cliente.getIdCliente(), limite)
+            : ventaRepository.findHistorialByClienteIdAntesDe(cliente.getIdCliente(), antesDeFecha, antesDeId, limite);
+        
+        boolean hayMas = ventas.size() > tamanoPagina;
+        if (hayMas) {
+            ventas = ventas.subList(0, tamanoPagina);
+        }
+        
+        Map<String, Object> siguiente = null;
+        if (hayMas) {
+            VentaHistorialDTO ultima = ventas.get(ventas.size() - 1);
+            siguiente = new HashMap<>();
+            siguiente.put("antesDeFecha", ultima.getFechaVenta());
+            siguiente.put("antesDeId", ultima.getIdVenta());
+        }
+        
+        Map<String, Object> historial = new HashMap<>();
+        historial.put("ventas", ventas);
+        historial.put("tamano", tamanoPagina);
+        historial.put("hayMas", hayMas);
+        historial.put("siguiente", siguiente);
+        return historial;
+    }
+    
+    /**
+     * Procesa un lote de checkouts agrupándolos en pocas transacciones.
+     * 
+     * Cada bloque carga con una consulta los carritos de todos sus clientes y
+     * con otra los productos y servicios referenciados, y confirma todas sus
+     * ventas en un único commit. Cada venta sigue siendo atómica: si falla por
+     * stock se revierte solo ella (savepoint); ante cualquier otro error el
+     * bloque se revierte completo y sus ventas se reprocesan una a una.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<VentaLoteResultadoDTO> procesarVentasEnLote(List<VentaLoteComandoDTO> comandos) {
+        logger.debug("Procesando lote de {} ventas", comandos.size());
+        
+        comandos.forEach(comando -> carritoMemoriaService.escribir(comando.getEmailCliente()));
+        
+        List<VentaLoteResultadoDTO> resultados = new ArrayList<>(comandos.size());
+        for (List<VentaLoteComandoDTO> bloque : Lists.partition(comandos, tamanoBloque)) {
+            int primerIndice = resultados.size();
+            try {
+                resultados.addAll(transaccion.execute(status -> procesarBloque(bloque, primerIndice, status)));
+            } catch (RuntimeException e) {
+                logger.warn("Bloque de ventas revertido ({}), se reprocesa venta a venta", e.getMessage());
+                for (int i = 0; i < bloque.size(); i++) {
+                    resultados.add(procesarIndividual(bloque.get(i), primerIndice + i));
+                }
+            }
+        }
+        
+        long exitosas = resultados.stream().filter(VentaLoteResultadoDTO::isExito).count();
+        logger.info("Lote de ventas procesado - Total: {}, Exitosas: {}, Fallidas: {}",
+                   resultados.size(), exitosas, resultados.size() - exitosas);
+        return resultados;
+    }
+    
+    private List<VentaLoteResultadoDTO> procesarBloque(List<VentaLoteComandoDTO> bloque, int primerIndice,
+                                                      TransactionStatus status) {
+        // 1-2. Clientes y carritos activos del bloque en una sola consulta
+        Set<String> emails = bloque.stream()
+            .map(VentaLoteComandoDTO::getEmailCliente)
+            .collect(Collectors.toSet());
+        Map<String, Carrito> carritos = new HashMap<>();
+        for (Carrito carrito : carritoRepository.findConDetallesByEmailsAndEstado(emails, "ACTIVO")) {
+            carritos.putIfAbsent(carrito.getCliente().getEmail().toLowerCase(Locale.ROOT), carrito);
         }
         
-        // 3. Crear la venta
+        // 3. Productos y servicios de todos los carritos del bloque
+        List<DetalleCarrito> detalles = carritos.values().stream()
+            .flatMap(carrito -> carrito.getDetalles().stream())
+            .collect(Collectors.toList());
+        Map<Long, Producto> productos = cargarProductos(detalles);
+        Map<Long, Servicio> servicios = cargarServicios(detalles);
+        
+        // Sin reservas en memoria el stock se descuenta en la base de datos y un fallo
+        // a mitad de venta debe deshacer los descuentos previos de esa venta
+        boolean conSavepoint = !stockReservaService.isHabilitado();
+        
+        List<VentaLoteResultadoDTO> resultados = new ArrayList<>(bloque.size());
+        for (int i = 0; i < bloque.size(); i++) {
+            VentaLoteComandoDTO comando = bloque.get(i);
+            int indice = primerIndice + i;
+            
+            Carrito carrito = carritos.get(comando.getEmailCliente().toLowerCase(Locale.ROOT));
+            if (carrito == null || !"ACTIVO".equals(carrito.getEstado())) {
+                resultados.add(new VentaLoteResultadoDTO(indice, comando.getEmailCliente(),
+                    "NO_ENCONTRADO", "No hay carrito activo para el cliente"));
+                continue;
+            }
+            if (carrito.getDetalles().isEmpty()) {
+                resultados.add(new VentaLoteResultadoDTO(indice, comando.getEmailCliente(),
+                    "CARRITO_VACIO", "El carrito está vacío"));
+                continue;
+            }
+            
+            Object savepoint = conSavepoint ? status.createSavepoint() : null;
+            try {
+                Venta venta = registrarVenta(comando.getEmailCliente(), comando.getMetodoPago(),
+                                             carrito.getCliente(), carrito, productos, servicios);
+                resultados.add(new VentaLoteResultadoDTO(indice, comando.getEmailCliente(), VentaMapper.convertirADTO(venta)));
+            } catch (StockInsuficienteException e) {
+                // El fallo ocurre antes de guardar la venta: basta con deshacer sus descuentos
+                if (savepoint != null) {
+                    status.rollbackToSavepoint(savepoint);
+                }
+                resultados.add(new VentaLoteResultadoDTO(indice, comando.getEmailCliente(),
+                    "STOCK_INSUFICIENTE", e.getMessage()));
+                continue;
+            }
+            if (savepoint != null) {
+                status.releaseSavepoint(savepoint);
+            }
+        }
+        return resultados;
+    }
+    
+    private VentaLoteResultadoDTO procesarIndividual(VentaLoteComandoDTO comando, int indice) {
+        try {
+            VentaDTO venta = transaccion.execute(status ->
+                procesarVenta(comando.getEmailCliente(), comando.getMetodoPago()));
+            return new VentaLoteResultadoDTO(indice, comando.getEmailCliente(), venta);
+        } catch (StockInsuficienteException e) {
+            return new VentaLoteResultadoDTO(indice, comando.getEmailCliente(), "STOCK_INSUFICIENTE", e.getMessage());
+        } catch (ResourceNotFoundException e) {
+            return new VentaLoteResultadoDTO(indice, comando.getEmailCliente(), "NO_ENCONTRADO", e.getMessage());
+        } catch (CarritoVacioException e) {
+            return new VentaLoteResultadoDTO(indice, comando.getEmailCliente(), "CARRITO_VACIO", e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error procesando venta del lote - Cliente: {}: {}", comando.getEmailCliente(), e.getMessage());
+            return new VentaLoteResultadoDTO(indice, comando.getEmailCliente(), "ERROR", e.getMessage());
+        }
+    }
+    
+    /**
+     * Crea y guarda la venta a partir del carrito ya cargado, descuenta el
+     * stock, marca el carrito como procesado y publica la venta completada.
+     */
+    private Venta registrarVenta(String emailCliente, String metodoPago, Cliente cliente, Carrito carrito,
+                                 Map<Long, Producto> productos, Map<Long, Servicio> servicios) {
+        // 4. Crear la venta
         Venta venta = new Venta();
         venta.setCliente(cliente);
         venta.setFechaVenta(LocalDateTime.now());
         venta.setTotal(carrito.getTotal());
         venta.setEstado("PROCESANDO");
+        venta.setNumeroVenta(numeracionService.siguienteNumeroVenta());
         
-        // 4. Crear detalles de venta desde el carrito
+        // 5. Crear detalles de venta desde el carrito
         for (DetalleCarrito detalleCarrito : carrito.getDetalles()) {
             DetalleVenta detalleVenta = new DetalleVenta();
             detalleVenta.setVenta(venta);
@@ -88,17 +309,15 @@ public class VentaServiceImpl implements VentaService {
             
             // Asociar producto o servicio según corresponda
             if ("PRODUCTO".equals(detalleCarrito.getTipo())) {
-                productoRepository.findById(detalleCarrito.getIdItem())
-                    .ifPresent(detalleVenta::setProducto);
+                detalleVenta.setProducto(productos.get(detalleCarrito.getIdItem()));
             } else if ("SERVICIO".equals(detalleCarrito.getTipo())) {
-                servicioRepository.findById(detalleCarrito.getIdItem())
-                    .ifPresent(detalleVenta::setServicio);
+                detalleVenta.setServicio(servicios.get(detalleCarrito.getIdItem()));
             }
             
             venta.getDetalles().add(detalleVenta);
         }
         
-        // 5. Crear el pago
+        // 6. Crear el pago
         Pago pago = new Pago();
         pago.setVenta(venta);
         pago.setTipoPago(metodoPago);
@@ -108,30 +327,39 @@ public class VentaServiceImpl implements VentaService {
         
         venta.setPago(pago);
         
-        // 6. Crear comprobante
+        // 7. Crear comprobante
         Comprobante comprobante = new Comprobante();
         comprobante.setVenta(venta);
         comprobante.setFechaEmision(LocalDateTime.now());
         comprobante.setTipoComprobante("BOLETA");
         comprobante.setSerieComprobante("001");
-        comprobante.setEstadoComprobante("GENERADO");
+        comprobante.setNumeroComprobante(numeracionService.siguienteNumeroComprobante(comprobante));
+        // El PDF se genera en segundo plano tras el commit
+        comprobante.setEstadoComprobante("PENDIENTE");
         
         venta.setComprobante(comprobante);
         
-        // 7. Actualizar stock de productos
-        actualizarStock(carrito.getDetalles());
+        // 8. Actualizar stock de productos
+        if (stockReservaService.isHabilitado()) {
+            confirmarReservas(emailCliente, carrito.getDetalles(), productos);
+        } else {
+            actualizarStock(carrito.getDetalles(), productos);
+            eventPublisher.publishEvent(new CatalogoModificadoEvent("venta:stock"));
+        }
         
-        // 8. Guardar la venta
+        // 9. Guardar la venta
         venta.setEstado("COMPLETADO");
         venta = ventaRepository.save(venta);
         
-        // 9. Marcar carrito como procesado
+        // 10. Marcar carrito como procesado
         carrito.setEstado("PROCESADO");
         carritoRepository.save(carrito);
+        carritoMemoriaService.descartarAlConfirmar(emailCliente, carrito);
         
-        logger.info("Venta procesada exitosamente - ID: {}, Total: {}", venta.getIdVenta(), venta.getTotal());
+        // 11. Notificar la venta (los oyentes actúan tras el commit)
+        eventPublisher.publishEvent(crearEventoVentaCompletada(venta));
         
-        return convertirADTO(venta);
+        return venta;
     }
     
     @Override
@@ -141,7 +369,7 @@ public class VentaServiceImpl implements VentaService {
         Cliente cliente = clienteRepository.findByEmailAndActivo(emailCliente, true)
             .orElseThrow(() -> new ResourceNotFoundException("Cliente no encontrado: " + emailCliente));
         
-        Venta venta = ventaRepository.findById(ventaId)
+        Venta venta = ventaRepository.findCompletaById(ventaId)
             .orElseThrow(() -> new ResourceNotFoundException("Venta no encontrada: " + ventaId));
         
         // Validar que la venta pertenece al cliente
@@ -150,7 +378,7 @@ public class VentaServiceImpl implements VentaService {
         }
         
         Map<String, Object> comprobante = new HashMap<>();
-        comprobante.put("venta", convertirADTO(venta));
+        comprobante.put("venta", VentaMapper.convertirADTO(venta));
         comprobante.put("cliente", cliente);
         comprobante.put("fechaGeneracion", LocalDateTime.now());
         comprobante.put("numeroComprobante", "COMP-" + ventaId);
@@ -163,60 +391,118 @@ public class VentaServiceImpl implements VentaService {
     public VentaDTO buscarVentaPorId(Long ventaId) {
         logger.debug("Buscando venta por ID: {}", ventaId);
         
-        Venta venta = ventaRepository.findById(ventaId)
+        Venta venta = ventaRepository.findCompletaById(ventaId)
             .orElseThrow(() -> new ResourceNotFoundException("Venta no encontrada: " + ventaId));
         
-        return convertirADTO(venta);
+        return VentaMapper.convertirADTO(venta);
     }
     
-    private void actualizarStock(java.util.List<DetalleCarrito> detalles) {
-        for (DetalleCarrito detalle : detalles) {
-            if ("PRODUCTO".equalsIgnoreCase(detalle.getTipo())) {
-                // Buscar el producto
-                Producto producto = productoRepository.findById(detalle.getIdItem())
-                    .orElseThrow(() -> new ResourceNotFoundException(
-                        "Producto no encontrado: " + detalle.getIdItem()));
-                
-                // Verificar si hay suficiente stock
-                if (producto.getStock() < detalle.getCantidad()) {
-                    throw new IllegalStateException(
-                        "Stock insuficiente para el producto: " + producto.getNombre() + 
-                        ". Disponible: " + producto.getStock() + 
-                        ", Solicitado: " + detalle.getCantidad());
-                }
-                
-                // Actualizar el stock
-                int nuevoStock = producto.getStock() - detalle.getCantidad();
-                producto.setStock(nuevoStock);
-                
-                // NO desactivar el producto, solo actualizar stock
-                // El producto seguirá visible pero mostrará "Sin stock"
-                
-                productoRepository.save(producto);
-                
-                logger.info("Stock actualizado - Producto: {} (ID: {}), Stock anterior: {}, Vendido: {}, Nuevo stock: {}", 
-                           producto.getNombre(), 
-                           producto.getIdProducto(),
-                           producto.getStock() + detalle.getCantidad(),
-                           detalle.getCantidad(), 
-                           nuevoStock);
-                
-                if (nuevoStock <= 0) {
-                    logger.warn("Producto '{}' (ID: {}) sin stock disponible", 
-                               producto.getNombre(), producto.getIdProducto());
-                }
+    /**
+     * Carga con una sola consulta todos los productos referenciados por el carrito.
+     */
+    private Map<Long, Producto> cargarProductos(List<DetalleCarrito> detalles) {
+        Set<Long> ids = detalles.stream()
+            .filter(detalle -> "PRODUCTO".equalsIgnoreCase(detalle.getTipo()))
+            .map(DetalleCarrito::getIdItem)
+            .collect(Collectors.toSet());
+        
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return productoRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(Producto::getIdProducto, Function.identity()));
+    }
+    
+    /**
+     * Carga con una sola consulta todos los servicios referenciados por el carrito.
+     */
+    private Map<Long, Servicio> cargarServicios(List<DetalleCarrito> detalles) {
+        Set<Long> ids = detalles.stream()
+            .filter(detalle -> "SERVICIO".equalsIgnoreCase(detalle.getTipo()))
+            .map(DetalleCarrito::getIdItem)
+            .collect(Collectors.toSet());
+        
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return servicioRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(Servicio::getIdServicio, Function.identity()));
+    }
+    
+    /**
+     * Descuenta el stock de cada producto con un UPDATE condicional atómico.
+     * 
+     * Los productos se procesan en orden ascendente de ID para que dos ventas
+     * concurrentes tomen los bloqueos de fila en el mismo orden y no se produzcan
+     * deadlocks. Si alguna línea no tiene stock suficiente se lanza
+     * {@link StockInsuficienteException} y la transacción revierte los descuentos previos.
+     */
+    private void actualizarStock(List<DetalleCarrito> detalles, Map<Long, Producto> productos) {
+        Map<Long, Integer> cantidades = agruparCantidades(detalles);
+        
+        for (Map.Entry<Long, Integer> entrada : cantidades.entrySet()) {
+            Producto producto = productos.get(entrada.getKey());
+            if (producto == null) {
+                throw new ResourceNotFoundException("Producto no encontrado: " + entrada.getKey());
+            }
+            
+            int cantidad = entrada.getValue();
+            
+            // NO desactivar el producto, solo actualizar stock
+            // El producto seguirá visible pero mostrará "Sin stock"
+            if (productoRepository.decrementarStock(producto.getIdProducto(), cantidad) == 0) {
+                logger.warn("Stock insuficiente - Producto: {} (ID: {}), Solicitado: {}", 
+                           producto.getNombre(), producto.getIdProducto(), cantidad);
+                throw new StockInsuficienteException(producto.getIdProducto(), producto.getNombre(), cantidad);
             }
+            
+            logger.info("Stock actualizado - Producto: {} (ID: {}), Vendido: {}", 
+                       producto.getNombre(), producto.getIdProducto(), cantidad);
         }
     }
     
-    private VentaDTO convertirADTO(Venta venta) {
-        VentaDTO dto = modelMapper.map(venta, VentaDTO.class);
+    /**
+     * Asegura las unidades vendidas en el registro de reservas en memoria.
+     * 
+     * Las unidades quedan registradas en stock_pendiente dentro de esta
+     * transacción y el lote siguiente las descuenta del producto, sin tocar
+     * la fila del producto en esta transacción.
+     */
+    private void confirmarReservas(String emailCliente, List<DetalleCarrito> detalles, Map<Long, Producto> productos) {
+        Map<Long, Integer> cantidades = agruparCantidades(detalles);
         
-        if (venta.getCliente() != null) {
-            dto.setNombreCliente(venta.getCliente().getNombreCliente());
-            dto.setEmailCliente(venta.getCliente().getEmail());
+        for (Long idProducto : cantidades.keySet()) {
+            if (!productos.containsKey(idProducto)) {
+                throw new ResourceNotFoundException("Producto no encontrado: " + idProducto);
+            }
         }
         
-        return dto;
+        stockReservaService.reservarParaVenta(emailCliente, cantidades).ifPresent(idProducto -> {
+            Producto producto = productos.get(idProducto);
+            logger.warn("Stock insuficiente - Producto: {} (ID: {}), Solicitado: {}", 
+                       producto.getNombre(), idProducto, cantidades.get(idProducto));
+            throw new StockInsuficienteException(idProducto, producto.getNombre(), cantidades.get(idProducto));
+        });
+    }
+    
+    /**
+     * Agrupa las cantidades por producto, ordenadas por ID.
+     */
+    private Map<Long, Integer> agruparCantidades(List<DetalleCarrito> detalles) {
+        Map<Long, Integer> cantidades = new TreeMap<>();
+        for (DetalleCarrito detalle : detalles) {
+            if ("PRODUCTO".equalsIgnoreCase(detalle.getTipo())) {
+                cantidades.merge(detalle.getIdItem(), detalle.getCantidad(), Integer::sum);
+            }
+        }
+        return cantidades;
+    }
+    
+    private VentaCompletadaEvent crearEventoVentaCompletada(Venta venta) {
+        List<VentaCompletadaEvent.Linea> lineas = venta.getDetalles().stream()
+            .map(detalle -> new VentaCompletadaEvent.Linea(detalle.getTipo(), detalle.getIdProductoServicio(),
+                detalle.getNombre(), detalle.getCantidad(), detalle.getSubtotal()))
+            .collect(Collectors.toList());
+        return new VentaCompletadaEvent(venta.getIdVenta(), venta.getFechaVenta(), venta.getTotal(), lineas);
     }
 }
\ No newline at end of file
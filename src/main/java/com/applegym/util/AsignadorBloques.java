@@ -0,0 +1,62 @@
+package com.applegym.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Asignador hi/lo de números correlativos por serie.
+ *
+ * Reserva bloques de {@code tamanoBloque} valores en la fuente (una tabla de
+ * secuencias) y los entrega desde memoria, de modo que solo una de cada
+ * {@code tamanoBloque} llamadas accede a la base de datos. Los números son
+ * únicos entre instancias y crecientes dentro de cada una; los valores de un
+ * bloque no usado (reinicio, rollback) se pierden y dejan huecos.
+ */
+public final class AsignadorBloques {
+
+    /**
+     * Fuente de bloques: reserva {@code tamano} valores consecutivos de la serie
+     * y devuelve el primero.
+     */
+    @FunctionalInterface
+    public interface FuenteBloques {
+        long reservarBloque(String serie, int tamano);
+    }
+
+    private final FuenteBloques fuente;
+
+    private final int tamanoBloque;
+
+    private final ConcurrentMap<String, Bloque> bloques = new ConcurrentHashMap<>();
+
+    public AsignadorBloques(FuenteBloques fuente, int tamanoBloque) {
+        if (tamanoBloque <= 0) {
+            throw new IllegalArgumentException("El tamaño de bloque debe ser mayor a 0");
+        }
+        this.fuente = fuente;
+        this.tamanoBloque = tamanoBloque;
+    }
+
+    /**
+     * Devuelve el siguiente número de la serie.
+     */
+    public long siguiente(String serie) {
+        Bloque bloque = bloques.computeIfAbsent(serie, s -> new Bloque());
+        synchronized (bloque) {
+            if (bloque.siguiente >= bloque.limite) {
+                long inicio = fuente.reservarBloque(serie, tamanoBloque);
+                bloque.siguiente = inicio;
+                bloque.limite = inicio + tamanoBloque;
+            }
+            return bloque.siguiente++;
+        }
+    }
+
+    /**
+     * Rango [siguiente, limite) aún disponible en memoria para una serie.
+     */
+    private static final class Bloque {
+        private long siguiente;
+        private long limite;
+    }
+}
@@ -0,0 +1,115 @@
+package com.applegym.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Utilidades de texto para la búsqueda del catálogo.
+ *
+ * Normaliza y tokeniza texto en español: elimina tildes y diéresis, pasa a
+ * minúsculas, descarta palabras vacías y reduce plurales simples
+ * ("proteínas" → "proteina", "sesiones" → "sesion").
+ */
+public final class TextoBusquedaUtil {
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private static final Set<String> PALABRAS_VACIAS = Set.of(
+            "a", "al", "con", "de", "del", "el", "en", "es", "la", "las", "lo", "los",
+            "o", "para", "por", "se", "sin", "su", "sus", "un", "una", "unos", "unas", "y");
+
+    private TextoBusquedaUtil() {
+    }
+
+    /**
+     * Quita tildes y pasa a minúsculas ("Proteína" → "proteina").
+     *
+     * @param texto Texto original (puede ser null)
+     * @return Texto normalizado, vacío si era null
+     */
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String descompuesto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        return MARCAS_DIACRITICAS.matcher(descompuesto).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Divide el texto en términos indexables.
+     *
+     * @param texto Texto original
+     * @return Términos normalizados, en orden de aparición
+     */
+    public static List<String> tokenizar(String texto) {
+        List<String> terminos = new ArrayList<>();
+        for (String token : SEPARADORES.split(normalizar(texto))) {
+            if (!token.isEmpty() && !PALABRAS_VACIAS.contains(token)) {
+                terminos.add(reducirPlural(token));
+            }
+        }
+        return terminos;
+    }
+
+    /**
+     * Distancia de edición (Damerau-Levenshtein restringida) acotada.
+     *
+     * @param a Primer término
+     * @param b Segundo término
+     * @param maximo Distancia máxima de interés
+     * @return La distancia, o {@code maximo + 1} si la supera
+     */
+    public static int distanciaEdicion(String a, String b, int maximo) {
+        if (Math.abs(a.length() - b.length()) > maximo) {
+            return maximo + 1;
+        }
+
+        int[] anterior2 = new int[b.length() + 1];
+        int[] anterior = new int[b.length() + 1];
+        int[] actual = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            anterior[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            actual[0] = i;
+            int minimoFila = actual[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int costo = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int valor = Math.min(Math.min(actual[j - 1] + 1, anterior[j] + 1), anterior[j - 1] + costo);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    valor = Math.min(valor, anterior2[j - 2] + 1);
+                }
+                actual[j] = valor;
+                minimoFila = Math.min(minimoFila, valor);
+            }
+            if (minimoFila > maximo) {
+                return maximo + 1;
+            }
+            int[] temporal = anterior2;
+            anterior2 = anterior;
+            anterior = actual;
+            actual = temporal;
+        }
+        return Math.min(anterior[b.length()], maximo + 1);
+    }
+
+    private static String reducirPlural(String token) {
+        if (token.length() > 4 && token.endsWith("es")) {
+            char previa = token.charAt(token.length() - 3);
+            if ("lnrdzj".indexOf(previa) >= 0) {
+                return token.substring(0, token.length() - 2);
+            }
+        }
+        if (token.length() > 3 && token.endsWith("s") && !token.endsWith("ss")) {
+            return token.substring(0, token.length() - 1);
+        }
+        return token;
+    }
+}
@@ -0,0 +1,99 @@
+package com.applegym.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.applegym.security.JwtTokenProvider;
+import com.applegym.service.VentaService;
+
+/**
+ * Tests unitarios para VentaController.
+ *
+ * Valida que el checkout por lotes solo lo pueden usar administradores.
+ *
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class VentaControllerTest {
+
+    private static final String TOKEN = "token";
+
+    @Mock
+    private VentaService ventaService;
+
+    @Mock
+    private JwtTokenProvider tokenProvider;
+
+    @InjectMocks
+    private VentaController ventaController;
+
+    private MockHttpServletRequest httpRequest;
+
+    private Map<String, Object> lote;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(ventaController, "maximoVentasPorLote", 500);
+        httpRequest = new MockHttpServletRequest();
+        httpRequest.addHeader("Authorization", "Bearer " + TOKEN);
+        lote = Map.of("ventas", List.of(Map.of("emailCliente", "luis@applegym.com", "metodoPago", "TARJETA_CREDITO")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testProcesarVentasEnLote_Cliente_Devuelve403() {
+        // Arrange
+        autenticar("ana@applegym.com", "ROLE_CLIENTE");
+
+        // Act
+        ResponseEntity<?> respuesta = ventaController.procesarVentasEnLote(lote, httpRequest);
+
+        // Assert
+        assertEquals(403, respuesta.getStatusCode().value());
+        verifyNoInteractions(ventaService);
+    }
+
+    @Test
+    void testProcesarVentasEnLote_Administrador_ProcesaElLote() {
+        // Arrange
+        autenticar("admin@applegym.com", "ROLE_ADMIN");
+        when(ventaService.procesarVentasEnLote(anyList())).thenReturn(List.of());
+
+        // Act
+        ResponseEntity<?> respuesta = ventaController.procesarVentasEnLote(lote, httpRequest);
+
+        // Assert
+        assertEquals(200, respuesta.getStatusCode().value());
+        verify(ventaService).procesarVentasEnLote(anyList());
+    }
+
+    private void autenticar(String email, String rol) {
+        when(tokenProvider.getUsernameFromToken(TOKEN)).thenReturn(email);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+            email, null, List.of(new SimpleGrantedAuthority(rol))));
+    }
+}
@@ -0,0 +1,231 @@
+package com.applegym.mapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import com.applegym.config.ModelMapperConfig;
+import com.applegym.dto.CarritoDTO;
+import com.applegym.dto.DetalleCarritoDTO;
+import com.applegym.dto.ProductoDTO;
+import com.applegym.dto.ServicioDTO;
+import com.applegym.dto.VentaDTO;
+import com.applegym.entity.Carrito;
+import com.applegym.entity.Categoria;
+import com.applegym.entity.Cliente;
+import com.applegym.entity.Comprobante;
+import com.applegym.entity.DetalleCarrito;
+import com.applegym.entity.DetalleVenta;
+import com.applegym.entity.Pago;
+import com.applegym.entity.Producto;
+import com.applegym.entity.Promocion;
+import com.applegym.entity.Servicio;
+import com.applegym.entity.Venta;
+
+/**
+ * Tests de equivalencia de los mappers con la conversión anterior.
+ *
+ * Compara campo a campo cada DTO con el que producía ModelMapper (con la
+ * configuración de ModelMapperConfig y los ajustes que hacían los servicios).
+ *
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+class MapperEquivalenciaTest {
+
+    private ModelMapper modelMapper;
+
+    private Categoria categoria;
+
+    private Cliente cliente;
+
+    @BeforeEach
+    void setUp() {
+        modelMapper = new ModelMapperConfig().modelMapper();
+
+        categoria = new Categoria("Suplementos", "Nutrición deportiva");
+        categoria.setIdCategoria(7L);
+
+        cliente = new Cliente("Ana Torres", "ana@applegym.com", "secreta123");
+        cliente.setIdCliente(3L);
+    }
+
+    @Test
+    void productoMapper_EquivaleAModelMapper() {
+        Producto completo = crearProducto(1L, 5);
+        completo.setImagenUrl("/img/whey.png");
+        completo.setFechaActualizacion(LocalDateTime.of(2024, 5, 1, 10, 30));
+
+        Producto sinCategoria = crearProducto(2L, 0);
+        sinCategoria.setCategoria(null);
+        sinCategoria.setActivo(false);
+
+        for (Producto producto : new Producto[] { completo, sinCategoria }) {
+            assertThat(ProductoMapper.convertirADTO(producto))
+                .usingRecursiveComparison()
+                .isEqualTo(productoConModelMapper(producto));
+        }
+    }
+
+    @Test
+    void servicioMapper_EquivaleAModelMapper() {
+        Servicio completo = crearServicio(2L);
+        completo.setCapacidadMaxima(20);
+        completo.setImagenUrl("/img/yoga.png");
+
+        Servicio sinCategoria = crearServicio(3L);
+        sinCategoria.setCategoria(null);
+        sinCategoria.setActivo(false);
+
+        for (Servicio servicio : new Servicio[] { completo, sinCategoria }) {
+            assertThat(ServicioMapper.convertirADTO(servicio))
+                .usingRecursiveComparison()
+                .isEqualTo(servicioConModelMapper(servicio));
+        }
+    }
+
+    @Test
+    void carritoMapper_EquivaleAModelMapper() {
+        Carrito carrito = new Carrito(cliente);
+        carrito.setIdCarrito(4L);
+        carrito.setFechaActualizacion(LocalDateTime.of(2024, 5, 1, 11, 0));
+
+        Promocion promocion = new Promocion();
+        promocion.setIdPromocion(9L);
+        promocion.setNombre("2x1 en proteínas");
+
+        // Con descuento: el subtotal no coincide con precio x cantidad
+        DetalleCarrito conDescuento = new DetalleCarrito();
+        conDescuento.setIdDetalleCarrito(5L);
+        conDescuento.setCarrito(carrito);
+        conDescuento.setProducto(crearProducto(1L, 5));
+        conDescuento.setPromocion(promocion);
+        conDescuento.setCantidad(2);
+        conDescuento.setPrecioUnitario(new BigDecimal("99.90"));
+        conDescuento.setDescuentoAplicado(new BigDecimal("10.00"));
+
+        DetalleCarrito servicio = new DetalleCarrito();
+        servicio.setIdDetalleCarrito(6L);
+        servicio.setCarrito(carrito);
+        servicio.setServicio(crearServicio(2L));
+        servicio.setCantidad(1);
+        servicio.setPrecioUnitario(new BigDecimal("150.00"));
+
+        carrito.getDetalles().add(conDescuento);
+        carrito.getDetalles().add(servicio);
+        carrito.setTotal(conDescuento.getSubtotal().add(servicio.getSubtotal()));
+
+        assertThat(CarritoMapper.convertirADTO(carrito))
+            .usingRecursiveComparison()
+            .isEqualTo(carritoConModelMapper(carrito));
+
+        Carrito vacio = new Carrito(cliente);
+        vacio.setIdCarrito(8L);
+        assertThat(CarritoMapper.convertirADTO(vacio))
+            .usingRecursiveComparison()
+            .isEqualTo(carritoConModelMapper(vacio));
+    }
+
+    @Test
+    void ventaMapper_EquivaleAModelMapper() {
+        Venta completa = new Venta(cliente, new BigDecimal("199.80"));
+        completa.setIdVenta(6L);
+        completa.setNumeroVenta("VT-0000000006");
+        completa.setEstado("COMPLETADO");
+
+        DetalleVenta detalle = new DetalleVenta();
+        detalle.setIdDetalle(8L);
+        detalle.setVenta(completa);
+        detalle.setIdProductoServicio(1L);
+        detalle.setTipo("PRODUCTO");
+        detalle.setNombre("Proteína Whey");
+        detalle.setCantidad(2);
+        detalle.setPrecioUnitario(new BigDecimal("99.90"));
+        detalle.setSubtotal(new BigDecimal("199.80"));
+        completa.getDetalles().add(detalle);
+
+        Pago pago = new Pago(completa, Pago.TipoPago.values()[0], new BigDecimal("199.80"));
+        pago.setIdPago(10L);
+        completa.setPago(pago);
+
+        Comprobante comprobante = new Comprobante(completa, Comprobante.TipoComprobante.BOLETA);
+        comprobante.setIdComprobante(11L);
+        comprobante.setArchivoComprobante("ab/cd/abcd.pdf");
+        completa.setComprobante(comprobante);
+
+        Venta sinPago = new Venta(cliente, new BigDecimal("50.00"));
+        sinPago.setIdVenta(12L);
+
+        for (Venta venta : new Venta[] { completa, sinPago }) {
+            assertThat(VentaMapper.convertirADTO(venta))
+                .usingRecursiveComparison()
+                .isEqualTo(ventaConModelMapper(venta));
+        }
+    }
+
+    // Conversión anterior de los servicios, con ModelMapper
+
+    private ProductoDTO productoConModelMapper(Producto producto) {
+        ProductoDTO dto = modelMapper.map(producto, ProductoDTO.class);
+        if (producto.getCategoria() != null) {
+            dto.setIdCategoria(producto.getCategoria().getIdCategoria());
+            dto.setNombreCategoria(producto.getCategoria().getNombreCategoria());
+        }
+        dto.setDisponible(producto.isDisponible());
+        return dto;
+    }
+
+    private ServicioDTO servicioConModelMapper(Servicio servicio) {
+        ServicioDTO dto = modelMapper.map(servicio, ServicioDTO.class);
+        if (servicio.getCategoria() != null) {
+            dto.setIdCategoria(servicio.getCategoria().getIdCategoria());
+            dto.setNombreCategoria(servicio.getCategoria().getNombreCategoria());
+        }
+        dto.setDisponible(servicio.isDisponible());
+        return dto;
+    }
+
+    private CarritoDTO carritoConModelMapper(Carrito carrito) {
+        CarritoDTO dto = modelMapper.map(carrito, CarritoDTO.class);
+        if (carrito.getCliente() != null) {
+            dto.setNombreCliente(carrito.getCliente().getNombreCliente());
+        }
+        dto.setDetalles(carrito.getDetalles().stream()
+            .map(detalle -> {
+                DetalleCarritoDTO detalleDTO = modelMapper.map(detalle, DetalleCarritoDTO.class);
+                detalleDTO.setNombreItem(detalle.getNombreItem());
+                detalleDTO.setDescripcionItem(detalle.getDescripcionItem());
+                return detalleDTO;
+            })
+            .collect(Collectors.toList()));
+        return dto;
+    }
+
+    private VentaDTO ventaConModelMapper(Venta venta) {
+        VentaDTO dto = modelMapper.map(venta, VentaDTO.class);
+        if (venta.getCliente() != null) {
+            dto.setNombreCliente(venta.getCliente().getNombreCliente());
+            dto.setEmailCliente(venta.getCliente().getEmail());
+        }
+        return dto;
+    }
+
+    private Producto crearProducto(Long id, int stock) {
+        Producto producto = new Producto("Proteína Whey", "Proteína de suero 2kg", new BigDecimal("99.90"), stock);
+        producto.setIdProducto(id);
+        producto.setCategoria(categoria);
+        return producto;
+    }
+
+    private Servicio crearServicio(Long id) {
+        Servicio servicio = new Servicio("Yoga", "Clases de yoga", new BigDecimal("150.00"), 30);
+        servicio.setIdServicio(id);
+        servicio.setCategoria(categoria);
+        return servicio;
+    }
+}
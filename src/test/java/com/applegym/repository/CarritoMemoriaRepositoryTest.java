@@ -0,0 +1,207 @@
+package com.applegym.repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.applegym.entity.Carrito;
+import com.applegym.entity.Cliente;
+import com.applegym.entity.DetalleCarrito;
+import com.applegym.service.impl.CarritoMemoriaServiceImpl;
+
+/**
+ * Tests para los carritos en memoria con escritura diferida.
+ *
+ * Verifica que varias modificaciones se escriben juntas en una sola fila de
+ * carrito, que un carrito cerrado en la base de datos no se reactiva y que
+ * los cambios hechos durante el checkout pasan a un carrito nuevo.
+ *
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(CarritoMemoriaServiceImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CarritoMemoriaRepositoryTest {
+
+    private static final String EMAIL = "ana@applegym.com";
+
+    @Autowired
+    private CarritoRepository carritoRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private CarritoMemoriaServiceImpl carritoMemoriaService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        clienteRepository.save(new Cliente("Ana Torres", EMAIL, "secreta123"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        carritoMemoriaService.descartar(EMAIL);
+        carritoRepository.deleteAll();
+        clienteRepository.deleteAll();
+    }
+
+    @Test
+    void escribirPendientes_AgrupaModificacionesEnUnaEscritura() {
+        // Arrange
+        carritoMemoriaService.modificar(EMAIL, carrito -> agregar(carrito, 1L, 2, "50.00"));
+        carritoMemoriaService.modificar(EMAIL, carrito -> agregar(carrito, 2L, 1, "30.00"));
+        carritoMemoriaService.modificar(EMAIL, carrito -> agregar(carrito, 3L, 1, "10.00"));
+        carritoMemoriaService.modificar(EMAIL, carrito -> carrito.getDetalles().removeIf(d -> d.getIdItem() == 3L));
+        assertEquals(0L, carritoRepository.count());
+
+        // Act
+        int escritos = carritoMemoriaService.escribirPendientes();
+
+        // Assert
+        assertEquals(1, escritos);
+        assertEquals(0, carritoMemoriaService.escribirPendientes());
+        Carrito guardado = carritoRepository.findAll().get(0);
+        List<DetalleCarrito> detalles = detallesGuardados(guardado.getIdCarrito());
+        assertEquals(2, detalles.size());
+        assertEquals("ACTIVO", guardado.getEstado());
+
+        Long idCarrito = carritoMemoriaService.leer(EMAIL, Carrito::getIdCarrito);
+        assertEquals(guardado.getIdCarrito(), idCarrito);
+        assertNotNull(carritoMemoriaService.leer(EMAIL, carrito -> carrito.getDetalles().get(0).getIdDetalleCarrito()));
+    }
+
+    @Test
+    void escribir_ActualizaElMismoCarritoSinDuplicarlo() {
+        // Arrange
+        carritoMemoriaService.modificar(EMAIL, carrito -> agregar(carrito, 1L, 2, "50.00"));
+        carritoMemoriaService.escribir(EMAIL);
+        carritoMemoriaService.modificar(EMAIL, carrito -> {
+            carrito.getDetalles().get(0).setCantidad(5);
+            return agregar(carrito, 2L, 1, "30.00");
+        });
+
+        // Act
+        carritoMemoriaService.escribir(EMAIL);
+
+        // Assert
+        assertEquals(1L, carritoRepository.count());
+        Carrito guardado = carritoRepository.findAll().get(0);
+        List<DetalleCarrito> detalles = detallesGuardados(guardado.getIdCarrito());
+        assertEquals(2, detalles.size());
+        assertEquals(6, detalles.stream().mapToInt(DetalleCarrito::getCantidad).sum());
+    }
+
+    @Test
+    void escribir_CarritoProcesadoEnBaseDeDatos_NoLoReactivaYConservaLoNuevo() {
+        // Arrange
+        carritoMemoriaService.modificar(EMAIL, carrito -> agregar(carrito, 1L, 2, "50.00"));
+        carritoMemoriaService.escribir(EMAIL);
+        Carrito procesado = carritoRepository.findAll().get(0);
+        procesado.setEstado("PROCESADO");
+        carritoRepository.save(procesado);
+        carritoMemoriaService.modificar(EMAIL, carrito -> agregar(carrito, 2L, 1, "30.00"));
+
+        // Act
+        carritoMemoriaService.escribirPendientes();
+
+        // Assert
+        assertEquals("PROCESADO", carritoRepository.findById(procesado.getIdCarrito()).orElseThrow().getEstado());
+        assertNull(carritoMemoriaService.leer(EMAIL, Carrito::getIdCarrito));
+        assertEquals(List.of(2L), idsItems());
+    }
+
+    @Test
+    void descartarAlConfirmar_CambiosDuranteElCheckout_PasanAUnCarritoNuevo() {
+        // Arrange
+        carritoMemoriaService.modificar(EMAIL, carrito -> agregar(carrito, 1L, 2, "50.00"));
+        carritoMemoriaService.escribir(EMAIL);
+        Long idVendido = carritoRepository.findAll().get(0).getIdCarrito();
+
+        // Act: el cliente agrega un item entre la escritura del checkout y su commit
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Carrito vendido = carritoRepository.findConDetallesById(idVendido).orElseThrow();
+            carritoMemoriaService.modificar(EMAIL, carrito -> agregar(carrito, 2L, 1, "30.00"));
+            carritoMemoriaService.modificar(EMAIL, carrito -> {
+                carrito.getDetalles().get(0).setCantidad(3);
+                return true;
+            });
+            vendido.setEstado("PROCESADO");
+            carritoMemoriaService.descartarAlConfirmar(EMAIL, vendido);
+        });
+        carritoMemoriaService.escribirPendientes();
+
+        // Assert
+        assertEquals("PROCESADO", carritoRepository.findById(idVendido).orElseThrow().getEstado());
+        Carrito nuevo = carritoRepository.findAll().stream()
+            .filter(carrito -> "ACTIVO".equals(carrito.getEstado()))
+            .findFirst().orElseThrow();
+        List<DetalleCarrito> detalles = detallesGuardados(nuevo.getIdCarrito());
+        assertEquals(2, detalles.size());
+        assertEquals(2, detalles.stream().mapToInt(DetalleCarrito::getCantidad).sum());
+        assertEquals(nuevo.getIdCarrito(), carritoMemoriaService.leer(EMAIL, Carrito::getIdCarrito));
+    }
+
+    @Test
+    void descartarAlConfirmar_SinCambiosDuranteElCheckout_DescartaElCarrito() {
+        // Arrange
+        carritoMemoriaService.modificar(EMAIL, carrito -> agregar(carrito, 1L, 2, "50.00"));
+        carritoMemoriaService.escribir(EMAIL);
+        Long idVendido = carritoRepository.findAll().get(0).getIdCarrito();
+
+        // Act
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Carrito vendido = carritoRepository.findConDetallesById(idVendido).orElseThrow();
+            vendido.setEstado("PROCESADO");
+            carritoMemoriaService.descartarAlConfirmar(EMAIL, vendido);
+        });
+
+        // Assert
+        assertEquals(0, carritoMemoriaService.obtenerEstado().get("pendientes"));
+        assertNull(carritoMemoriaService.leer(EMAIL, Carrito::getIdCarrito));
+        assertEquals(List.of(), idsItems());
+    }
+
+    private List<DetalleCarrito> detallesGuardados(Long idCarrito) {
+        return new TransactionTemplate(transactionManager).execute(status ->
+            carritoRepository.findConDetallesById(idCarrito).orElseThrow().getDetalles());
+    }
+
+    private List<Long> idsItems() {
+        return carritoMemoriaService.leer(EMAIL, carrito ->
+            carrito.getDetalles().stream().map(DetalleCarrito::getIdItem).toList());
+    }
+
+    private boolean agregar(Carrito carrito, Long idItem, int cantidad, String precio) {
+        DetalleCarrito detalle = new DetalleCarrito();
+        detalle.setCarrito(carrito);
+        detalle.setTipo("PRODUCTO");
+        detalle.setIdItem(idItem);
+        detalle.setNombreItem("Producto " + idItem);
+        detalle.setPrecioUnitario(new BigDecimal(precio));
+        detalle.setCantidad(cantidad);
+        detalle.setSubtotal(new BigDecimal(precio).multiply(BigDecimal.valueOf(cantidad)));
+        return carrito.getDetalles().add(detalle);
+    }
+}
@@ -0,0 +1,100 @@
+package com.applegym.repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.applegym.dto.ProductoDTO;
+import com.applegym.dto.ServicioDTO;
+import com.applegym.entity.Categoria;
+import com.applegym.entity.Producto;
+import com.applegym.entity.Servicio;
+import com.applegym.mapper.ProductoMapper;
+import com.applegym.mapper.ServicioMapper;
+
+/**
+ * Tests para las proyecciones del listado del catálogo.
+ *
+ * Verifica que los DTOs leídos por constructor coinciden con los que se
+ * obtenían cargando las entidades, y que no quedan entidades gestionadas.
+ *
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class CatalogoProyeccionRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private ServicioRepository servicioRepository;
+
+    @BeforeEach
+    void setUp() {
+        Categoria suplementos = entityManager.persist(new Categoria("Suplementos", "Nutrición deportiva"));
+
+        Producto whey = new Producto("Proteína Whey", "Proteína de suero 2kg", new BigDecimal("99.90"), 10);
+        whey.setCategoria(suplementos);
+        whey.setImagenUrl("/img/whey.png");
+        entityManager.persist(whey);
+        entityManager.persist(new Producto("Creatina", "Sin categoría", new BigDecimal("59.90"), 0));
+        Producto inactivo = new Producto("BCAA", "Retirado", new BigDecimal("39.90"), 5);
+        inactivo.setActivo(false);
+        entityManager.persist(inactivo);
+
+        Servicio yoga = new Servicio("Yoga", "Clases de yoga", new BigDecimal("150.00"), 30);
+        yoga.setCategoria(suplementos);
+        yoga.setCapacidadMaxima(20);
+        entityManager.persist(yoga);
+        entityManager.persist(new Servicio("Asesoría", "Sin categoría", new BigDecimal("80.00"), 7));
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findResumenActivos_Productos_CoincideConLasEntidades() {
+        // Act
+        List<ProductoDTO> proyectados = productoRepository.findResumenActivos();
+
+        // Assert
+        assertEquals(0, entityManager.getEntityManager().unwrap(SessionImplementor.class)
+            .getPersistenceContext().getNumberOfManagedEntities());
+        assertEquals(List.of("Creatina", "Proteína Whey"),
+            proyectados.stream().map(ProductoDTO::getNombre).toList());
+        for (ProductoDTO dto : proyectados) {
+            Producto producto = entityManager.find(Producto.class, dto.getIdProducto());
+            assertThat(dto).usingRecursiveComparison().isEqualTo(ProductoMapper.convertirADTO(producto));
+        }
+    }
+
+    @Test
+    void findResumenActivos_Servicios_CoincideConLasEntidades() {
+        // Act
+        List<ServicioDTO> proyectados = servicioRepository.findResumenActivos();
+
+        // Assert
+        assertEquals(List.of("Asesoría", "Yoga"),
+            proyectados.stream().map(ServicioDTO::getNombre).toList());
+        for (ServicioDTO dto : proyectados) {
+            Servicio servicio = entityManager.find(Servicio.class, dto.getIdServicio());
+            assertThat(dto).usingRecursiveComparison().isEqualTo(ServicioMapper.convertirADTO(servicio));
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.applegym.repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.applegym.dto.CategoriaDTO;
+import com.applegym.entity.Categoria;
+import com.applegym.entity.Producto;
+import com.applegym.entity.Servicio;
+
+/**
+ * Tests para la proyección de categorías con totales.
+ *
+ * Verifica que los totales contados en la consulta coinciden con los que
+ * daban las colecciones de la entidad.
+ *
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class CategoriaRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Test
+    void findResumenByActivo_CuentaProductosYServicios() {
+        // Arrange
+        Categoria suplementos = entityManager.persist(new Categoria("Suplementos", "Nutrición deportiva"));
+        Categoria clases = entityManager.persist(new Categoria("Clases", "Clases grupales"));
+        Categoria vacia = entityManager.persist(new Categoria("Accesorios", "Sin items"));
+        Categoria inactiva = new Categoria("Antigua", "Fuera de catálogo");
+        inactiva.setActivo(false);
+        entityManager.persist(inactiva);
+
+        crearProducto("Proteína Whey", suplementos, true);
+        crearProducto("Creatina", suplementos, true);
+        crearProducto("BCAA", suplementos, false);
+        crearServicio("Yoga", clases);
+        crearServicio("Spinning", clases);
+        crearServicio("Asesoría nutricional", suplementos);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        Map<String, CategoriaDTO> resumen = categoriaRepository.findResumenByActivo(true).stream()
+            .collect(Collectors.toMap(CategoriaDTO::getNombreCategoria, Function.identity()));
+
+        // Assert
+        assertEquals(3, resumen.size());
+        assertFalse(resumen.containsKey("Antigua"));
+        assertEquals(3, resumen.get("Suplementos").getTotalProductos());
+        assertEquals(1, resumen.get("Suplementos").getTotalServicios());
+        assertEquals(0, resumen.get("Clases").getTotalProductos());
+        assertEquals(2, resumen.get("Clases").getTotalServicios());
+        assertEquals(0, resumen.get("Accesorios").getTotalProductos());
+        assertEquals(0, resumen.get("Accesorios").getTotalServicios());
+        assertEquals(vacia.getIdCategoria(), resumen.get("Accesorios").getIdCategoria());
+
+        // Los totales coinciden con los de las colecciones de la entidad
+        List<Categoria> categorias = categoriaRepository.findByActivo(true);
+        for (Categoria categoria : categorias) {
+            CategoriaDTO dto = resumen.get(categoria.getNombreCategoria());
+            assertEquals(categoria.getTotalProductos(), dto.getTotalProductos());
+            assertEquals(categoria.getTotalServicios(), dto.getTotalServicios());
+        }
+    }
+
+    private void crearProducto(String nombre, Categoria categoria, boolean activo) {
+        Producto producto = new Producto(nombre, nombre, new BigDecimal("50.00"), 10);
+        producto.setCategoria(categoria);
+        producto.setActivo(activo);
+        entityManager.persist(producto);
+    }
+
+    private void crearServicio(String nombre, Categoria categoria) {
+        Servicio servicio = new Servicio(nombre, nombre, new BigDecimal("30.00"), 60);
+        servicio.setCategoria(categoria);
+        entityManager.persist(servicio);
+    }
+}
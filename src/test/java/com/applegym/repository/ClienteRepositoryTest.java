@@ -0,0 +1,64 @@
+package com.applegym.repository;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.applegym.entity.Carrito;
+import com.applegym.entity.Cliente;
+import com.applegym.entity.Venta;
+
+/**
+ * Tests para la consulta agregada de estadísticas de clientes.
+ *
+ * Verifica que los clientes con varios carritos o ventas se cuentan una sola vez.
+ *
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ClienteRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Test
+    void calcularEstadisticas_CuentaClientesDistintos() {
+        // Arrange
+        Cliente ana = entityManager.persist(new Cliente("Ana Torres", "ana@applegym.com", "secreta123"));
+        Cliente luis = entityManager.persist(new Cliente("Luis Rojas", "luis@applegym.com", "secreta123"));
+        Cliente inactivo = new Cliente("Eva Ruiz", "eva@applegym.com", "secreta123");
+        inactivo.setActivo(false);
+        entityManager.persist(inactivo);
+
+        entityManager.persist(new Carrito(ana));
+        entityManager.persist(new Carrito(ana));
+        Carrito convertido = new Carrito(luis);
+        convertido.setEstado("CONVERTIDO");
+        entityManager.persist(convertido);
+
+        entityManager.persist(new Venta(luis, new BigDecimal("50.00")));
+        entityManager.persist(new Venta(luis, new BigDecimal("20.00")));
+        entityManager.flush();
+
+        // Act
+        Object[] totales = clienteRepository.calcularEstadisticas().get(0);
+
+        // Assert
+        assertEquals(3L, ((Number) totales[0]).longValue());
+        assertEquals(2L, ((Number) totales[1]).longValue());
+        assertEquals(1L, ((Number) totales[2]).longValue());
+        assertEquals(1L, ((Number) totales[3]).longValue());
+    }
+}
@@ -0,0 +1,82 @@
+package com.applegym.repository;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.applegym.entity.Cliente;
+import com.applegym.entity.Comprobante;
+import com.applegym.entity.Venta;
+
+/**
+ * Tests para el marcado de errores de comprobantes.
+ *
+ * Verifica que un fallo del pipeline no sobrescribe un comprobante que
+ * otra ruta ya dejó generado.
+ *
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ComprobanteRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ComprobanteRepository comprobanteRepository;
+
+    @Test
+    void marcarError_Pendiente_QuedaConError() {
+        // Arrange
+        Long idVenta = crearVentaConComprobante("PENDIENTE");
+
+        // Act
+        int marcados = comprobanteRepository.marcarError(idVenta, "timeout");
+
+        // Assert
+        assertEquals(1, marcados);
+        assertEquals("ERROR", leerEstado(idVenta));
+    }
+
+    @Test
+    void marcarError_YaGenerado_NoSobrescribe() {
+        // Arrange
+        Long idVenta = crearVentaConComprobante("GENERADO");
+
+        // Act
+        int marcados = comprobanteRepository.marcarError(idVenta, "timeout");
+
+        // Assert
+        assertEquals(0, marcados);
+        assertEquals("GENERADO", leerEstado(idVenta));
+    }
+
+    private Long crearVentaConComprobante(String estado) {
+        Cliente cliente = entityManager.persist(new Cliente("Ana Torres", "ana@applegym.com", "secreta123"));
+        Venta venta = new Venta(cliente, new BigDecimal("99.90"));
+        venta.setEstado("COMPLETADO");
+        Comprobante comprobante = new Comprobante(venta, Comprobante.TipoComprobante.BOLETA);
+        comprobante.setEstadoComprobante(estado);
+        venta.setComprobante(comprobante);
+        Long idVenta = entityManager.persist(venta).getIdVenta();
+        entityManager.flush();
+        entityManager.clear();
+        return idVenta;
+    }
+
+    private String leerEstado(Long idVenta) {
+        entityManager.clear();
+        return comprobanteRepository.findByIdVentaConCliente(idVenta)
+            .map(Comprobante::getEstadoComprobante)
+            .orElseThrow();
+    }
+}
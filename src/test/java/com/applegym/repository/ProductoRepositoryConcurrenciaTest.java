@@ -0,0 +1,126 @@
+package com.applegym.repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.applegym.entity.Producto;
+
+/**
+ * Prueba de estrés para ProductoRepository.decrementarStock.
+ *
+ * Lanza muchas compras concurrentes de dos productos, cada una en su propia
+ * transacción y tomando los productos en orden de ID (como en el checkout),
+ * y verifica que el stock nunca queda negativo ni se vende de más.
+ *
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductoRepositoryConcurrenciaTest {
+
+    private static final int STOCK_INICIAL = 200;
+    private static final int HILOS = 16;
+    private static final int COMPRAS_POR_HILO = 50;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long idProductoA;
+    private Long idProductoB;
+
+    @BeforeEach
+    void setUp() {
+        idProductoA = productoRepository.save(
+            new Producto("Proteína Whey", "Promoción", new BigDecimal("99.90"), STOCK_INICIAL)).getIdProducto();
+        idProductoB = productoRepository.save(
+            new Producto("Shaker", "Promoción", new BigDecimal("19.90"), STOCK_INICIAL)).getIdProducto();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productoRepository.deleteAll();
+    }
+
+    @Test
+    void decrementarStock_ComprasConcurrentes_NoVendeDeMas() throws Exception {
+        // Arrange
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        AtomicInteger vendidosA = new AtomicInteger();
+        AtomicInteger vendidosB = new AtomicInteger();
+        AtomicInteger rechazadas = new AtomicInteger();
+        CountDownLatch inicio = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int h = 0; h < HILOS; h++) {
+            final int hilo = h;
+            tareas.add(executor.submit(() -> {
+                inicio.await();
+                for (int i = 0; i < COMPRAS_POR_HILO; i++) {
+                    int cantidadA = 1 + (hilo + i) % 3;
+                    int cantidadB = 1 + (hilo * i) % 2;
+                    Boolean vendido = transaccion.execute(status -> {
+                        // Mismo orden de bloqueo que el checkout: ID ascendente
+                        if (productoRepository.decrementarStock(idProductoA, cantidadA) == 0
+                                || productoRepository.decrementarStock(idProductoB, cantidadB) == 0) {
+                            status.setRollbackOnly();
+                            return false;
+                        }
+                        return true;
+                    });
+                    if (Boolean.TRUE.equals(vendido)) {
+                        vendidosA.addAndGet(cantidadA);
+                        vendidosB.addAndGet(cantidadB);
+                    } else {
+                        rechazadas.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        // Act
+        inicio.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Assert
+        int stockA = productoRepository.findById(idProductoA).orElseThrow().getStock();
+        int stockB = productoRepository.findById(idProductoB).orElseThrow().getStock();
+
+        assertTrue(stockA >= 0 && stockB >= 0);
+        assertEquals(STOCK_INICIAL - vendidosA.get(), stockA);
+        assertEquals(STOCK_INICIAL - vendidosB.get(), stockB);
+        // La demanda (≈ 1600 unidades de A) supera el stock: debe haber rechazos
+        assertTrue(rechazadas.get() > 0);
+    }
+}
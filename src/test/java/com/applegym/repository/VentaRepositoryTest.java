@@ -0,0 +1,138 @@
+package com.applegym.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.applegym.dto.VentaDTO;
+import com.applegym.dto.VentaHistorialDTO;
+import com.applegym.entity.Cliente;
+import com.applegym.entity.Comprobante;
+import com.applegym.entity.DetalleVenta;
+import com.applegym.entity.Pago;
+import com.applegym.entity.Venta;
+import com.applegym.mapper.VentaMapper;
+
+/**
+ * Tests para las lecturas de ventas.
+ *
+ * Verifica que findCompletaById trae cliente, detalles, pago y comprobante
+ * en una sola sentencia, y que el historial paginado por keyset recorre
+ * todas las ventas del cliente sin repetir ni saltar ninguna.
+ *
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class VentaRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private VentaRepository ventaRepository;
+
+    private Statistics estadisticas;
+
+    private Long idVenta;
+
+    @BeforeEach
+    void setUp() {
+        Cliente cliente = entityManager.persist(new Cliente("Ana Torres", "ana@applegym.com", "secreta123"));
+
+        Venta venta = new Venta(cliente, new BigDecimal("289.70"));
+        venta.setEstado("COMPLETADO");
+        for (int i = 1; i <= 3; i++) {
+            DetalleVenta detalle = new DetalleVenta();
+            detalle.setVenta(venta);
+            detalle.setIdProductoServicio((long) i);
+            detalle.setTipo("PRODUCTO");
+            detalle.setNombre("Producto " + i);
+            detalle.setCantidad(1);
+            detalle.setPrecioUnitario(new BigDecimal("96.57"));
+            detalle.setSubtotal(new BigDecimal("96.57"));
+            venta.getDetalles().add(detalle);
+        }
+        venta.setPago(new Pago(venta, Pago.TipoPago.values()[0], venta.getTotal()));
+        venta.setComprobante(new Comprobante(venta, Comprobante.TipoComprobante.BOLETA));
+        idVenta = entityManager.persist(venta).getIdVenta();
+
+        entityManager.flush();
+        entityManager.clear();
+
+        estadisticas = entityManager.getEntityManager().getEntityManagerFactory()
+            .unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+    }
+
+    @Test
+    void findHistorial_RecorreTodasLasVentasPorKeyset() {
+        // Arrange: 25 ventas más, varias con la misma fecha para ejercitar el desempate por id
+        Cliente cliente = entityManager.find(Venta.class, idVenta).getCliente();
+        LocalDateTime base = LocalDateTime.of(2024, 3, 1, 9, 0);
+        for (int i = 0; i < 25; i++) {
+            Venta venta = new Venta(cliente, new BigDecimal("10.00"));
+            venta.setFechaVenta(base.plusHours(i / 3));
+            entityManager.persist(venta);
+        }
+        Cliente otro = entityManager.persist(new Cliente("Luis Paz", "luis@applegym.com", "secreta123"));
+        entityManager.persist(new Venta(otro, new BigDecimal("5.00")));
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        List<VentaHistorialDTO> recorridas = new ArrayList<>();
+        List<VentaHistorialDTO> pagina = ventaRepository.findHistorialByClienteId(
+            cliente.getIdCliente(), PageRequest.of(0, 10));
+        while (!pagina.isEmpty()) {
+            recorridas.addAll(pagina);
+            VentaHistorialDTO ultima = pagina.get(pagina.size() - 1);
+            pagina = ventaRepository.findHistorialByClienteIdAntesDe(
+                cliente.getIdCliente(), ultima.getFechaVenta(), ultima.getIdVenta(), PageRequest.of(0, 10));
+        }
+
+        // Assert
+        List<Long> esperadas = ventaRepository.findByClienteId(cliente.getIdCliente()).stream()
+            .sorted(Comparator.comparing(Venta::getFechaVenta).thenComparing(Venta::getIdVenta).reversed())
+            .map(Venta::getIdVenta)
+            .toList();
+        assertEquals(26, esperadas.size());
+        assertEquals(esperadas, recorridas.stream().map(VentaHistorialDTO::getIdVenta).toList());
+    }
+
+    @Test
+    void findCompletaById_CargaLaVentaEnUnaSentencia() {
+        // Act
+        Venta venta = ventaRepository.findCompletaById(idVenta).orElseThrow();
+        VentaDTO dto = VentaMapper.convertirADTO(venta);
+
+        // Lo que además lee el PDF del comprobante
+        assertEquals("ana@applegym.com", venta.getCliente().getEmail());
+        assertNotNull(venta.getPago().getEstadoPago());
+        assertNotNull(venta.getComprobante().getNumeroComprobante());
+
+        // Assert
+        assertEquals(3, dto.getDetalles().size());
+        assertNotNull(dto.getPago());
+        assertNotNull(dto.getComprobante());
+        assertEquals("Ana Torres", dto.getNombreCliente());
+        assertEquals(1, estadisticas.getPrepareStatementCount());
+    }
+}
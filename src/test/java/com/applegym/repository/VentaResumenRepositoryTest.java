@@ -0,0 +1,133 @@
+package com.applegym.repository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.applegym.dto.VentasPorFechaDTO;
+import com.applegym.entity.Cliente;
+import com.applegym.entity.DetalleVenta;
+import com.applegym.entity.Venta;
+import com.applegym.entity.VentaResumenItem;
+
+/**
+ * Tests para los acumulados de ventas por hora y por item.
+ *
+ * Verifica que la reconstrucción desde el histórico y los upserts
+ * incrementales producen los mismos totales.
+ *
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class VentaResumenRepositoryTest {
+
+    private static final LocalDateTime AYER_10 = LocalDate.now().minusDays(1).atTime(10, 15);
+    private static final LocalDateTime AYER_10_B = LocalDate.now().minusDays(1).atTime(10, 45);
+    private static final LocalDateTime HOY_18 = LocalDate.now().atTime(18, 5);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private VentaResumenHoraRepository ventaResumenHoraRepository;
+
+    @Autowired
+    private VentaResumenItemRepository ventaResumenItemRepository;
+
+    @Autowired
+    private VentaRepository ventaRepository;
+
+    private Cliente cliente;
+
+    @BeforeEach
+    void setUp() {
+        cliente = entityManager.persist(new Cliente("Ana Torres", "ana@applegym.com", "secreta123"));
+    }
+
+    @Test
+    void reconstruir_AgrupaPorHoraYPorItem() {
+        // Arrange
+        crearVenta(AYER_10, "COMPLETADO", 1L, 2, "50.00");
+        crearVenta(AYER_10_B, "COMPLETADO", 1L, 1, "25.00");
+        crearVenta(HOY_18, "COMPLETADO", 2L, 3, "90.00");
+        crearVenta(HOY_18, "CANCELADO", 2L, 1, "30.00");
+        entityManager.flush();
+
+        // Act
+        ventaRepository.marcarCompletadasAcumuladasEnResumen();
+        ventaResumenHoraRepository.reconstruirDesdeVentas();
+        ventaResumenItemRepository.reconstruirDesdeDetalles();
+
+        // Assert
+        LocalDate hoy = LocalDate.now();
+        Object[] totales = ventaResumenHoraRepository.calcularTotales(hoy, hoy.minusDays(7), hoy.minusDays(30)).get(0);
+        assertEquals(0, new BigDecimal("165.00").compareTo((BigDecimal) totales[0]));
+        assertEquals(3L, ((Number) totales[1]).longValue());
+        assertEquals(0, new BigDecimal("90.00").compareTo((BigDecimal) totales[2]));
+
+        List<VentasPorFechaDTO> porFecha = ventaResumenHoraRepository.findVentasPorFecha(hoy.minusDays(1), hoy);
+        assertEquals(2, porFecha.size());
+        assertEquals(2L, porFecha.get(0).getCantidadVentas());
+
+        List<VentaResumenItem> ranking = ventaResumenItemRepository
+            .findByTipoOrderByCantidadDescTotalDesc("PRODUCTO", PageRequest.of(0, 1));
+        assertEquals(1, ranking.size());
+        assertEquals(2L, ranking.get(0).getIdItem());
+        assertEquals(3L, ranking.get(0).getCantidad());
+    }
+
+    @Test
+    void acumular_EquivaleAReconstruir() {
+        // Act
+        ventaResumenHoraRepository.acumular(AYER_10.toLocalDate(), 10, 1, new BigDecimal("50.00"));
+        ventaResumenHoraRepository.acumular(AYER_10_B.toLocalDate(), 10, 1, new BigDecimal("25.00"));
+        ventaResumenItemRepository.acumular("PRODUCTO", 1L, "Producto 1", 2, new BigDecimal("50.00"));
+        ventaResumenItemRepository.acumular("PRODUCTO", 1L, "Producto 1", 1, new BigDecimal("25.00"));
+        entityManager.clear();
+
+        // Assert
+        assertEquals(1, ventaResumenHoraRepository.count());
+        VentasPorFechaDTO dia = ventaResumenHoraRepository
+            .findVentasPorFecha(AYER_10.toLocalDate(), AYER_10.toLocalDate()).get(0);
+        assertEquals(2L, dia.getCantidadVentas());
+        assertEquals(0, new BigDecimal("75.00").compareTo(dia.getTotalVentas()));
+
+        VentaResumenItem item = ventaResumenItemRepository
+            .findByTipoOrderByCantidadDescTotalDesc("PRODUCTO", PageRequest.of(0, 10)).get(0);
+        assertEquals(3L, item.getCantidad());
+        assertEquals(0, new BigDecimal("75.00").compareTo(item.getTotal()));
+    }
+
+    private void crearVenta(LocalDateTime fecha, String estado, Long idProducto, int cantidad, String subtotal) {
+        Venta venta = new Venta(cliente, new BigDecimal(subtotal));
+        venta.setFechaVenta(fecha);
+        venta.setEstado(estado);
+
+        DetalleVenta detalle = new DetalleVenta();
+        detalle.setVenta(venta);
+        detalle.setIdProductoServicio(idProducto);
+        detalle.setTipo("PRODUCTO");
+        detalle.setNombre("Producto " + idProducto);
+        detalle.setCantidad(cantidad);
+        detalle.setPrecioUnitario(new BigDecimal(subtotal).divide(BigDecimal.valueOf(cantidad), 2, RoundingMode.HALF_UP));
+        detalle.setSubtotal(new BigDecimal(subtotal));
+        venta.getDetalles().add(detalle);
+
+        entityManager.persist(venta);
+    }
+}
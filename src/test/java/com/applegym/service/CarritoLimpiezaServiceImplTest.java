@@ -0,0 +1,129 @@
+package com.applegym.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.applegym.entity.Carrito;
+import com.applegym.entity.Cliente;
+import com.applegym.entity.DetalleCarrito;
+import com.applegym.entity.Producto;
+import com.applegym.repository.CarritoRepository;
+import com.applegym.service.impl.CarritoLimpiezaServiceImpl;
+
+/**
+ * Tests de integración para CarritoLimpiezaServiceImpl.
+ *
+ * Verifica que solo se expiran los carritos activos sin cambios y que la
+ * purga elimina carritos y detalles fuera de la retención, lote a lote.
+ *
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(CarritoLimpiezaServiceImpl.class)
+class CarritoLimpiezaServiceImplTest {
+
+    private static final LocalDateTime HACE_10_DIAS = LocalDateTime.now().minusDays(10);
+    private static final LocalDateTime HACE_40_DIAS = LocalDateTime.now().minusDays(40);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CarritoRepository carritoRepository;
+
+    @Autowired
+    private CarritoLimpiezaServiceImpl carritoLimpiezaService;
+
+    private Cliente cliente;
+
+    private Producto producto;
+
+    @BeforeEach
+    void setUp() {
+        cliente = entityManager.persist(new Cliente("Ana Torres", "ana@applegym.com", "secreta123"));
+        producto = entityManager.persist(new Producto("Proteína Whey", "Suplemento", new BigDecimal("99.90"), 10));
+        ReflectionTestUtils.setField(carritoLimpiezaService, "diasAbandono", 7L);
+        ReflectionTestUtils.setField(carritoLimpiezaService, "diasRetencion", 30L);
+        ReflectionTestUtils.setField(carritoLimpiezaService, "tamanoLote", 2);
+        ReflectionTestUtils.setField(carritoLimpiezaService, "maximoLotes", 10);
+        ReflectionTestUtils.setField(carritoLimpiezaService, "duracionMaximaMs", 60000L);
+    }
+
+    @Test
+    void expirarAbandonados_SoloMarcaActivosSinCambios() {
+        // Arrange
+        crearCarrito("ACTIVO", HACE_10_DIAS, null);
+        crearCarrito("ACTIVO", HACE_40_DIAS, HACE_10_DIAS);
+        crearCarrito("ACTIVO", HACE_10_DIAS, LocalDateTime.now());
+        crearCarrito("ACTIVO", LocalDateTime.now(), null);
+        crearCarrito("PROCESADO", HACE_10_DIAS, HACE_10_DIAS);
+        entityManager.flush();
+
+        // Act
+        int expirados = carritoLimpiezaService.expirarAbandonados();
+
+        // Assert
+        assertEquals(2, expirados);
+        assertEquals(2L, carritoRepository.countCarritosActivos());
+    }
+
+    @Test
+    void purgarAntiguos_EliminaCarritosYDetallesPorLotes() {
+        // Arrange
+        for (int i = 0; i < 5; i++) {
+            crearCarrito(i % 2 == 0 ? "PROCESADO" : "ABANDONADO", HACE_40_DIAS, HACE_40_DIAS);
+        }
+        crearCarrito("PROCESADO", HACE_40_DIAS, HACE_10_DIAS);
+        crearCarrito("ACTIVO", HACE_40_DIAS, HACE_40_DIAS);
+        entityManager.flush();
+
+        // Act
+        int eliminados = carritoLimpiezaService.purgarAntiguos();
+        entityManager.clear();
+
+        // Assert
+        assertEquals(5, eliminados);
+        assertEquals(2L, carritoRepository.count());
+        assertEquals(2L, entityManager.getEntityManager()
+            .createQuery("SELECT COUNT(d) FROM DetalleCarrito d", Long.class).getSingleResult());
+        assertEquals(3L, carritoLimpiezaService.obtenerEstado().get("lotes"));
+    }
+
+    @Test
+    void purgarAntiguos_SinTiempoDisponible_NoProcesaLotes() {
+        // Arrange
+        crearCarrito("PROCESADO", HACE_40_DIAS, HACE_40_DIAS);
+        entityManager.flush();
+        ReflectionTestUtils.setField(carritoLimpiezaService, "duracionMaximaMs", 0L);
+
+        // Act
+        int eliminados = carritoLimpiezaService.purgarAntiguos();
+
+        // Assert
+        assertEquals(0, eliminados);
+        assertEquals(1L, carritoRepository.count());
+    }
+
+    private void crearCarrito(String estado, LocalDateTime fecha, LocalDateTime fechaActualizacion) {
+        Carrito carrito = new Carrito(cliente);
+        carrito.setEstado(estado);
+        carrito.setFecha(fecha);
+        carrito.setFechaActualizacion(fechaActualizacion);
+        carrito.agregarDetalle(new DetalleCarrito(carrito, producto, 1));
+        entityManager.persist(carrito);
+    }
+}
@@ -0,0 +1,125 @@
+package com.applegym.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import com.applegym.dto.CatalogoSnapshot;
+import com.applegym.dto.ProductoDTO;
+import com.applegym.dto.ServicioDTO;
+import com.applegym.service.impl.CatalogoBusquedaServiceImpl;
+
+/**
+ * Tests unitarios para CatalogoBusquedaServiceImpl.
+ *
+ * Valida la tokenización en español, la tolerancia a errores, el orden
+ * por relevancia y la actualización incremental del índice.
+ *
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class CatalogoBusquedaServiceImplTest {
+
+    @Mock
+    private CatalogoSnapshotService catalogoSnapshotService;
+
+    @InjectMocks
+    private CatalogoBusquedaServiceImpl catalogoBusquedaService;
+
+    @BeforeEach
+    void setUp() {
+        catalogoBusquedaService.actualizarIndice(new CatalogoSnapshot(1,
+            List.of(
+                producto(1L, "Proteína Whey Gold", "Suplemento de proteína de suero"),
+                producto(2L, "Creatina Monohidrato", "Mejora la fuerza y la recuperación"),
+                producto(3L, "Barra energética", "Snack con proteínas y avena")),
+            List.of(
+                servicio(10L, "Sesiones de entrenamiento personal", "Rutina con entrenador certificado"),
+                servicio(11L, "Clases de spinning", "Clase grupal de ciclismo indoor")),
+            List.of()));
+    }
+
+    @Test
+    void testBuscar_SinTildesNiMayusculas() {
+        // Act
+        Page<ProductoDTO> resultado = catalogoBusquedaService.buscarProductos("PROTEINA", PageRequest.of(0, 10));
+
+        // Assert
+        assertEquals(2, resultado.getTotalElements());
+        assertEquals(1L, resultado.getContent().get(0).getIdProducto());
+    }
+
+    @Test
+    void testBuscar_PorPrefijoYPlural() {
+        // Act
+        Page<ServicioDTO> resultado = catalogoBusquedaService.buscarServicios("sesión entren", PageRequest.of(0, 10));
+
+        // Assert
+        assertEquals(1, resultado.getTotalElements());
+        assertEquals(10L, resultado.getContent().get(0).getIdServicio());
+    }
+
+    @Test
+    void testBuscar_ConErrorTipografico() {
+        // Act
+        Page<ProductoDTO> resultado = catalogoBusquedaService.buscarProductos("creatnia", PageRequest.of(0, 10));
+
+        // Assert
+        assertEquals(1, resultado.getTotalElements());
+        assertEquals(2L, resultado.getContent().get(0).getIdProducto());
+    }
+
+    @Test
+    void testBuscar_PaginacionConTotalCorrecto() {
+        // Act
+        Page<ProductoDTO> resultado = catalogoBusquedaService.buscarProductos("proteina", PageRequest.of(1, 1));
+
+        // Assert
+        assertEquals(2, resultado.getTotalElements());
+        assertEquals(1, resultado.getContent().size());
+        assertEquals(3L, resultado.getContent().get(0).getIdProducto());
+    }
+
+    @Test
+    void testActualizarIndice_Incremental() {
+        // Arrange
+        catalogoBusquedaService.actualizarIndice(new CatalogoSnapshot(2,
+            List.of(
+                producto(1L, "Guantes de entrenamiento", "Guantes con muñequera"),
+                producto(2L, "Creatina Monohidrato", "Mejora la fuerza y la recuperación")),
+            List.of(),
+            List.of()));
+
+        // Act & Assert
+        assertEquals(0, catalogoBusquedaService.buscarProductos("whey", PageRequest.of(0, 10)).getTotalElements());
+        assertEquals(1, catalogoBusquedaService.buscarProductos("guante", PageRequest.of(0, 10)).getTotalElements());
+        assertEquals(0, catalogoBusquedaService.buscarProductos("barra", PageRequest.of(0, 10)).getTotalElements());
+        assertTrue(catalogoBusquedaService.buscarServicios("spinning", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    private ProductoDTO producto(Long id, String nombre, String descripcion) {
+        return new ProductoDTO(id, nombre, descripcion, new BigDecimal("50.00"),
+            10, true, null, 1L, "Suplementos");
+    }
+
+    private ServicioDTO servicio(Long id, String nombre, String descripcion) {
+        ServicioDTO dto = new ServicioDTO();
+        dto.setIdServicio(id);
+        dto.setNombre(nombre);
+        dto.setDescripcion(descripcion);
+        dto.setPrecio(new BigDecimal("80.00"));
+        dto.setActivo(true);
+        return dto;
+    }
+}
@@ -29,6 +29,7 @@ import com.applegym.exception.DuplicateResourceException;
 import com.applegym.exception.InvalidDataException;
 import com.applegym.exception.ResourceNotFoundException;
 import com.applegym.repository.ClienteRepository;
+import com.applegym.security.JwtPrincipalCache;
 import com.applegym.service.impl.ClienteServiceImpl;
 
 /**
@@ -52,6 +53,9 @@ class ClienteServiceImplTest {
     @Mock
     private ModelMapper modelMapper;
     
+    @Mock
+    private JwtPrincipalCache principalCache;
+    
     @InjectMocks
     private ClienteServiceImpl clienteService;
     
@@ -179,6 +183,7 @@ class ClienteServiceImplTest {
         
         // Assert
         verify(clienteRepository).save(any(Cliente.class));
+        verify(principalCache).invalidarCliente("juan.perez@email.com");
         assertFalse(cliente.getActivo());
     }
     
@@ -235,6 +240,7 @@ class ClienteServiceImplTest {
         // Assert
         verify(passwordEncoder).encode(nuevaPassword);
         verify(clienteRepository).save(cliente);
+        verify(principalCache).invalidarCliente(cliente.getEmail());
     }
     
     @Test
@@ -0,0 +1,103 @@
+package com.applegym.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.applegym.dto.ResumenReporteDTO;
+import com.applegym.dto.VentaDetalleReporteDTO;
+import com.applegym.entity.Cliente;
+import com.applegym.entity.DetalleVenta;
+import com.applegym.entity.Venta;
+import com.applegym.service.impl.PdfServiceImpl;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
+
+/**
+ * Tests unitarios para PdfServiceImpl.
+ *
+ * Valida que el reporte de ventas en tabla grande repite los encabezados
+ * de columna en cada página y que el comprobante repite su encabezado
+ * pero dibuja el pie una sola vez, en la última página.
+ *
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+class PdfServiceImplTest {
+
+    private PdfServiceImpl pdfService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        pdfService = new PdfServiceImpl();
+        pdfService.inicializar();
+    }
+
+    @Test
+    void testGenerarReporteVentasPDF_VariasPaginas_RepiteEncabezados() throws Exception {
+        // Arrange
+        Stream<VentaDetalleReporteDTO> lineas = LongStream.rangeClosed(1, 400)
+            .mapToObj(id -> new VentaDetalleReporteDTO(id, "V-" + id, LocalDateTime.of(2024, 1, 15, 10, 0),
+                "Cliente " + id, "cliente" + id + "@applegym.com", "PRODUCTO", "Proteína Whey", 1,
+                new BigDecimal("99.90"), new BigDecimal("99.90")));
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        // Act
+        int paginas = pdfService.generarReporteVentasPDF(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31),
+            new ResumenReporteDTO(), List.of(), lineas, salida);
+
+        // Assert
+        assertTrue(paginas > 2);
+        try (PdfDocument pdf = new PdfDocument(new PdfReader(new ByteArrayInputStream(salida.toByteArray())))) {
+            for (int pagina = 2; pagina <= pdf.getNumberOfPages(); pagina++) {
+                String texto = PdfTextExtractor.getTextFromPage(pdf.getPage(pagina));
+                assertTrue(texto.contains("Precio Unit.") && texto.contains("Subtotal"),
+                    "Encabezados ausentes en la página " + pagina);
+            }
+        }
+    }
+
+    @Test
+    void testGenerarComprobantePDF_VariasPaginas_PieSoloEnLaUltima() throws Exception {
+        // Arrange
+        Venta venta = new Venta(new Cliente("Ana Torres", "ana@applegym.com", "secreta123"), new BigDecimal("5994.00"));
+        venta.setIdVenta(1L);
+        venta.setNumeroVenta("V-1");
+        venta.setEstado("COMPLETADO");
+        for (int i = 1; i <= 60; i++) {
+            DetalleVenta detalle = new DetalleVenta();
+            detalle.setVenta(venta);
+            detalle.setNombre("Producto " + i);
+            detalle.setCantidad(1);
+            detalle.setPrecioUnitario(new BigDecimal("99.90"));
+            detalle.setSubtotal(new BigDecimal("99.90"));
+            venta.getDetalles().add(detalle);
+        }
+
+        // Act
+        ByteArrayOutputStream salida = pdfService.generarComprobantePDF(venta);
+
+        // Assert
+        try (PdfDocument pdf = new PdfDocument(new PdfReader(new ByteArrayInputStream(salida.toByteArray())))) {
+            int paginas = pdf.getNumberOfPages();
+            assertTrue(paginas > 1);
+            for (int pagina = 1; pagina <= paginas; pagina++) {
+                String texto = PdfTextExtractor.getTextFromPage(pdf.getPage(pagina));
+                assertTrue(texto.contains("Comprobante de Venta"), "Encabezado ausente en la página " + pagina);
+                assertEquals(pagina == paginas, texto.contains("Gracias por su compra"),
+                    "Pie inesperado en la página " + pagina);
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.applegym.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.applegym.event.VentaCompletadaEvent;
+import com.applegym.repository.VentaRepository;
+import com.applegym.repository.VentaResumenHoraRepository;
+import com.applegym.repository.VentaResumenItemRepository;
+import com.applegym.service.impl.ResumenVentasServiceImpl;
+
+/**
+ * Tests unitarios para ResumenVentasServiceImpl.
+ *
+ * Valida que un acumulado que falla tras el commit de la venta se reintenta,
+ * que al agotar los reintentos los acumulados se reconstruyen y que una
+ * venta ya incluida por una reconstrucción no se suma dos veces.
+ *
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class ResumenVentasServiceImplTest {
+
+    private static final VentaCompletadaEvent VENTA = new VentaCompletadaEvent(
+        1L, LocalDateTime.now(), new BigDecimal("50.00"), List.of());
+
+    @Mock
+    private VentaResumenHoraRepository ventaResumenHoraRepository;
+
+    @Mock
+    private VentaResumenItemRepository ventaResumenItemRepository;
+
+    @Mock
+    private VentaRepository ventaRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private ResumenVentasServiceImpl resumenVentasService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(resumenVentasService, "maximoReintentos", 2);
+        resumenVentasService.inicializarTransaccion();
+        lenient().when(ventaRepository.marcarAcumuladaEnResumen(VENTA.getIdVenta())).thenReturn(1);
+    }
+
+    @Test
+    void testOnVentaCompletada_Fallo_SeReintenta() {
+        // Arrange
+        when(ventaResumenHoraRepository.acumular(any(), anyInt(), anyLong(), any()))
+            .thenThrow(new QueryTimeoutException("timeout"))
+            .thenReturn(1);
+
+        // Act
+        resumenVentasService.onVentaCompletada(VENTA);
+        int pendientes = resumenVentasService.reintentarPendientes();
+
+        // Assert
+        assertEquals(0, pendientes);
+        verify(ventaResumenHoraRepository, times(2)).acumular(any(), anyInt(), anyLong(), any());
+        verify(ventaResumenHoraRepository, never()).reconstruirDesdeVentas();
+    }
+
+    @Test
+    void testOnVentaCompletada_VentaYaAcumulada_NoSumaDosVeces() {
+        // Arrange
+        when(ventaRepository.marcarAcumuladaEnResumen(VENTA.getIdVenta())).thenReturn(0);
+
+        // Act
+        resumenVentasService.onVentaCompletada(VENTA);
+
+        // Assert
+        verify(ventaResumenHoraRepository, never()).acumular(any(), anyInt(), anyLong(), any());
+    }
+
+    @Test
+    void testReintentarPendientes_ReintentosAgotados_Reconstruye() {
+        // Arrange
+        when(ventaResumenHoraRepository.acumular(any(), anyInt(), anyLong(), any()))
+            .thenThrow(new QueryTimeoutException("timeout"));
+        resumenVentasService.onVentaCompletada(VENTA);
+
+        // Act
+        assertEquals(1, resumenVentasService.reintentarPendientes());
+        int pendientes = resumenVentasService.reintentarPendientes();
+
+        // Assert
+        assertEquals(0, pendientes);
+        verify(ventaRepository).marcarCompletadasAcumuladasEnResumen();
+        verify(ventaResumenHoraRepository).reconstruirDesdeVentas();
+        verify(ventaResumenItemRepository).reconstruirDesdeDetalles();
+    }
+}
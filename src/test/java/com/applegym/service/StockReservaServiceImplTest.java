@@ -0,0 +1,284 @@
+package com.applegym.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.applegym.entity.Producto;
+import com.applegym.entity.StockPendiente;
+import com.applegym.repository.ProductoRepository;
+import com.applegym.repository.StockPendienteRepository;
+import com.applegym.service.impl.StockReservaServiceImpl;
+
+/**
+ * Tests unitarios para StockReservaServiceImpl.
+ *
+ * Valida que las reservas concurrentes nunca superan el stock, que las
+ * reservas se liberan, que las ventas se escriben agrupadas por producto
+ * desde stock_pendiente y que un faltante se reintenta con espera.
+ *
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class StockReservaServiceImplTest {
+
+    private static final Long ID_PRODUCTO = 1L;
+    private static final int STOCK_INICIAL = 100;
+
+    @Mock
+    private ProductoRepository productoRepository;
+
+    @Mock
+    private StockPendienteRepository stockPendienteRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private StockReservaServiceImpl stockReservaService;
+
+    /** Contenido simulado de la tabla stock_pendiente. */
+    private final List<StockPendiente> tablaPendiente = new ArrayList<>();
+
+    private final AtomicLong secuenciaPendiente = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(stockReservaService, "habilitado", true);
+        ReflectionTestUtils.setField(stockReservaService, "ttlMinutos", 30L);
+        ReflectionTestUtils.setField(stockReservaService, "intervaloResincronizacionMs", Long.MAX_VALUE);
+        ReflectionTestUtils.setField(stockReservaService, "esperaFaltanteMs", 0L);
+        ReflectionTestUtils.setField(stockReservaService, "esperaFaltanteMaxMs", 60000L);
+        stockReservaService.inicializar();
+        simularTablaPendiente();
+
+        Producto producto = new Producto("Proteína Whey", "Promoción", new BigDecimal("99.90"), STOCK_INICIAL);
+        producto.setIdProducto(ID_PRODUCTO);
+        lenient().when(productoRepository.findById(ID_PRODUCTO)).thenReturn(Optional.of(producto));
+    }
+
+    @Test
+    void testReservar_Concurrente_NoSuperaElStock() throws Exception {
+        // Arrange
+        int hilos = 16;
+        AtomicInteger reservadas = new AtomicInteger();
+        CountDownLatch inicio = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int h = 0; h < hilos; h++) {
+            final String email = "cliente" + h + "@applegym.com";
+            tareas.add(executor.submit(() -> {
+                inicio.await();
+                for (int i = 0; i < 20; i++) {
+                    if (stockReservaService.reservar(email, ID_PRODUCTO, 1)) {
+                        reservadas.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        // Act
+        inicio.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(STOCK_INICIAL, reservadas.get());
+        assertEquals(0, stockReservaService.obtenerDisponible(ID_PRODUCTO));
+    }
+
+    @Test
+    void testLiberar_DevuelveUnidades() {
+        // Arrange
+        assertTrue(stockReservaService.reservar("ana@applegym.com", ID_PRODUCTO, 30));
+        assertTrue(stockReservaService.ajustarReserva("ana@applegym.com", ID_PRODUCTO, 50));
+
+        // Act
+        stockReservaService.liberarTodo("ANA@applegym.com");
+
+        // Assert
+        assertEquals(STOCK_INICIAL, stockReservaService.obtenerDisponible(ID_PRODUCTO));
+    }
+
+    @Test
+    void testReservarParaVenta_SinStock_IndicaProducto() {
+        // Arrange
+        assertTrue(stockReservaService.reservar("ana@applegym.com", ID_PRODUCTO, 90));
+
+        // Act
+        Optional<Long> resultado = stockReservaService.reservarParaVenta(
+            "luis@applegym.com", Map.of(ID_PRODUCTO, 20));
+
+        // Assert
+        assertEquals(Optional.of(ID_PRODUCTO), resultado);
+        assertFalse(stockReservaService.reservar("luis@applegym.com", ID_PRODUCTO, 11));
+    }
+
+    @Test
+    void testEscribirPendientes_AgrupaVentasPorProducto() {
+        // Arrange
+        when(productoRepository.decrementarStock(anyLong(), anyInt())).thenReturn(1);
+        stockReservaService.reservar("ana@applegym.com", ID_PRODUCTO, 3);
+        stockReservaService.reservarParaVenta("ana@applegym.com", Map.of(ID_PRODUCTO, 3));
+        stockReservaService.reservarParaVenta("luis@applegym.com", Map.of(ID_PRODUCTO, 2));
+
+        // Act
+        stockReservaService.escribirPendientes();
+        stockReservaService.escribirPendientes();
+
+        // Assert
+        verify(productoRepository, times(1)).decrementarStock(ID_PRODUCTO, 5);
+        assertEquals(STOCK_INICIAL - 5, stockReservaService.obtenerDisponible(ID_PRODUCTO));
+    }
+
+    @Test
+    void testEscribirPendientes_StockExternoInferior_MantieneVentasPendientes() {
+        // Arrange
+        stockReservaService.reservarParaVenta("ana@applegym.com", Map.of(ID_PRODUCTO, 5));
+        Producto reducido = new Producto("Proteína Whey", "Promoción", new BigDecimal("99.90"), 3);
+        reducido.setIdProducto(ID_PRODUCTO);
+        when(productoRepository.findById(ID_PRODUCTO)).thenReturn(Optional.of(reducido));
+        when(productoRepository.decrementarStock(ID_PRODUCTO, 5)).thenReturn(0, 1);
+
+        // Act
+        stockReservaService.escribirPendientes();
+
+        // Assert
+        assertTrue(stockReservaService.obtenerDisponible(ID_PRODUCTO) <= 0);
+        assertFalse(stockReservaService.reservar("luis@applegym.com", ID_PRODUCTO, 1));
+
+        // Tras reponer, las unidades pendientes se escriben en el siguiente ciclo
+        Producto repuesto = new Producto("Proteína Whey", "Promoción", new BigDecimal("99.90"), 45);
+        repuesto.setIdProducto(ID_PRODUCTO);
+        when(productoRepository.findById(ID_PRODUCTO)).thenReturn(Optional.of(repuesto));
+        stockReservaService.escribirPendientes();
+        verify(productoRepository, times(2)).decrementarStock(ID_PRODUCTO, 5);
+        assertEquals(45, stockReservaService.obtenerDisponible(ID_PRODUCTO));
+    }
+
+    @Test
+    void testReservarParaVenta_RegistraUnidadesEnLaTransaccion() {
+        // Act
+        stockReservaService.reservarParaVenta("ana@applegym.com", Map.of(ID_PRODUCTO, 4));
+
+        // Assert
+        assertEquals(1, tablaPendiente.size());
+        assertEquals(ID_PRODUCTO, tablaPendiente.get(0).getIdProducto());
+        assertEquals(4, tablaPendiente.get(0).getCantidad());
+    }
+
+    @Test
+    void testEscribirPendientes_VentasDeAntesDelArranque_SeEscribenYDescuentan() {
+        // Arrange: filas de ventas confirmadas que no llegaron al lote antes de reiniciar
+        guardarPendiente(ID_PRODUCTO, 7);
+        when(productoRepository.decrementarStock(ID_PRODUCTO, 7)).thenReturn(1);
+
+        // Act
+        assertEquals(STOCK_INICIAL - 7, stockReservaService.obtenerDisponible(ID_PRODUCTO));
+        stockReservaService.escribirPendientes();
+
+        // Assert
+        verify(productoRepository).decrementarStock(ID_PRODUCTO, 7);
+        assertTrue(tablaPendiente.isEmpty());
+    }
+
+    @Test
+    void testEscribirPendientes_Faltante_EsperaAntesDeReintentar() {
+        // Arrange
+        ReflectionTestUtils.setField(stockReservaService, "esperaFaltanteMs", 60000L);
+        stockReservaService.reservarParaVenta("ana@applegym.com", Map.of(ID_PRODUCTO, 5));
+        when(productoRepository.decrementarStock(ID_PRODUCTO, 5)).thenReturn(0);
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            stockReservaService.escribirPendientes();
+        }
+
+        // Assert: un intento y una lectura del producto, no una por ciclo
+        verify(productoRepository, times(1)).decrementarStock(ID_PRODUCTO, 5);
+        verify(productoRepository, times(2)).findById(ID_PRODUCTO);
+        verify(stockPendienteRepository, never()).eliminarPorIds(anyList());
+        assertEquals(1, tablaPendiente.size());
+    }
+
+    @Test
+    void testReservarParaVenta_UnidadesAgregadasDuranteElCheckout_SiguenReservadas() {
+        // Arrange
+        assertTrue(stockReservaService.reservar("ana@applegym.com", ID_PRODUCTO, 3));
+
+        // Act
+        stockReservaService.reservarParaVenta("ana@applegym.com", Map.of(ID_PRODUCTO, 2));
+
+        // Assert
+        assertEquals(STOCK_INICIAL - 3, stockReservaService.obtenerDisponible(ID_PRODUCTO));
+        stockReservaService.liberar("ana@applegym.com", ID_PRODUCTO);
+        assertEquals(STOCK_INICIAL - 2, stockReservaService.obtenerDisponible(ID_PRODUCTO));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void simularTablaPendiente() {
+        lenient().when(stockPendienteRepository.saveAll(any())).thenAnswer(invocacion -> {
+            for (StockPendiente pendiente : (Collection<StockPendiente>) invocacion.getArgument(0)) {
+                guardarPendiente(pendiente.getIdProducto(), pendiente.getCantidad());
+            }
+            return null;
+        });
+        lenient().when(stockPendienteRepository.findAllByOrderByIdStockPendienteAsc())
+            .thenAnswer(invocacion -> new ArrayList<>(tablaPendiente));
+        lenient().when(stockPendienteRepository.sumarPendiente(anyLong())).thenAnswer(invocacion ->
+            tablaPendiente.stream()
+                .filter(pendiente -> pendiente.getIdProducto().equals(invocacion.getArgument(0)))
+                .mapToLong(StockPendiente::getCantidad).sum());
+        lenient().when(stockPendienteRepository.eliminarPorIds(anyList())).thenAnswer(invocacion -> {
+            List<Long> ids = invocacion.getArgument(0);
+            tablaPendiente.removeIf(pendiente -> ids.contains(pendiente.getIdStockPendiente()));
+            return ids.size();
+        });
+    }
+
+    private void guardarPendiente(Long idProducto, int cantidad) {
+        StockPendiente pendiente = new StockPendiente(idProducto, cantidad);
+        pendiente.setIdStockPendiente(secuenciaPendiente.incrementAndGet());
+        tablaPendiente.add(pendiente);
+    }
+}
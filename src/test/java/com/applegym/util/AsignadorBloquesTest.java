@@ -0,0 +1,100 @@
+package com.applegym.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests unitarios para AsignadorBloques.
+ *
+ * Simula la tabla de secuencias con un contador compartido y verifica que
+ * varios hilos y varias instancias obtienen millones de números sin
+ * duplicados, crecientes dentro de cada instancia.
+ *
+ * @author AppleGym Team
+ * @version 1.0.0
+ */
+class AsignadorBloquesTest {
+
+    private static final String SERIE = "VT";
+    private static final int HILOS = 16;
+    private static final int NUMEROS_POR_HILO = 250_000;
+
+    @Test
+    void testSiguiente_ConcurrenteEntreInstancias_SinDuplicados() throws Exception {
+        // Arrange: dos instancias compartiendo la misma "tabla"
+        AtomicLong tabla = new AtomicLong(1);
+        AtomicInteger reservas = new AtomicInteger();
+        AsignadorBloques.FuenteBloques fuente = (serie, tamano) -> {
+            reservas.incrementAndGet();
+            return tabla.getAndAdd(tamano);
+        };
+        AsignadorBloques[] instancias = {new AsignadorBloques(fuente, 100), new AsignadorBloques(fuente, 100)};
+
+        CountDownLatch inicio = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+        List<Future<long[]>> tareas = new ArrayList<>();
+        for (int h = 0; h < HILOS; h++) {
+            AsignadorBloques asignador = instancias[h % instancias.length];
+            tareas.add(executor.submit(() -> {
+                inicio.await();
+                long[] numeros = new long[NUMEROS_POR_HILO];
+                for (int i = 0; i < NUMEROS_POR_HILO; i++) {
+                    numeros[i] = asignador.siguiente(SERIE);
+                }
+                return numeros;
+            }));
+        }
+
+        // Act
+        inicio.countDown();
+        long[] todos = new long[HILOS * NUMEROS_POR_HILO];
+        int posicion = 0;
+        for (Future<long[]> tarea : tareas) {
+            long[] numeros = tarea.get(60, TimeUnit.SECONDS);
+            for (int i = 1; i < numeros.length; i++) {
+                assertTrue(numeros[i] > numeros[i - 1], "Los números de un hilo deben ser crecientes");
+            }
+            System.arraycopy(numeros, 0, todos, posicion, numeros.length);
+            posicion += numeros.length;
+        }
+        executor.shutdown();
+
+        // Assert
+        Arrays.sort(todos);
+        for (int i = 1; i < todos.length; i++) {
+            assertTrue(todos[i] != todos[i - 1], "Número duplicado: " + todos[i]);
+        }
+        assertTrue(todos[0] >= 1);
+        // Solo una reserva en la fuente cada 100 números (más el último bloque de cada instancia)
+        assertTrue(reservas.get() <= todos.length / 100 + instancias.length);
+    }
+
+    @Test
+    void testSiguiente_SeriesIndependientes() {
+        // Arrange
+        AtomicLong tabla = new AtomicLong(1);
+        AsignadorBloques asignador = new AsignadorBloques((serie, tamano) -> tabla.getAndAdd(tamano), 10);
+
+        // Act
+        long primeraBoleta = asignador.siguiente("B001");
+        long primeraFactura = asignador.siguiente("F001");
+        long segundaBoleta = asignador.siguiente("B001");
+
+        // Assert
+        assertEquals(1L, primeraBoleta);
+        assertEquals(11L, primeraFactura);
+        assertEquals(2L, segundaBoleta);
+    }
+}